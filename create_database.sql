@@ -86,6 +86,15 @@ CREATE TABLE Delivery (
     FOREIGN KEY (idCourier) REFERENCES Courier(idCourier) ON DELETE CASCADE
 );
 
+-- Counter ID per entity (dipakai IdAllocator, diisi otomatis saat ID pertama dibuat)
+CREATE TABLE IdSequence (
+    name VARCHAR(100) PRIMARY KEY,
+    nextValue BIGINT NOT NULL
+);
+
+-- Index dan perubahan skema berikutnya diterapkan otomatis oleh
+-- database.MigrationRunner saat aplikasi dijalankan (tabel SchemaVersion).
+
 -- ==================== INSERT TEST DATA ====================
 
 -- Insert Users
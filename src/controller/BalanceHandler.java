@@ -0,0 +1,122 @@
+package controller;
+
+import model.BalanceTransaction;
+import database.BalanceTransactionDAO;
+import database.CustomerDAO;
+import database.DatabaseConnection;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * BalanceHandler
+ *
+ * Controller untuk semua perubahan saldo customer lewat buku besar BalanceTransaction.
+ * Setiap perubahan (top up, debit) mengubah kolom Customer.balance dan menambah
+ * satu entri buku besar di transaksi yang sama, sehingga keduanya tidak pernah berbeda.
+ *
+ * Customer.balance berfungsi sebagai saldo berjalan yang di-cache: membaca saldo cukup
+ * satu lookup primary key tanpa menjumlahkan entri. Debit dijaga dengan
+ * UPDATE ... WHERE balance >= ?, sehingga saldo tidak pernah negatif walaupun ada
+ * beberapa checkout bersamaan.
+ *
+ * Jika dipanggil di dalam transaksi lain (misalnya checkoutCart), perubahan saldo ikut
+ * di-commit atau di-rollback bersama transaksi tersebut.
+ */
+public class BalanceHandler {
+    private CustomerDAO customerDAO;
+    private BalanceTransactionDAO balanceTransactionDAO;
+
+    /**
+     * Constructor untuk BalanceHandler
+     * Menginisialisasi CustomerDAO dan BalanceTransactionDAO untuk akses database
+     */
+    public BalanceHandler() {
+        this.customerDAO = new CustomerDAO();
+        this.balanceTransactionDAO = new BalanceTransactionDAO();
+    }
+
+    /**
+     * Menambah saldo customer dan mencatat entri top up
+     *
+     * @param idCustomer ID customer
+     * @param amount Nominal top up (harus lebih dari 0)
+     * @return "success" jika berhasil, pesan error sebaliknya
+     */
+    public String topUp(String idCustomer, double amount) {
+        return credit(idCustomer, amount, BalanceTransaction.TYPE_TOPUP, null, "Top up gagal");
+    }
+
+    /**
+     * Mengurangi saldo customer hanya jika saldo mencukupi, lalu mencatat entri debit
+     * Dipakai oleh checkout di dalam transaksinya sendiri: pesan error dilempar sebagai
+     * BusinessRuleException agar seluruh transaksi pemanggil dibatalkan.
+     *
+     * @param idCustomer ID customer
+     * @param amount Nominal yang didebit (harus lebih dari 0)
+     * @param idOrder ID order yang dibayar (boleh null)
+     * @throws SQLException jika saldo tidak cukup atau penyimpanan gagal
+     */
+    public void debit(String idCustomer, double amount, String idOrder) throws SQLException {
+        if (amount <= 0) {
+            throw new BusinessRuleException("Nominal harus lebih dari 0");
+        }
+        DatabaseConnection.getInstance().inTransaction(() -> {
+            if (!customerDAO.deductBalanceIfSufficient(idCustomer, amount)) {
+                throw new BusinessRuleException("Saldo tidak mencukupi");
+            }
+            record(idCustomer, BalanceTransaction.TYPE_DEBIT, -amount, idOrder, "Pembayaran gagal");
+            return null;
+        });
+    }
+
+    /**
+     * Mendapatkan saldo customer dari saldo berjalan (tanpa membaca buku besar)
+     *
+     * @param idCustomer ID customer
+     * @return Saldo customer
+     */
+    public double getBalance(String idCustomer) {
+        try {
+            return customerDAO.getBalance(idCustomer);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    private String credit(String idCustomer, double amount, String type, String idOrder, String failure) {
+        if (amount <= 0) {
+            return "Nominal harus lebih dari 0";
+        }
+        try {
+            return DatabaseConnection.getInstance().inTransaction(() -> {
+                if (!customerDAO.topUpBalance(idCustomer, amount)) {
+                    throw new BusinessRuleException(failure);
+                }
+                record(idCustomer, type, amount, idOrder, failure);
+                return "success";
+            });
+        } catch (BusinessRuleException e) {
+            return e.getMessage();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return failure;
+        }
+    }
+
+    /**
+     * Menambah entri buku besar setelah Customer.balance diubah di transaksi yang sama
+     * Baris customer sudah terkunci oleh UPDATE sebelumnya, sehingga saldo yang dibaca
+     * adalah saldo tepat setelah perubahan ini.
+     */
+    private void record(String idCustomer, String type, double amount, String idOrder, String failure)
+            throws SQLException {
+        double balanceAfter = customerDAO.getBalance(idCustomer);
+        BalanceTransaction entry = new BalanceTransaction(balanceTransactionDAO.generateId(), idCustomer, type,
+                amount, balanceAfter, idOrder, LocalDateTime.now());
+        if (!balanceTransactionDAO.insertTransaction(entry)) {
+            throw new BusinessRuleException(failure);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package controller;
+
+import java.sql.SQLException;
+
+/**
+ * BusinessRuleException
+ *
+ * Dilempar controller di dalam inTransaction ketika aturan bisnis menolak operasi
+ * (saldo tidak cukup, stok habis, keranjang kosong, dan sebagainya). Pesannya
+ * ditujukan untuk user dan boleh ditampilkan langsung di view.
+ *
+ * Turunan SQLException hanya agar bisa dilempar dari TransactionCallback dan
+ * me-rollback transaksi. Berbeda dengan SQLTransactionRollbackException dari driver
+ * (deadlock, lock wait timeout), exception ini tidak pernah diulang oleh inTransaction.
+ */
+public class BusinessRuleException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message Pesan untuk user
+     */
+    public BusinessRuleException(String message) {
+        super(message);
+    }
+}
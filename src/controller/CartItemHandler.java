@@ -1,9 +1,12 @@
 package controller;
 
 import model.CartItem;
+import model.CartLine;
 import database.CartItemDAO;
 import database.ProductDAO;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -65,7 +68,7 @@ public class CartItemHandler {
             }
         }
 
-        CartItem cartItem = new CartItem("CART_" + System.currentTimeMillis(), idCustomer, idProduct, count);
+        CartItem cartItem = new CartItem(cartItemDAO.generateId(), idCustomer, idProduct, count);
         if (cartItemDAO.insertCartItem(cartItem)) {
             return "success";
         }
@@ -116,6 +119,21 @@ public class CartItemHandler {
         return cartItemDAO.getCartItemByCustomerId(idCustomer);
     }
 
+    /**
+     * Mendapatkan isi cart customer beserta data produknya (nama, harga, stok)
+     *
+     * @param idCustomer ID customer
+     * @return List CartLine milik customer
+     */
+    public List<CartLine> getCartLines(String idCustomer) {
+        try {
+            return cartItemDAO.getCartLinesByCustomerId(idCustomer);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Mendapatkan semua cart item
      * 
@@ -146,8 +164,12 @@ public class CartItemHandler {
      * @return "success" jika berhasil, pesan error sebaliknya
      */
     public String deleteCartItemByCustomerId(String idCustomer) {
-        if (cartItemDAO.deleteCartItemByCustomerId(idCustomer)) {
-            return "success";
+        try {
+            if (cartItemDAO.deleteCartItemByCustomerId(idCustomer)) {
+                return "success";
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
         return "Hapus cart gagal";
     }
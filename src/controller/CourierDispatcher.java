@@ -0,0 +1,229 @@
+package controller;
+
+import model.Courier;
+import model.Delivery;
+import model.DispatchResult;
+import database.CourierDAO;
+import database.DatabaseConnection;
+import database.DeliveryDAO;
+import database.OrderHeaderDAO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * CourierDispatcher
+ *
+ * Assign kurir otomatis untuk order pending yang belum punya Delivery.
+ * Setiap putaran mengambil order per batch (order terlama dulu) dan memberikan setiap
+ * order ke kurir dengan beban terendah, yaitu jumlah delivery yang belum delivered
+ * dibagi kapasitas kendaraannya (mobil membawa lebih banyak order daripada motor).
+ * Semua Delivery satu batch diinsert dengan satu batch statement dalam satu transaksi.
+ *
+ * Putaran bisa dijalankan manual (dispatchPending) atau terjadwal di background thread
+ * (start/stop). Order yang sedang diproses dispatcher lain atau assign manual
+ * (DeliveryHandler.assignCourier) dikunci dan dilewati, sehingga aman dijalankan dari
+ * beberapa client sekaligus.
+ */
+public class CourierDispatcher {
+    public static final int BATCH_SIZE = 200;
+    public static final long DEFAULT_INTERVAL_SECONDS = 30;
+
+    // Kapasitas relatif per tipe kendaraan; tipe lain dianggap 1
+    private static final Map<String, Integer> VEHICLE_CAPACITY = new HashMap<>();
+
+    static {
+        VEHICLE_CAPACITY.put("motor", 1);
+        VEHICLE_CAPACITY.put("mobil", 3);
+    }
+
+    private static final CourierDispatcher INSTANCE = new CourierDispatcher();
+
+    private final OrderHeaderDAO orderHeaderDAO = new OrderHeaderDAO();
+    private final CourierDAO courierDAO = new CourierDAO();
+    private final DeliveryDAO deliveryDAO = new DeliveryDAO();
+    private final Object dispatchLock = new Object();
+
+    private ScheduledExecutorService scheduler;             // null jika tidak terjadwal
+    private volatile Consumer<DispatchResult> listener;     // dipanggil di thread dispatcher
+
+    private CourierDispatcher() {
+    }
+
+    /**
+     * Mendapatkan instance CourierDispatcher yang dipakai bersama
+     *
+     * @return CourierDispatcher instance
+     */
+    public static CourierDispatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Menjalankan putaran dispatch secara berkala di background thread
+     * Jika sudah berjalan, hanya listener yang diganti.
+     *
+     * @param intervalSeconds Jeda antar putaran (detik)
+     * @param listener Penerima hasil setiap putaran yang meng-assign order (boleh null)
+     */
+    public synchronized void start(long intervalSeconds, Consumer<DispatchResult> listener) {
+        this.listener = listener;
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "courier-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runScheduled, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Menghentikan dispatch terjadwal (putaran yang sedang berjalan dibiarkan selesai)
+     */
+    public synchronized void stop() {
+        listener = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * @return true jika dispatch terjadwal sedang aktif
+     */
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Mengganti penerima hasil putaran terjadwal tanpa mengubah jadwal
+     *
+     * @param listener Penerima hasil (boleh null)
+     */
+    public void setListener(Consumer<DispatchResult> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Meng-assign semua order pending yang belum punya kurir, per batch
+     *
+     * @return DispatchResult jumlah order yang di-assign dan throughput-nya
+     */
+    public DispatchResult dispatchPending() {
+        synchronized (dispatchLock) {
+            long start = System.nanoTime();
+            int assigned = 0;
+            int couriers = 0;
+            try {
+                while (true) {
+                    int[] batch = DatabaseConnection.getInstance().inTransaction(this::dispatchBatch);
+                    assigned += batch[0];
+                    couriers = batch[1];
+                    if (batch[0] < BATCH_SIZE) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            DispatchResult result = new DispatchResult(assigned, couriers, System.nanoTime() - start);
+            if (assigned > 0) {
+                System.out.println("[dispatch] " + result);
+            }
+            return result;
+        }
+    }
+
+    private void runScheduled() {
+        try {
+            DispatchResult result = dispatchPending();
+            Consumer<DispatchResult> current = listener;
+            if (current != null && result.getAssigned() > 0) {
+                current.accept(result);
+            }
+        } catch (RuntimeException e) {
+            // Jangan biarkan exception menghentikan jadwal berikutnya
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Satu batch di dalam transaksi: kunci order, baca beban kurir, lalu insert semua Delivery
+     *
+     * @return {jumlah order yang di-assign, jumlah kurir}
+     */
+    private int[] dispatchBatch() throws SQLException {
+        List<String> orderIds = orderHeaderDAO.lockUnassignedPendingOrderIds(BATCH_SIZE);
+        if (orderIds.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+        List<Courier> couriers = courierDAO.getCourierLoads();
+        if (couriers.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+
+        PriorityQueue<CourierLoad> loads = new PriorityQueue<>(couriers.size(), CourierLoad.LEAST_LOADED);
+        for (Courier courier : couriers) {
+            loads.add(new CourierLoad(courier.getIdCourier(), courier.getActiveDeliveryCount(),
+                    capacityOf(courier.getVehicleType())));
+        }
+
+        List<Delivery> deliveries = new ArrayList<>(orderIds.size());
+        for (String idOrder : orderIds) {
+            CourierLoad load = loads.poll();
+            deliveries.add(new Delivery(deliveryDAO.generateId(), idOrder, load.idCourier, "pending"));
+            load.active++;
+            loads.add(load);
+        }
+
+        if (!deliveryDAO.insertDeliveries(deliveries)) {
+            throw new BusinessRuleException("Assign kurir otomatis gagal");
+        }
+        return new int[] { deliveries.size(), couriers.size() };
+    }
+
+    private static int capacityOf(String vehicleType) {
+        if (vehicleType == null) {
+            return 1;
+        }
+        return VEHICLE_CAPACITY.getOrDefault(vehicleType.trim().toLowerCase(Locale.ROOT), 1);
+    }
+
+    /**
+     * CourierLoad
+     *
+     * Beban satu kurir selama satu batch. Kurir berikutnya adalah yang bebannya
+     * paling rendah setelah menerima satu order lagi: (active + 1) / capacity.
+     */
+    private static final class CourierLoad {
+        private static final Comparator<CourierLoad> LEAST_LOADED = Comparator
+                .comparingDouble(CourierLoad::nextLoad)
+                .thenComparing(load -> load.idCourier);
+
+        private final String idCourier;
+        private final int capacity;
+        private int active;
+
+        private CourierLoad(String idCourier, int active, int capacity) {
+            this.idCourier = idCourier;
+            this.active = active;
+            this.capacity = capacity;
+        }
+
+        private double nextLoad() {
+            return (active + 1) / (double) capacity;
+        }
+    }
+}
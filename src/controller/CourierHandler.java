@@ -53,6 +53,17 @@ public class CourierHandler {
         return courierDAO.getAllCouriers();
     }
 
+    /**
+     * Mendapatkan semua kurir beserta nama user dan jumlah delivery aktif
+     * Dipakai oleh view daftar kurir dan popup assign courier (satu query).
+     * 
+     * @param vehicleType Filter tipe kendaraan, null untuk semua kurir
+     * @return List kurir dengan data user dan activeDeliveryCount
+     */
+    public List<Courier> getCourierSummaries(String vehicleType) {
+        return courierDAO.getCourierSummaries(vehicleType);
+    }
+
     /**
      * Insert kurir baru ke database
      * 
@@ -0,0 +1,86 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvReader
+ *
+ * Membaca file CSV (RFC 4180) satu record per panggilan tanpa memuat seluruh file.
+ * Field boleh diapit tanda kutip; di dalamnya koma, baris baru, dan "" (kutip ganda)
+ * diperlakukan sebagai isi field. Akhir baris LF maupun CRLF diterima.
+ */
+final class CsvReader implements Closeable {
+    private final Reader reader;
+    private int lineNumber;   // Baris fisik terakhir yang dibaca (1-based)
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Membaca record berikutnya
+     *
+     * @return field-field record, null jika sudah di akhir file
+     * @throws IOException jika pembacaan gagal atau tanda kutip tidak ditutup
+     */
+    List<String> next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Tanda kutip tidak ditutup di baris " + lineNumber);
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * @return nomor baris fisik terakhir yang dibaca, untuk pesan error
+     */
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,58 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CsvWriter
+ *
+ * Menulis record CSV (RFC 4180) langsung ke Writer. Field yang memuat koma,
+ * tanda kutip, atau baris baru diapit tanda kutip.
+ */
+final class CsvWriter implements Closeable {
+    private final Writer writer;
+
+    CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Menulis satu record diakhiri baris baru
+     *
+     * @param fields Field-field record (null ditulis sebagai field kosong)
+     * @throws IOException jika penulisan gagal
+     */
+    void write(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields[i]);
+        }
+        writer.write('\n');
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -3,6 +3,8 @@ package controller;
 import model.Customer;
 import database.CustomerDAO;
 
+import java.sql.SQLException;
+
 /**
  * CustomerController
  * 
@@ -12,18 +14,21 @@ import database.CustomerDAO;
  */
 public class CustomerHandler {
     private CustomerDAO customerDAO;
+    private BalanceHandler balanceHandler;
 
     /**
      * Constructor untuk CustomerController
-     * Menginisialisasi CustomerDAO untuk akses database
+     * Menginisialisasi CustomerDAO untuk akses database dan BalanceHandler untuk perubahan saldo
      */
     public CustomerHandler() {
         this.customerDAO = new CustomerDAO();
+        this.balanceHandler = new BalanceHandler();
     }
 
     /**
      * Top up saldo customer
      * Validasi memastikan nominal minimal 10.000 dan lebih dari 0
+     * Saldo ditambah dan dicatat di buku besar lewat BalanceHandler
      * 
      * @param idCustomer ID customer yang akan top up
      * @param amount Jumlah nominal top up
@@ -38,15 +43,12 @@ public class CustomerHandler {
             return "Minimal top up adalah 10.000";
         }
 
-        if (customerDAO.topUpBalance(idCustomer, amount)) {
-            return "success";
-        }
-        return "Top up gagal";
+        return balanceHandler.topUp(idCustomer, amount);
     }
 
     /**
      * Checkout/pembayaran pesanan
-     * Memvalidasi saldo customer dan mendebit saldo sesuai total amount
+     * Mendebit saldo sesuai total amount hanya jika saldo mencukupi (dicatat di buku besar)
      * 
      * @param idCustomer ID customer yang checkout
      * @param totalAmount Total amount yang harus dibayar
@@ -59,24 +61,31 @@ public class CustomerHandler {
             return "Customer tidak ditemukan";
         }
 
-        if (customer.getBalance() < totalAmount) {
-            return "Saldo tidak mencukupi";
-        }
-
-        if (customerDAO.deductBalance(idCustomer, totalAmount)) {
+        try {
+            balanceHandler.debit(idCustomer, totalAmount, null);
             return "success";
+        } catch (BusinessRuleException e) {
+            return e.getMessage();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return "Checkout gagal";
         }
-        return "Checkout gagal";
     }
 
     /**
      * Mendapatkan saldo customer
+     * Dibaca dari saldo berjalan Customer.balance, tanpa menjumlahkan buku besar
      * 
      * @param idCustomer ID customer
      * @return Saldo customer
      */
     public double getBalance(String idCustomer) {
-        return customerDAO.getBalance(idCustomer);
+        try {
+            return customerDAO.getBalance(idCustomer);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
     }
 
     /**
@@ -1,7 +1,20 @@
 package controller;
 
+import model.ChangeCursor;
+import model.ChangeSet;
 import model.Delivery;
+import model.DeliveryStatus;
+import model.Page;
+import model.PageCursor;
+import database.DatabaseConnection;
 import database.DeliveryDAO;
+import database.OrderHeaderDAO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * DeliveryController
@@ -12,6 +25,7 @@ import database.DeliveryDAO;
  */
 public class DeliveryHandler {
     private DeliveryDAO deliveryDAO;
+    private OrderHeaderDAO orderHeaderDAO;
 
     /**
      * Constructor untuk DeliveryController
@@ -19,15 +33,33 @@ public class DeliveryHandler {
      */
     public DeliveryHandler() {
         this.deliveryDAO = new DeliveryDAO();
+        this.orderHeaderDAO = new OrderHeaderDAO();
+    }
+
+    /**
+     * Generate ID unik untuk delivery baru
+     *
+     * @return String ID delivery dengan format DELIV_XXXXX
+     */
+    public String generateId() {
+        return deliveryDAO.generateId();
     }
     
     public boolean isOrderAlreadyAssigned(String orderId) {
-        return deliveryDAO.isOrderAlreadyAssigned(orderId);
+        try {
+            return deliveryDAO.isOrderAlreadyAssigned(orderId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
     }
 
     /**
      * Assign kurir untuk pengiriman
-     * Validasi memastikan kurir dipilih sebelum assign
+     * Validasi memastikan kurir dipilih sebelum assign. Baris order dikunci dalam transaksi
+     * sebelum pengecekan double assign, sama seperti CourierDispatcher, sehingga dua assign
+     * untuk order yang sama berjalan bergantian; unique index pada Delivery.idOrder menjadi
+     * pengaman terakhir.
      * 
      * @param idDelivery ID delivery yang unik
      * @param idOrder ID order yang akan dikirim
@@ -39,43 +71,95 @@ public class DeliveryHandler {
             return "Kurir harus dipilih";
         }
 
-        // CEK DOUBLE ASSIGN (server-side validation)
-        if (deliveryDAO.isOrderAlreadyAssigned(idOrder)) {
-            return "Order sudah pernah di-assign";
-        }
+        try {
+            return DatabaseConnection.getInstance().inTransaction(() -> {
+                if (!orderHeaderDAO.lockOrder(idOrder)) {
+                    throw new BusinessRuleException("Assign kurir gagal");
+                }
+
+                // CEK DOUBLE ASSIGN (server-side validation), setelah order terkunci
+                if (deliveryDAO.isOrderAlreadyAssigned(idOrder)) {
+                    throw new BusinessRuleException("Order sudah pernah di-assign");
+                }
 
-        Delivery delivery = new Delivery(idDelivery, idOrder, idCourier, "pending");
-        if (deliveryDAO.insertDelivery(delivery)) {
-            return "success";
+                Delivery delivery = new Delivery(idDelivery, idOrder, idCourier, "pending");
+                if (!deliveryDAO.insertDelivery(delivery)) {
+                    throw new BusinessRuleException("Assign kurir gagal");
+                }
+                return "success";
+            });
+        } catch (BusinessRuleException e) {
+            return e.getMessage();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return "Assign kurir gagal";
         }
-        return "Assign kurir gagal";
     }
 
 
     /**
-     * Update status pengiriman
-     * Status yang valid: pending, in progress, delivered
+     * Update status pengiriman beserta status order-nya
+     * Status yang valid: pending, in progress, delivered (hanya maju satu langkah)
      * 
      * @param idDelivery ID delivery
-     * @param status Status baru (pending/in progress/delivered)
+     * @param status Status baru (in progress/delivered)
      * @return "success" jika update berhasil, pesan error sebaliknya
      */
     public String updateDeliveryStatus(String idDelivery, String status) {
+        return updateDeliveryStatuses(Collections.singletonList(idDelivery), status, null);
+    }
+
+    /**
+     * Update status beberapa pengiriman sekaligus beserta status order-nya
+     * Transisi divalidasi (pending -> in progress -> delivered); Delivery dan OrderHeader
+     * diubah dalam satu transaksi dengan satu batch statement. Jika ada satu pengiriman
+     * yang tidak bisa diubah, tidak ada perubahan yang tersimpan.
+     * 
+     * @param idDeliveries ID delivery yang akan diubah
+     * @param status Status baru (in progress/delivered)
+     * @param idCourier Kurir pemilik delivery, null atau kosong jika diubah oleh admin
+     * @return "success" jika update berhasil, pesan error sebaliknya
+     */
+    public String updateDeliveryStatuses(List<String> idDeliveries, String status, String idCourier) {
         if (status == null || status.isEmpty()) {
             return "Status harus dipilih";
         }
 
-        if (!status.equals("pending") && !status.equals("in progress") && !status.equals("delivered")) {
+        DeliveryStatus target = DeliveryStatus.fromValue(status);
+        if (target == null) {
             return "Status harus Pending, In Progress, atau Delivered";
         }
 
-        if (deliveryDAO.updateDeliveryStatus(idDelivery, status)) {
-            return "success";
+        if (target.previous() == null) {
+            return "Status pengiriman tidak bisa dikembalikan ke " + target;
+        }
+
+        if (idDeliveries == null || idDeliveries.isEmpty()) {
+            return "Pilih pengiriman terlebih dahulu";
+        }
+
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(idDeliveries));
+        String owner = idCourier == null || idCourier.isEmpty() ? null : idCourier;
+        List<String> rejected = new ArrayList<>();
+        try {
+            return DatabaseConnection.getInstance().inTransaction(() -> {
+                rejected.clear();
+                List<String> failed = deliveryDAO.transitionStatuses(ids, target.previous().getValue(),
+                        target.getValue(), owner);
+                if (!failed.isEmpty()) {
+                    rejected.addAll(failed);
+                    throw new BusinessRuleException("Status tidak bisa diubah");
+                }
+                return "success";
+            });
+        } catch (BusinessRuleException e) {
+            return "Hanya pengiriman berstatus " + target.previous() + " yang bisa diubah ke " + target
+                    + ": " + String.join(", ", rejected);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return "Update status pengiriman gagal";
         }
-        return "Update status pengiriman gagal";
     }
-    
-    
 
     /**
      * Mendapatkan delivery berdasarkan ID
@@ -116,6 +200,59 @@ public class DeliveryHandler {
         return deliveryDAO.getAllDeliveries();
     }
 
+    /**
+     * Mendapatkan satu halaman delivery, dari order terbaru
+     * 
+     * @param after Cursor halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah delivery per halaman
+     * @return Page delivery
+     */
+    public Page<Delivery> getDeliveryPage(PageCursor after, int pageSize) {
+        return deliveryDAO.getDeliveryPage(after, pageSize);
+    }
+
+    /**
+     * Mendapatkan satu halaman delivery milik kurir tertentu, dari order terbaru
+     * 
+     * @param idCourier ID kurir
+     * @param after Cursor halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah delivery per halaman
+     * @return Page delivery yang ditugaskan ke kurir
+     */
+    public Page<Delivery> getDeliveryPageByCourierId(String idCourier, PageCursor after, int pageSize) {
+        return deliveryDAO.getDeliveryPageByCourierId(idCourier, after, pageSize);
+    }
+
+    /**
+     * Mendapatkan cursor awal data delivery untuk polling perubahan
+     * 
+     * @return cursor awal, null jika gagal
+     */
+    public ChangeCursor getDeliveryChangeVersion() {
+        return deliveryDAO.getChangeVersion();
+    }
+
+    /**
+     * Mendapatkan delivery yang berubah setelah cursor tertentu
+     * 
+     * @param since Cursor terakhir yang sudah diterapkan di view
+     * @return ChangeSet delivery yang berubah
+     */
+    public ChangeSet<Delivery> getDeliveriesChangedSince(ChangeCursor since) {
+        return deliveryDAO.getDeliveriesChangedSince(since);
+    }
+
+    /**
+     * Mendapatkan delivery milik kurir tertentu yang berubah setelah cursor tertentu
+     * 
+     * @param idCourier ID kurir
+     * @param since Cursor terakhir yang sudah diterapkan di view
+     * @return ChangeSet delivery kurir yang berubah
+     */
+    public ChangeSet<Delivery> getDeliveriesChangedSinceByCourierId(String idCourier, ChangeCursor since) {
+        return deliveryDAO.getDeliveriesChangedSinceByCourierId(idCourier, since);
+    }
+
     /**
      * Mendapatkan delivery berdasarkan status
      * 
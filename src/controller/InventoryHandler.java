@@ -0,0 +1,97 @@
+package controller;
+
+import database.DatabaseConnection;
+import database.ProductDAO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InventoryController
+ *
+ * Controller untuk menangani reservasi stok produk.
+ * Stok dikurangi langsung di database dengan UPDATE bersyarat
+ * (stock = stock - qty WHERE stock >= qty), tanpa membaca stok terlebih dahulu
+ * dan tanpa lock di sisi aplikasi, sehingga checkout bersamaan tidak bisa oversell.
+ * Reservasi tidak menyentuh ProductCache dan ProductSearchIndex; pemanggil memanggil
+ * publishReservation setelah transaksinya di-commit, agar stok dari transaksi yang
+ * akhirnya di-rollback tidak pernah terlihat di cache atau index.
+ *
+ */
+public class InventoryHandler {
+    private ProductDAO productDAO;
+
+    /**
+     * Constructor untuk InventoryController
+     * Menginisialisasi ProductDAO untuk akses database
+     */
+    public InventoryHandler() {
+        this.productDAO = new ProductDAO();
+    }
+
+    /**
+     * Reservasi stok untuk satu produk
+     *
+     * @param idProduct ID produk
+     * @param qty Jumlah yang dikurangi
+     * @return "success" jika stok berhasil dikurangi, pesan error sebaliknya
+     * @throws SQLException jika database gagal (misalnya deadlock), agar transaksi pemanggil bisa diulang
+     */
+    public String reserveStock(String idProduct, int qty) throws SQLException {
+        if (qty <= 0) {
+            return "Qty harus lebih dari 0";
+        }
+        if (reserveStock(Collections.singletonMap(idProduct, qty)).isEmpty()) {
+            return "success";
+        }
+        return "Stok tidak mencukupi";
+    }
+
+    /**
+     * Reservasi stok untuk beberapa produk sekaligus dalam satu batch
+     * Semua produk berhasil dikurangi, atau tidak ada yang berubah sama sekali.
+     * Jika dipanggil di dalam transaksi lain, reservasi ikut transaksi tersebut.
+     * Setelah transaksi terluar di-commit, panggil publishReservation dengan quantities yang sama.
+     *
+     * @param quantities Map idProduct ke jumlah yang dikurangi
+     * @return List idProduct yang gagal direservasi, kosong jika semua berhasil
+     * @throws SQLException jika database gagal (misalnya deadlock), agar transaksi pemanggil bisa diulang
+     */
+    public List<String> reserveStock(Map<String, Integer> quantities) throws SQLException {
+        List<String> failed = new ArrayList<>();
+        if (quantities.isEmpty()) {
+            return failed;
+        }
+
+        try {
+            DatabaseConnection.getInstance().inTransaction(() -> {
+                failed.clear();
+                List<String> rejected = productDAO.decreaseStocks(quantities);
+                if (!rejected.isEmpty()) {
+                    failed.addAll(rejected);
+                    throw new BusinessRuleException("Stok tidak mencukupi");
+                }
+                return null;
+            });
+        } catch (BusinessRuleException e) {
+            // failed sudah berisi produk yang stoknya tidak cukup
+        }
+        return failed;
+    }
+
+    /**
+     * Menerapkan reservasi yang sudah di-commit ke ProductCache dan ProductSearchIndex
+     *
+     * @param quantities Map idProduct ke jumlah yang sudah dikurangi di database
+     */
+    public void publishReservation(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        ProductCache.getInstance().invalidateAll(quantities.keySet());
+        ProductSearchIndex.getInstance().decreaseStocks(quantities);
+    }
+}
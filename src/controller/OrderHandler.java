@@ -1,15 +1,29 @@
 package controller;
 
+import model.CartLine;
+import model.ChangeCursor;
+import model.ChangeSet;
 import model.OrderHeader;
 import model.OrderDetail;
+import model.OrderSummary;
+import model.Page;
+import model.PageCursor;
+import database.DatabaseConnection;
 import database.OrderHeaderDAO;
 import database.OrderDetailDAO;
 import database.CartItemDAO;
-import database.CustomerDAO;
+import database.ProductDAO;
 import model.Product;
+import model.Promo;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * OrderController
@@ -22,9 +36,11 @@ public class OrderHandler {
     private OrderHeaderDAO orderHeaderDAO;
     private OrderDetailDAO orderDetailDAO;
     private CartItemDAO cartItemDAO;
-    private CustomerDAO customerDAO;
-    private ProductHandler productHandler;
+    private ProductDAO productDAO;
+    private InventoryHandler inventoryHandler;
     private PromoHandler promoHandler;
+    private BalanceHandler balanceHandler;
+    private SalesReportHandler salesReportHandler;
 
     /**
      * Constructor untuk OrderController
@@ -34,15 +50,17 @@ public class OrderHandler {
         this.orderHeaderDAO = new OrderHeaderDAO();
         this.orderDetailDAO = new OrderDetailDAO();
         this.cartItemDAO = new CartItemDAO();
-        this.customerDAO = new CustomerDAO();
-        this.productHandler = new ProductHandler();
+        this.productDAO = new ProductDAO();
+        this.inventoryHandler = new InventoryHandler();
         this.promoHandler = new PromoHandler();
+        this.balanceHandler = new BalanceHandler();
+        this.salesReportHandler = new SalesReportHandler();
     }
 
     /**
      * Checkout/create pesanan baru
-     * Memvalidasi saldo customer, promo jika ada, dan mendebit saldo
-     * Setelah checkout sukses, cart item customer akan dihapus
+     * Memvalidasi promo jika ada lalu mendebit saldo, menyimpan order, mengurangi stok, dan
+     * memperbarui ringkasan penjualan dalam satu transaksi. Setelah checkout sukses, cart item customer akan dihapus
      * 
      * @param idOrder ID order yang unik
      * @param idOrderDetail ID order detail yang unik
@@ -67,38 +85,185 @@ public class OrderHandler {
             return "Total harus lebih dari 0";
         }
 
-        double customerBalance = customerDAO.getBalance(idCustomer);
-        if (customerBalance < totalAmount) {
-            return "Saldo tidak mencukupi";
+        // Get promo ID berdasarkan kode promo jika ada (dari PromoEngine di memori)
+        String idPromo = null;
+        if (promoCode != null) {
+            Promo promo = promoHandler.getPromo(promoCode);
+            if (promo == null) {
+                return "Promo tidak ditemukan";
+            }
+            idPromo = promo.getIdPromo();
         }
+        String orderPromo = idPromo;
 
-        // Get product berdasarkan idProduct
-        Product currentProduct = productHandler.getProduct(idProduct);
+        try {
+            String result = DatabaseConnection.getInstance().inTransaction(() -> {
+                // Snapshot promo bisa tertinggal dari instance lain: pastikan promo belum dihapus
+                if (orderPromo != null && !promoHandler.confirmPromo(orderPromo)) {
+                    throw new BusinessRuleException("Promo sudah tidak berlaku");
+                }
 
-        // Get promo ID berdasarkan kode promo jika ada
-        String idPromo = promoCode != null ? promoHandler.getPromo(promoCode).getIdPromo() : null;
+                // Debit terjaga di awal: jika saldo tidak cukup, tidak ada order yang dibuat
+                balanceHandler.debit(idCustomer, totalAmount, idOrder);
 
-        // Buat order header baru
-        OrderHeader orderHeader = new OrderHeader(idOrder, idCustomer, idPromo, "pending",
-                                                   LocalDateTime.now(), totalAmount);
+                // Buat order header baru
+                LocalDateTime orderedAt = LocalDateTime.now();
+                OrderHeader orderHeader = new OrderHeader(idOrder, idCustomer, orderPromo, "pending",
+                                                           orderedAt, totalAmount);
 
-        if (!orderHeaderDAO.saveDataOrderHeader(orderHeader)) {
+                if (!orderHeaderDAO.saveDataOrderHeader(orderHeader)) {
+                    throw new BusinessRuleException("Checkout gagal");
+                }
+
+                // Simpan data order header
+                if (!orderHeaderDAO.saveDataOrderHeader(idOrderDetail, idOrder, idProduct, qty)) {
+                    throw new BusinessRuleException("Checkout gagal saat menyimpan data order");
+                }
+
+                // Harga dan kategori untuk ringkasan penjualan dibaca langsung dari database,
+                // bukan dari ProductCache, agar cache tidak terisi data dari transaksi yang belum commit
+                Product product = productDAO.getProductById(idProduct);
+                if (product == null) {
+                    throw new BusinessRuleException("Produk tidak ditemukan");
+                }
+
+                // Kurangi stok product secara atomik
+                if (!inventoryHandler.reserveStock(idProduct, qty).equals("success")) {
+                    throw new BusinessRuleException("Checkout gagal saat mengupdate stok produk");
+                }
+                // Cart boleh sudah kosong (beli langsung); error database tetap dilempar dan
+                // membatalkan seluruh checkout, termasuk ringkasan penjualan di bawah
+                cartItemDAO.deleteCartItemByCustomerId(idCustomer);
+
+                // Ringkasan penjualan paling akhir: barisnya diperebutkan semua checkout
+                CartLine line = new CartLine(null, idCustomer, idProduct, qty, product.getName(),
+                                             product.getPrice(), product.getStock(), product.getCategory());
+                salesReportHandler.recordCheckout(idCustomer, orderedAt, Collections.singletonList(line), totalAmount);
+                return "success";
+            });
+            // Cache dan index stok baru diperbarui setelah commit
+            inventoryHandler.publishReservation(Collections.singletonMap(idProduct, qty));
+            return result;
+        } catch (BusinessRuleException e) {
+            return e.getMessage();
+        } catch (SQLException e) {
+            e.printStackTrace();
             return "Checkout gagal";
+        } finally {
+            // Apa pun hasilnya, stok produk ini dibaca ulang dari data yang sudah commit
+            ProductCache.getInstance().invalidate(idProduct);
         }
+    }
 
-        // Simpan data order header
-        if (!orderHeaderDAO.saveDataOrderHeader(idOrderDetail, idOrder, idProduct, qty)) {
-            return "Checkout gagal saat menyimpan data order";
+    /**
+     * Generate ID untuk order baru
+     *
+     * @return String ID order dengan format ORDER_XXXXX
+     */
+    public String generateOrderId() {
+        return orderHeaderDAO.generateId();
+    }
+
+    /**
+     * Checkout seluruh isi cart customer dalam satu transaksi
+     * Order header, semua order detail (batch), pengurangan stok (batch),
+     * pengosongan cart, pengurangan saldo, dan ringkasan penjualan di-commit sekaligus.
+     * Jika salah satu langkah gagal, tidak ada perubahan yang tersimpan.
+     *
+     * @param idOrder ID order yang unik
+     * @param idCustomer ID customer yang checkout
+     * @param idPromo ID promo yang digunakan (boleh null)
+     * @return "success" jika checkout berhasil, pesan error sebaliknya
+     */
+    public String checkoutCart(String idOrder, String idCustomer, String idPromo) {
+        if (idOrder == null || idOrder.isEmpty()) {
+            return "Order ID tidak boleh kosong";
         }
 
-        // Update stock product
-        if (!productHandler.editProductStock(idProduct, currentProduct.getStock() - qty).equals("success")) {
-            return "Checkout gagal saat mengupdate stok produk";
+        if (idCustomer == null || idCustomer.isEmpty()) {
+            return "Customer ID tidak boleh kosong";
         }
 
-        cartItemDAO.deleteCartItemByCustomerId(idCustomer);
-        customerDAO.deductBalance(idCustomer, totalAmount);
-        return "success";
+        Map<String, Integer> reserved = new HashMap<>();
+        try {
+            String result = DatabaseConnection.getInstance().inTransaction(() -> {
+                reserved.clear();   // transaksi bisa diulang setelah deadlock
+
+                // Isi cart beserta harga produk dalam satu query
+                List<CartLine> cartLines = cartItemDAO.getCartLinesByCustomerId(idCustomer);
+                if (cartLines.isEmpty()) {
+                    throw new BusinessRuleException("Keranjang belanja kosong");
+                }
+
+                // Hitung total; stok divalidasi oleh reservasi atomik di bawah
+                double totalAmount = 0;
+                Map<String, Integer> quantities = new LinkedHashMap<>();
+                Map<String, String> productNames = new HashMap<>();
+                List<OrderDetail> orderDetails = new ArrayList<>();
+                for (CartLine line : cartLines) {
+                    quantities.merge(line.getIdProduct(), line.getCount(), Integer::sum);
+                    productNames.put(line.getIdProduct(), line.getProductName());
+                    totalAmount += line.getSubtotal();
+                    orderDetails.add(new OrderDetail(orderDetailDAO.generateId(), idOrder,
+                                                     line.getIdProduct(), line.getCount()));
+                }
+
+                // Diskon dihitung PromoEngine dari baris cart (kategori, minimum belanja, batas diskon)
+                if (idPromo != null) {
+                    if (promoHandler.getPromoById(idPromo) == null) {
+                        throw new BusinessRuleException("Promo tidak ditemukan");
+                    }
+                    if (!promoHandler.confirmPromo(idPromo)) {
+                        throw new BusinessRuleException("Promo sudah tidak berlaku");
+                    }
+                    totalAmount -= promoHandler.calculateCartDiscount(idPromo, cartLines);
+                }
+
+                if (totalAmount <= 0) {
+                    throw new BusinessRuleException("Total harus lebih dari 0");
+                }
+
+                // Debit terjaga (saldo tidak bisa negatif) beserta entri buku besarnya
+                balanceHandler.debit(idCustomer, totalAmount, idOrder);
+
+                LocalDateTime orderedAt = LocalDateTime.now();
+                OrderHeader orderHeader = new OrderHeader(idOrder, idCustomer, idPromo, "pending",
+                                                           orderedAt, totalAmount);
+                if (!orderHeaderDAO.saveDataOrderHeader(orderHeader)) {
+                    throw new BusinessRuleException("Checkout gagal");
+                }
+
+                if (!orderDetailDAO.insertOrderDetails(orderDetails)) {
+                    throw new BusinessRuleException("Checkout gagal saat menyimpan data order");
+                }
+
+                List<String> outOfStock = inventoryHandler.reserveStock(quantities);
+                if (!outOfStock.isEmpty()) {
+                    List<String> names = new ArrayList<>();
+                    for (String idProduct : outOfStock) {
+                        names.add(productNames.get(idProduct));
+                    }
+                    throw new BusinessRuleException("Stok tidak mencukupi: " + String.join(", ", names));
+                }
+                reserved.putAll(quantities);
+
+                if (!cartItemDAO.deleteCartItemByCustomerId(idCustomer)) {
+                    throw new BusinessRuleException("Checkout gagal saat mengosongkan cart");
+                }
+
+                // Ringkasan penjualan paling akhir: barisnya diperebutkan semua checkout
+                salesReportHandler.recordCheckout(idCustomer, orderedAt, cartLines, totalAmount);
+                return "success";
+            });
+            // Cache dan index stok hanya diperbarui setelah seluruh checkout di-commit
+            inventoryHandler.publishReservation(reserved);
+            return result;
+        } catch (BusinessRuleException e) {
+            return e.getMessage();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return "Checkout gagal";
+        }
     }
 
     /**
@@ -115,8 +280,12 @@ public class OrderHandler {
         LocalDateTime orderDate = LocalDateTime.now();
 
         OrderHeader orderHeader = new OrderHeader(idOrder, idCustomer, idPromo, status, orderDate, totalAmount);
-        if (orderHeaderDAO.saveDataOrderHeader(orderHeader)) {
-            return idOrder;
+        try {
+            if (orderHeaderDAO.saveDataOrderHeader(orderHeader)) {
+                return idOrder;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
         return null;
     }
@@ -174,6 +343,60 @@ public class OrderHandler {
         return orderHeaderDAO.getAllOrderHeaders();
     }
     
+    /**
+     * Mendapatkan satu halaman order milik customer, dari order terbaru
+     * 
+     * @param idCustomer ID customer
+     * @param after Cursor halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah order per halaman
+     * @return Page order customer
+     */
+    public Page<OrderHeader> getCustomerOrderPage(String idCustomer, PageCursor after, int pageSize) {
+        return orderHeaderDAO.getOrderHeaderPageByCustomerId(idCustomer, after, pageSize);
+    }
+
+    /**
+     * Mendapatkan satu halaman semua order, dari order terbaru
+     * 
+     * @param after Cursor halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah order per halaman
+     * @return Page order
+     */
+    public Page<OrderHeader> getOrderPage(PageCursor after, int pageSize) {
+        return orderHeaderDAO.getOrderHeaderPage(after, pageSize);
+    }
+
+    /**
+     * Mendapatkan satu halaman order dengan status tertentu, dari order terbaru
+     * 
+     * @param status Status order
+     * @param after Cursor halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah order per halaman
+     * @return Page order dengan status tertentu
+     */
+    public Page<OrderHeader> getOrderPageByStatus(String status, PageCursor after, int pageSize) {
+        return orderHeaderDAO.getOrderHeaderPageByStatus(status, after, pageSize);
+    }
+
+    /**
+     * Mendapatkan cursor awal data order untuk polling perubahan
+     * 
+     * @return cursor awal, null jika gagal
+     */
+    public ChangeCursor getOrderChangeVersion() {
+        return orderHeaderDAO.getChangeVersion();
+    }
+
+    /**
+     * Mendapatkan order yang dibuat atau diubah setelah cursor tertentu
+     * 
+     * @param since Cursor terakhir yang sudah diterapkan di view
+     * @return ChangeSet order yang berubah
+     */
+    public ChangeSet<OrderHeader> getOrdersChangedSince(ChangeCursor since) {
+        return orderHeaderDAO.getOrderHeadersChangedSince(since);
+    }
+
     /**
      * Mengambil OrderHeader berdasarkan idOrder.
      * Biasanya dipakai admin untuk membuka detail order.
@@ -195,6 +418,23 @@ public class OrderHandler {
         return orderDetailDAO.getOrderDetailsByOrderId(idOrder);
     }
     
+    /**
+     * Mengambil satu order lengkap untuk halaman detail order
+     * Header + delivery dibaca lewat lookup primary key, lalu item order
+     * beserta nama dan harga produk dalam satu query join (total dua query).
+     *
+     * @param idOrder ID order
+     * @return OrderSummary jika ditemukan, null jika tidak ditemukan
+     */
+    public OrderSummary getOrderSummary(String idOrder) {
+        OrderSummary summary = orderHeaderDAO.getOrderSummaryById(idOrder);
+        if (summary == null) {
+            return null;
+        }
+        summary.setLines(orderDetailDAO.getOrderDetailLinesByOrderId(idOrder));
+        return summary;
+    }
+
     /**
      * Mengambil seluruh idOrder dari database.
      * Biasanya digunakan untuk mapping atau load data secara bertahap.
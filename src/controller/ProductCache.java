@@ -0,0 +1,161 @@
+package controller;
+
+import model.Product;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ProductCache
+ *
+ * Cache Product di memori yang dipakai bersama oleh semua ProductHandler.
+ * Key-nya idProduct, dengan batas jumlah entry dan eviction LRU.
+ * Object yang disimpan dan dikembalikan selalu berupa salinan, sehingga
+ * perubahan pada object di view tidak mengotori isi cache.
+ *
+ * Nilai stok di cache hanya untuk tampilan; validasi stok saat checkout
+ * selalu dilakukan langsung di database.
+ */
+public class ProductCache {
+    private static final int MAX_ENTRIES = 1000;   // Jumlah produk maksimum di cache
+
+    private static final ProductCache INSTANCE = new ProductCache();
+
+    private final LinkedHashMap<String, Product> entries = new LinkedHashMap<String, Product>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Product> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private ProductCache() {
+    }
+
+    /**
+     * Mendapatkan instance ProductCache yang dipakai bersama
+     *
+     * @return ProductCache instance
+     */
+    public static ProductCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Mengambil produk dari cache
+     *
+     * @param idProduct ID produk
+     * @return salinan Product jika ada di cache, null jika tidak ada
+     */
+    public Product get(String idProduct) {
+        Product product;
+        synchronized (entries) {
+            product = entries.get(idProduct);
+        }
+        if (product == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return copyOf(product);
+    }
+
+    /**
+     * Menyimpan atau memperbarui produk di cache
+     *
+     * @param product Product yang akan disimpan
+     */
+    public void put(Product product) {
+        if (product == null || product.getIdProduct() == null) {
+            return;
+        }
+        Product copy = copyOf(product);
+        synchronized (entries) {
+            entries.put(copy.getIdProduct(), copy);
+        }
+    }
+
+    /**
+     * Menyimpan beberapa produk sekaligus, misalnya hasil query katalog
+     *
+     * @param products List Product yang akan disimpan
+     */
+    public void putAll(Collection<Product> products) {
+        for (Product product : products) {
+            put(product);
+        }
+    }
+
+    /**
+     * Menghapus produk dari cache
+     *
+     * @param idProduct ID produk
+     */
+    public void invalidate(String idProduct) {
+        synchronized (entries) {
+            entries.remove(idProduct);
+        }
+    }
+
+    /**
+     * Menghapus beberapa produk dari cache
+     *
+     * @param idProducts Daftar ID produk
+     */
+    public void invalidateAll(Collection<String> idProducts) {
+        synchronized (entries) {
+            for (String idProduct : idProducts) {
+                entries.remove(idProduct);
+            }
+        }
+    }
+
+    /**
+     * Mengosongkan seluruh cache
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return jumlah produk di cache
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return jumlah pembacaan yang dilayani dari cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return jumlah pembacaan yang harus ke database
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return persentase hit cache (0-100)
+     */
+    public double getHitRatio() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0 : hit * 100.0 / total;
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getIdProduct(), product.getName(), product.getPrice(),
+                product.getStock(), product.getCategory());
+    }
+}
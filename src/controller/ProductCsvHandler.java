@@ -0,0 +1,351 @@
+package controller;
+
+import model.BulkTransferResult;
+import model.Product;
+import database.DatabaseConnection;
+import database.ProductDAO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ProductCsvHandler
+ *
+ * Import dan export katalog produk dalam format CSV untuk sinkronisasi dengan supplier.
+ * Kolom: idProduct, name, price, stock, category (urutan bebas, ditentukan header).
+ *
+ * Import membaca file baris demi baris dan menyimpan per chunk berukuran batchSize;
+ * setiap chunk satu transaksi berisi satu query lookup dan satu batch statement.
+ * Baris tanpa idProduct menjadi produk baru (ID dari IdAllocator). Baris yang isinya
+ * sama dengan database (dibandingkan per field lewat Product.sameContentAs) dilewati.
+ * Jika satu chunk gagal disimpan, import berhenti; chunk sebelumnya tetap tersimpan.
+ *
+ * Export menulis langsung dari ResultSet streaming, sehingga memori tetap berapa pun
+ * ukuran katalog.
+ */
+public class ProductCsvHandler {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String[] COLUMNS = { "idProduct", "name", "price", "stock", "category" };
+    private static final int ID_PRODUCT = 0;
+    private static final int NAME = 1;
+    private static final int PRICE = 2;
+    private static final int STOCK = 3;
+    private static final int CATEGORY = 4;
+
+    private ProductDAO productDAO;
+    private ProductCache productCache;
+    private ProductSearchIndex searchIndex;
+
+    /**
+     * Constructor untuk ProductCsvHandler
+     * Menginisialisasi ProductDAO serta cache dan index produk yang ikut diperbarui
+     */
+    public ProductCsvHandler() {
+        this.productDAO = new ProductDAO();
+        this.productCache = ProductCache.getInstance();
+        this.searchIndex = ProductSearchIndex.getInstance();
+    }
+
+    /**
+     * Import produk dari file CSV (UTF-8) dengan ukuran batch default
+     *
+     * @param file File CSV
+     * @return BulkTransferResult ringkasan import
+     */
+    public BulkTransferResult importCsv(Path file) {
+        return importCsv(file, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Import produk dari file CSV (UTF-8)
+     *
+     * @param file File CSV
+     * @param batchSize Jumlah baris per batch dan per transaksi
+     * @return BulkTransferResult ringkasan import
+     */
+    public BulkTransferResult importCsv(Path file, int batchSize) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(reader, batchSize);
+        } catch (IOException e) {
+            e.printStackTrace();
+            BulkTransferResult result = new BulkTransferResult();
+            result.addError("Gagal membuka file: " + e.getMessage());
+            return result;
+        }
+    }
+
+    /**
+     * Import produk dari CSV yang dibaca secara streaming
+     *
+     * @param reader Sumber CSV (sebaiknya buffered)
+     * @param batchSize Jumlah baris per batch dan per transaksi
+     * @return BulkTransferResult ringkasan import
+     */
+    public BulkTransferResult importCsv(Reader reader, int batchSize) {
+        BulkTransferResult result = new BulkTransferResult();
+        long start = System.nanoTime();
+        int size = Math.max(1, batchSize);
+
+        try {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.next();
+            int[] columns = header != null ? resolveColumns(header) : null;
+            if (columns == null) {
+                result.addError("Header CSV harus memuat kolom name, price, dan stock");
+                return finish(result, start, "import");
+            }
+
+            List<Product> chunk = new ArrayList<>(size);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                    continue;   // baris kosong
+                }
+                result.addRows(1);
+                Product product = parse(record, columns, csv.getLineNumber(), result);
+                if (product == null) {
+                    continue;
+                }
+                chunk.add(product);
+                if (chunk.size() == size) {
+                    if (!saveChunk(chunk, csv.getLineNumber(), result)) {
+                        return finish(result, start, "import");
+                    }
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty() && !saveChunk(chunk, csv.getLineNumber(), result)) {
+                return finish(result, start, "import");
+            }
+            result.setCompleted(true);
+        } catch (IOException e) {
+            e.printStackTrace();
+            result.addError("Gagal membaca file: " + e.getMessage());
+        }
+        return finish(result, start, "import");
+    }
+
+    /**
+     * Export seluruh produk ke file CSV (UTF-8)
+     *
+     * @param file File tujuan (ditimpa jika sudah ada)
+     * @return BulkTransferResult dengan jumlah baris yang ditulis
+     */
+    public BulkTransferResult exportCsv(Path file) {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return exportCsv(writer);
+        } catch (IOException e) {
+            e.printStackTrace();
+            BulkTransferResult result = new BulkTransferResult();
+            result.addError("Gagal menulis file: " + e.getMessage());
+            return result;
+        }
+    }
+
+    /**
+     * Export seluruh produk sebagai CSV, urut berdasarkan ID
+     *
+     * @param writer Tujuan CSV (sebaiknya buffered)
+     * @return BulkTransferResult dengan jumlah baris yang ditulis
+     */
+    public BulkTransferResult exportCsv(Writer writer) {
+        BulkTransferResult result = new BulkTransferResult();
+        long start = System.nanoTime();
+        CsvWriter csv = new CsvWriter(writer);
+        try {
+            csv.write(COLUMNS);
+            boolean completed = productDAO.forEachProduct(EXPORT_FETCH_SIZE, product -> {
+                csv.write(product.getIdProduct(), product.getName(), formatPrice(product.getPrice()),
+                        Integer.toString(product.getStock()), product.getCategory());
+                result.addRows(1);
+            });
+            writer.flush();
+            result.setCompleted(completed);
+            if (!completed) {
+                result.addError("Export berhenti setelah " + result.getRows() + " baris");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            result.addError("Gagal menulis file: " + e.getMessage());
+        }
+        return finish(result, start, "export");
+    }
+
+    /**
+     * Menyimpan satu chunk dalam satu transaksi
+     *
+     * @return true jika tersimpan, false jika import harus berhenti
+     */
+    private boolean saveChunk(List<Product> chunk, int lastLine, BulkTransferResult result) {
+        int[] counts = new int[3];   // baru, diubah, sama
+        List<Product> changed = new ArrayList<>();
+
+        // ID produk baru dialokasikan sebelum transaksi, agar transaksi yang diulang
+        // setelah deadlock tetap memperlakukannya sebagai insert
+        Set<Product> generated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Product product : chunk) {
+            if (product.getIdProduct() == null) {
+                product.setIdProduct(productDAO.generateId());
+                generated.add(product);
+            }
+        }
+
+        try {
+            DatabaseConnection.getInstance().inTransaction(() -> {
+                Arrays.fill(counts, 0);
+                changed.clear();
+
+                Set<String> ids = new HashSet<>();
+                for (Product product : chunk) {
+                    if (!generated.contains(product)) {
+                        ids.add(product.getIdProduct());
+                    }
+                }
+                Map<String, Product> existing = new HashMap<>();
+                for (Product product : productDAO.getProductsByIds(ids)) {
+                    existing.put(product.getIdProduct(), product);
+                }
+
+                List<Product> inserts = new ArrayList<>();
+                List<Product> upserts = new ArrayList<>();
+                for (Product product : chunk) {
+                    if (generated.contains(product)) {
+                        inserts.add(product);
+                        counts[0]++;
+                        continue;
+                    }
+                    Product current = existing.put(product.getIdProduct(), product);
+                    if (current != null && current.sameContentAs(product)) {
+                        counts[2]++;
+                        continue;
+                    }
+                    upserts.add(product);
+                    counts[current == null ? 0 : 1]++;
+                }
+
+                // Produk baru memakai INSERT biasa: ID yang bentrok menggagalkan chunk, bukan menimpa produk lain
+                if (!productDAO.insertProducts(inserts) || !productDAO.upsertProducts(upserts)) {
+                    throw new BusinessRuleException("Gagal menyimpan produk");
+                }
+                changed.addAll(inserts);
+                changed.addAll(upserts);
+                return null;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            result.addError("Import berhenti: " + chunk.size() + " baris sampai baris " + lastLine
+                    + " gagal disimpan");
+            return false;
+        }
+
+        result.addInserted(counts[0]);
+        result.addUpdated(counts[1]);
+        result.addUnchanged(counts[2]);
+
+        List<String> changedIds = new ArrayList<>(changed.size());
+        for (Product product : changed) {
+            changedIds.add(product.getIdProduct());
+            searchIndex.put(product);
+        }
+        productCache.invalidateAll(changedIds);
+        return true;
+    }
+
+    /**
+     * Mencari posisi setiap kolom berdasarkan header
+     *
+     * @return posisi kolom sesuai COLUMNS (-1 jika kolom opsional tidak ada), null jika kolom wajib tidak ada
+     */
+    private static int[] resolveColumns(List<String> header) {
+        int[] columns = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                // BOM UTF-8 di awal file ikut terbaca sebagai bagian nama kolom pertama
+                String name = header.get(j).replace("\uFEFF", "").trim();
+                if (name.equalsIgnoreCase(COLUMNS[i])) {
+                    columns[i] = j;
+                    break;
+                }
+            }
+        }
+        if (columns[NAME] < 0 || columns[PRICE] < 0 || columns[STOCK] < 0) {
+            return null;
+        }
+        return columns;
+    }
+
+    /**
+     * Mengubah satu record CSV menjadi Product, atau mencatatnya sebagai ditolak
+     *
+     * @return Product, null jika record tidak valid
+     */
+    private static Product parse(List<String> record, int[] columns, int line, BulkTransferResult result) {
+        String name = field(record, columns[NAME]);
+        if (name == null) {
+            result.reject("Baris " + line + ": nama produk kosong");
+            return null;
+        }
+
+        double price;
+        int stock;
+        try {
+            price = Double.parseDouble(field(record, columns[PRICE]));
+            stock = Integer.parseInt(field(record, columns[STOCK]));
+        } catch (NumberFormatException | NullPointerException e) {
+            result.reject("Baris " + line + ": harga atau stok bukan angka");
+            return null;
+        }
+        if (price < 0 || stock < 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+            result.reject("Baris " + line + ": harga dan stok tidak boleh negatif");
+            return null;
+        }
+
+        return new Product(field(record, columns[ID_PRODUCT]), name, price, stock,
+                field(record, columns[CATEGORY]));
+    }
+
+    /**
+     * @return isi field yang sudah di-trim, null jika kolom tidak ada atau kosong
+     */
+    private static String field(List<String> record, int column) {
+        if (column < 0 || column >= record.size()) {
+            return null;
+        }
+        String value = record.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Harga ditulis tanpa notasi ilmiah dan tanpa ".0" untuk bilangan bulat
+     */
+    private static String formatPrice(double price) {
+        if (price == Math.rint(price) && Math.abs(price) < 1e15) {
+            return Long.toString((long) price);
+        }
+        return BigDecimal.valueOf(price).toPlainString();
+    }
+
+    private static BulkTransferResult finish(BulkTransferResult result, long start, String operation) {
+        result.setElapsedNanos(System.nanoTime() - start);
+        System.out.println("[" + operation + "] " + result);
+        return result;
+    }
+}
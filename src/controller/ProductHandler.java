@@ -3,6 +3,7 @@ package controller;
 import model.Product;
 import database.ProductDAO;
 
+import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -10,10 +11,14 @@ import java.util.List;
  * 
  * Controller untuk menangani business logic terkait Product.
  * Bertanggung jawab untuk validasi data produk dan delegasi ke ProductDAO.
+ * Pembacaan produk dilayani dari ProductCache dan pencarian dari ProductSearchIndex;
+ * setiap perubahan produk memperbarui atau menghapus entry keduanya.
  * 
  */
 public class ProductHandler {
     private ProductDAO productDAO;
+    private ProductCache productCache;
+    private ProductSearchIndex searchIndex;
 
     /**
      * Constructor untuk ProductController
@@ -21,6 +26,8 @@ public class ProductHandler {
      */
     public ProductHandler() {
         this.productDAO = new ProductDAO();
+        this.productCache = ProductCache.getInstance();
+        this.searchIndex = ProductSearchIndex.getInstance();
     }
 
     /**
@@ -37,6 +44,8 @@ public class ProductHandler {
         }
 
         if (productDAO.updateStock(idProduct, stock)) {
+            productCache.invalidate(idProduct);
+            searchIndex.updateStock(idProduct, stock);
             return "success";
         }
         return "Update stok gagal";
@@ -44,12 +53,23 @@ public class ProductHandler {
 
     /**
      * Mendapatkan produk berdasarkan ID
+     * Dibaca dari cache jika ada, jika tidak diambil dari database lalu disimpan ke cache.
      * 
      * @param idProduct ID produk yang dicari
      * @return Product object jika ditemukan, null sebaliknya
      */
     public Product getProduct(String idProduct) {
-        return productDAO.getProductById(idProduct);
+        Product product = productCache.get(idProduct);
+        if (product == null) {
+            try {
+                product = productDAO.getProductById(idProduct);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return null;
+            }
+            productCache.put(product);
+        }
+        return product;
     }
 
     /**
@@ -58,7 +78,20 @@ public class ProductHandler {
      * @return List semua produk di database
      */
     public java.util.List<Product> getAllProducts() {
-        return productDAO.getAllProducts();
+        List<Product> products = productDAO.getAllProducts();
+        productCache.putAll(products);
+        return products;
+    }
+
+    /**
+     * Memuat katalog ke ProductCache dan ProductSearchIndex lebih awal
+     * Dipanggil dari background thread saat aplikasi start, agar daftar produk dan
+     * pencarian pertama setelah login tidak perlu menunggu index dibangun.
+     */
+    public void preloadCatalog() {
+        List<Product> products = productDAO.getAllProducts();
+        productCache.putAll(products);
+        searchIndex.loadIfNeeded(() -> products);
     }
 
     /**
@@ -68,7 +101,9 @@ public class ProductHandler {
      * @return List produk dengan kategori yang sesuai
      */
     public List<Product> getProductsByCategory(String category) {
-        return productDAO.getProductsByCategory(category);
+        List<Product> products = productDAO.getProductsByCategory(category);
+        productCache.putAll(products);
+        return products;
     }
 
     /**
@@ -77,11 +112,41 @@ public class ProductHandler {
      * @return List produk yang tersedia
      */
     public List<Product> getAvailableProducts() {
-        return productDAO.getAvailableProducts();
+        List<Product> products = productDAO.getAvailableProducts();
+        productCache.putAll(products);
+        return products;
+    }
+
+    /**
+     * Mencari produk berdasarkan kata kunci nama/kategori
+     * Dilayani dari ProductSearchIndex di memori; database hanya dibaca sekali
+     * untuk membangun index pada pencarian pertama.
+     * 
+     * @param keyword Kata kunci, boleh lebih dari satu kata (semua kata harus cocok)
+     * @param limit Jumlah hasil maksimum
+     * @return List produk terurut dari yang paling relevan
+     */
+    public List<Product> searchProducts(String keyword, int limit) {
+        searchIndex.loadIfNeeded(() -> productDAO.getAllProducts());
+        return searchIndex.search(keyword, limit);
+    }
+
+    /**
+     * Mendapatkan saran nama produk/kategori untuk kata kunci yang sedang diketik
+     * Dibaca dari ProductSearchIndex di memori, tanpa query database per ketikan.
+     * 
+     * @param prefix Teks yang sedang diketik di kolom pencarian
+     * @param limit Jumlah saran maksimum
+     * @return List teks saran
+     */
+    public List<String> suggestProducts(String prefix, int limit) {
+        searchIndex.loadIfNeeded(() -> productDAO.getAllProducts());
+        return searchIndex.suggest(prefix, limit);
     }
 
     /**
      * Mendapatkan stok produk
+     * Selalu dibaca langsung dari database (tidak melalui cache) agar akurat.
      * 
      * @param idProduct ID produk
      * @return Jumlah stok produk
@@ -97,7 +162,8 @@ public class ProductHandler {
      * @return Harga produk
      */
     public double getPrice(String idProduct) {
-        return productDAO.getPrice(idProduct);
+        Product product = getProduct(idProduct);
+        return product != null ? product.getPrice() : 0;
     }
 
     /**
@@ -108,6 +174,8 @@ public class ProductHandler {
      */
     public String insertProduct(Product product) {
         if (productDAO.insertProduct(product)) {
+            productCache.put(product);
+            searchIndex.put(product);
             return "success";
         }
         return "Tambah produk gagal";
@@ -121,6 +189,8 @@ public class ProductHandler {
      */
     public String updateProduct(Product product) {
         if (productDAO.updateProduct(product)) {
+            productCache.put(product);
+            searchIndex.put(product);
             return "success";
         }
         return "Update produk gagal";
@@ -134,6 +204,8 @@ public class ProductHandler {
      */
     public String deleteProduct(String idProduct) {
         if (productDAO.deleteProduct(idProduct)) {
+            productCache.invalidate(idProduct);
+            searchIndex.delete(idProduct);
             return "success";
         }
         return "Hapus produk gagal";
@@ -0,0 +1,79 @@
+package controller;
+
+import model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ProductSearchBenchmark
+ *
+ * Mengukur waktu build, latency pencarian, dan latency saran autocomplete ProductSearchIndex untuk katalog
+ * berukuran besar. Tidak membutuhkan database: katalog dibuat acak di memori
+ * dari kombinasi kata nama produk dan kategori.
+ *
+ * Jalankan: java -cp bin controller.ProductSearchBenchmark [jumlahProduk]
+ */
+class ProductSearchBenchmark {
+    private static final String[] WORDS = {
+            "beras", "minyak", "gula", "kopi", "teh", "susu", "roti", "mie", "telur", "ayam",
+            "sapi", "ikan", "sabun", "sampo", "pasta", "gigi", "tisu", "air", "mineral", "jus",
+            "keju", "mentega", "coklat", "biskuit", "kecap", "saus", "sambal", "garam", "tepung", "madu"
+    };
+    private static final String[] CATEGORIES = {
+            "Makanan", "Minuman", "Kebersihan", "Bumbu", "Snack", "Frozen", "Perawatan"
+    };
+    private static final String[] QUERIES = {
+            "kopi susu", "minyak", "sabu", "cokelat", "teh manis", "mie ayam", "biskuit snack", "gula 12"
+    };
+    private static final String[] PREFIXES = {
+            "k", "ko", "kopi s", "min", "sabun ", "fro", "gula 1"
+    };
+    private static final int ROUNDS = 50;
+    private static final int TOP_K = 50;
+    private static final int SUGGESTIONS = 10;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ProductSearchIndex index = ProductSearchIndex.getInstance();
+
+        long start = System.nanoTime();
+        index.rebuild(catalog(size));
+        System.out.printf("Build index %,d produk: %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (String query : QUERIES) {
+                start = System.nanoTime();
+                int hits = index.search(query, TOP_K).size();
+                long micros = (System.nanoTime() - start) / 1_000;
+                if (round == ROUNDS) {
+                    System.out.printf("\"%s\": %d hasil, %.2f ms%n", query, hits, micros / 1000.0);
+                }
+            }
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (String prefix : PREFIXES) {
+                start = System.nanoTime();
+                List<String> suggestions = index.suggest(prefix, SUGGESTIONS);
+                long micros = (System.nanoTime() - start) / 1_000;
+                if (round == ROUNDS) {
+                    System.out.printf("saran \"%s\": %s, %d us%n", prefix, suggestions, micros);
+                }
+            }
+        }
+    }
+
+    private static List<Product> catalog(int size) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + (random.nextInt(1000) + 1);
+            products.add(new Product(String.format("PROD_%07d", i), name, 1000 + random.nextInt(100_000),
+                    random.nextInt(200), CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,622 @@
+package controller;
+
+import model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * ProductSearchIndex
+ *
+ * Inverted index di memori untuk pencarian produk berdasarkan token nama dan kategori.
+ * Dipakai bersama oleh semua ProductHandler; index dibangun sekali dari database
+ * saat pencarian pertama, lalu diperbarui per produk saat insert/update/delete
+ * sehingga pencarian berikutnya tidak menyentuh MySQL sama sekali.
+ *
+ * Setiap kata di query harus cocok (AND) dengan salah satu token produk, berupa:
+ * - token yang sama persis,
+ * - awalan token (prefix, minimal 2 huruf), atau
+ * - token dengan selisih satu huruf (edit distance 1, minimal 3 huruf).
+ * Skor tiap kata = bobot jenis kecocokan x bobot field (nama lebih tinggi dari kategori);
+ * hasil diurutkan dari skor tertinggi dan hanya K teratas yang dikembalikan.
+ *
+ * Untuk autocomplete, nama produk dan kategori juga disimpan sebagai teks saran di
+ * TreeMap terurut dengan key mulai dari setiap kata, sehingga saran untuk awalan yang sedang
+ * diketik cukup dibaca dari satu rentang subMap tanpa query ke database.
+ *
+ * Sama seperti ProductCache, stok di hasil pencarian hanya untuk tampilan.
+ */
+public class ProductSearchIndex {
+    private static final int EXACT = 4;         // Bobot token sama persis
+    private static final int PREFIX = 2;        // Bobot awalan token
+    private static final int FUZZY = 1;         // Bobot token dengan satu huruf berbeda
+    private static final int NAME_FIELD = 3;    // Bobot token dari nama produk
+    private static final int CATEGORY_FIELD = 1; // Bobot token dari kategori
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final char KEY_SEPARATOR = '\u0001';   // Pemisah potongan kata dan teks lengkap di key saran
+
+    private static final ProductSearchIndex INSTANCE = new ProductSearchIndex();
+
+    // Array skor per thread, dipakai ulang antar pencarian agar tidak alokasi sebesar katalog tiap query
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // token -> daftar entry (docId * 4 + bobot field), docId selalu naik sehingga posting terurut
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    // docId -> Product (null jika sudah dihapus/diganti)
+    private final List<Product> docs = new ArrayList<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private int deletedDocs;
+    // teks saran ternormalisasi (nama/kategori) -> Completion
+    private final Map<String, Completion> completions = new HashMap<>();
+    // teks lengkap + pemisah + teks lengkap -> Completion, terurut untuk lookup awalan
+    private final TreeMap<String, Completion> completionKeys = new TreeMap<>();
+    // potongan teks mulai dari kata ke-2 dst + pemisah + teks lengkap -> Completion
+    private final TreeMap<String, Completion> innerCompletionKeys = new TreeMap<>();
+    private volatile boolean loaded;
+
+    private ProductSearchIndex() {
+    }
+
+    /**
+     * Mendapatkan instance ProductSearchIndex yang dipakai bersama
+     *
+     * @return ProductSearchIndex instance
+     */
+    public static ProductSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true jika index sudah dibangun dari database
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Membangun index sekali dari daftar produk jika belum pernah dibangun
+     * Pemanggil berikutnya menunggu build pertama selesai tanpa memuat ulang.
+     *
+     * @param loader Sumber seluruh produk (misalnya ProductDAO.getAllProducts)
+     */
+    public void loadIfNeeded(Supplier<List<Product>> loader) {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                rebuild(loader.get());
+            }
+        }
+    }
+
+    /**
+     * Membangun ulang seluruh index dari daftar produk
+     *
+     * @param catalog Seluruh produk
+     */
+    public void rebuild(Collection<Product> catalog) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            docIds.clear();
+            completions.clear();
+            completionKeys.clear();
+            innerCompletionKeys.clear();
+            deletedDocs = 0;
+            for (Product product : catalog) {
+                add(product);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Menambah atau memperbarui satu produk di index
+     * Diabaikan selama index belum dibangun (build pertama akan membaca dari database).
+     *
+     * @param product Product yang baru diinsert atau diupdate
+     */
+    public void put(Product product) {
+        if (!loaded || product == null || product.getIdProduct() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(product.getIdProduct());
+            add(product);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Menghapus produk dari index
+     *
+     * @param idProduct ID produk yang dihapus
+     */
+    public void delete(String idProduct) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(idProduct);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Memperbarui stok produk di index (token tidak berubah)
+     *
+     * @param idProduct ID produk
+     * @param stock Stok baru
+     */
+    public void updateStock(String idProduct, int stock) {
+        lock.writeLock().lock();
+        try {
+            Product product = find(idProduct);
+            if (product != null) {
+                product.setStock(stock);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mengurangi stok beberapa produk di index setelah checkout berhasil
+     *
+     * @param quantities Map idProduct -> jumlah yang dikurangi
+     */
+    public void decreaseStocks(Map<String, Integer> quantities) {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                Product product = find(entry.getKey());
+                if (product != null) {
+                    product.setStock(product.getStock() - entry.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mencari produk yang cocok dengan semua kata di query
+     *
+     * @param query Kata kunci (nama dan/atau kategori)
+     * @param limit Jumlah hasil maksimum (K)
+     * @return salinan Product, diurutkan dari yang paling relevan; kosong jika tidak ada
+     */
+    public List<Product> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Skor dihitung di array per docId (bukan Map) agar posting besar tetap cepat diproses
+            Scratch scratch = SCRATCH.get().ensure(docs.size());
+            int[] total = scratch.total;
+            int[] matchedTerms = scratch.matchedTerms;
+            int[] termBest = scratch.termBest;
+            IntList touched = scratch.touched;
+            IntList candidates = scratch.candidates;
+            try {
+                for (int t = 0; t < terms.size(); t++) {
+                    String term = terms.get(t);
+                    touched.size = 0;
+                    collect(postings.get(term), EXACT, t, matchedTerms, termBest, touched);
+                    if (term.length() >= MIN_PREFIX_LENGTH) {
+                        String end = term + Character.MAX_VALUE;
+                        for (IntList posting : postings.subMap(term, false, end, false).values()) {
+                            collect(posting, PREFIX, t, matchedTerms, termBest, touched);
+                        }
+                    }
+                    if (term.length() >= MIN_FUZZY_LENGTH) {
+                        for (String variant : edits(term)) {
+                            collect(postings.get(variant), FUZZY, t, matchedTerms, termBest, touched);
+                        }
+                    }
+                    if (touched.size == 0) {
+                        return new ArrayList<>();
+                    }
+                    // Produk yang cocok dengan kata ini: tambahkan skor terbaiknya dan tandai cocok
+                    for (int i = 0; i < touched.size; i++) {
+                        int doc = touched.values[i];
+                        if (t == 0) {
+                            candidates.add(doc);
+                        }
+                        total[doc] += termBest[doc];
+                        termBest[doc] = 0;
+                        matchedTerms[doc] = t + 1;
+                    }
+                }
+
+                Comparator<Hit> ranking = Comparator.comparingInt((Hit h) -> h.score)
+                        .thenComparing((Hit h) -> h.name, Comparator.reverseOrder());
+                PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, ranking);
+                // touched berisi produk yang cocok dengan kata terakhir, sehingga cocok dengan semua kata
+                for (int i = 0; i < touched.size; i++) {
+                    int doc = touched.values[i];
+                    if (top.size() == limit && !beats(docs.get(doc), total[doc], top.peek())) {
+                        continue;
+                    }
+                    top.offer(new Hit(docs.get(doc), total[doc]));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+
+                List<Product> result = new ArrayList<>(top.size());
+                while (!top.isEmpty()) {
+                    result.add(copyOf(top.poll().product));
+                }
+                Collections.reverse(result);
+                return result;
+            } finally {
+                // Reset hanya slot yang dipakai agar array bisa dipakai ulang oleh pencarian berikutnya
+                for (int i = 0; i < candidates.size; i++) {
+                    int doc = candidates.values[i];
+                    total[doc] = 0;
+                    matchedTerms[doc] = 0;
+                    termBest[doc] = 0;
+                }
+                candidates.size = 0;
+                touched.size = 0;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mendapatkan saran nama produk atau kategori untuk teks yang sedang diketik
+     * Kata terakhir dianggap belum selesai (dicocokkan sebagai awalan), kecuali teks
+     * diakhiri spasi. Saran bisa cocok mulai dari kata mana pun di nama produk.
+     *
+     * @param prefix Teks yang sedang diketik
+     * @param limit Jumlah saran maksimum
+     * @return teks saran tanpa duplikat, yang diawali teks ketikan lebih dulu lalu yang cocok di kata
+     *         berikutnya, masing-masing urut abjad; kosong jika tidak ada
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> tokens = tokenize(prefix);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        String from = String.join(" ", tokens);
+        if (!Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))) {
+            from += " ";
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<String> result = new LinkedHashSet<>();
+            collectCompletions(completionKeys, from, limit, result);
+            collectCompletions(innerCompletionKeys, from, limit, result);
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collectCompletions(TreeMap<String, Completion> keys, String from, int limit,
+                                           Set<String> result) {
+        if (result.size() >= limit) {
+            return;
+        }
+        for (Completion completion : keys.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            result.add(completion.text);
+            if (result.size() == limit) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return jumlah produk di index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cek apakah produk lebih relevan dari hasil terlemah di top K, tanpa membuat object Hit
+     */
+    private static boolean beats(Product product, int score, Hit weakest) {
+        if (score != weakest.score) {
+            return score > weakest.score;
+        }
+        String name = product.getName() != null ? product.getName() : "";
+        return name.compareTo(weakest.name) < 0;
+    }
+
+    /**
+     * Mencatat skor terbaik kata ke-term untuk setiap produk di posting
+     * Hanya produk yang cocok dengan semua kata sebelumnya (matchedTerms == term) yang dihitung.
+     */
+    private void collect(IntList posting, int matchWeight, int term, int[] matchedTerms,
+                         int[] termBest, IntList touched) {
+        if (posting == null) {
+            return;
+        }
+        for (int i = 0; i < posting.size; i++) {
+            int entry = posting.values[i];
+            int doc = entry >>> 2;
+            if (matchedTerms[doc] != term || docs.get(doc) == null) {
+                continue;
+            }
+            int score = matchWeight * (entry & 3);
+            if (termBest[doc] == 0) {
+                touched.add(doc);
+            }
+            if (score > termBest[doc]) {
+                termBest[doc] = score;
+            }
+        }
+    }
+
+    /**
+     * Semua string dengan jarak satu edit dari term (hapus, tukar, ganti, sisip satu huruf)
+     */
+    private static List<String> edits(String term) {
+        List<String> variants = new ArrayList<>();
+        int n = term.length();
+        for (int i = 0; i < n; i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        for (int i = 0; i < n - 1; i++) {
+            variants.add(term.substring(0, i) + term.charAt(i + 1) + term.charAt(i) + term.substring(i + 2));
+        }
+        for (int i = 0; i <= n; i++) {
+            for (int c = 0; c < ALPHABET.length(); c++) {
+                char ch = ALPHABET.charAt(c);
+                if (i < n && term.charAt(i) != ch) {
+                    variants.add(term.substring(0, i) + ch + term.substring(i + 1));
+                }
+                variants.add(term.substring(0, i) + ch + term.substring(i));
+            }
+        }
+        return variants;
+    }
+
+    private void add(Product product) {
+        Product copy = copyOf(product);
+        int doc = docs.size();
+        docs.add(copy);
+        docIds.put(copy.getIdProduct(), doc);
+        for (String token : tokenize(copy.getName())) {
+            addPosting(token, doc, NAME_FIELD);
+        }
+        for (String token : tokenize(copy.getCategory())) {
+            addPosting(token, doc, CATEGORY_FIELD);
+        }
+        addCompletion(copy.getName());
+        addCompletion(copy.getCategory());
+    }
+
+    private void addPosting(String token, int doc, int fieldWeight) {
+        postings.computeIfAbsent(token, t -> new IntList()).add(doc << 2 | fieldWeight);
+    }
+
+    /**
+     * Menambah teks saran; teks yang sama dari beberapa produk hanya disimpan sekali (dihitung)
+     */
+    private void addCompletion(String text) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        String normalized = String.join(" ", tokens);
+        Completion completion = completions.get(normalized);
+        if (completion == null) {
+            completion = new Completion(text.trim());
+            completions.put(normalized, completion);
+            completionKeys.put(completionKey(tokens, 0, normalized), completion);
+            for (int i = 1; i < tokens.size(); i++) {
+                innerCompletionKeys.put(completionKey(tokens, i, normalized), completion);
+            }
+        }
+        completion.count++;
+    }
+
+    /**
+     * Mengurangi hitungan teks saran dan membuangnya jika tidak ada produk lain yang memakainya
+     */
+    private void removeCompletion(String text) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        String normalized = String.join(" ", tokens);
+        Completion completion = completions.get(normalized);
+        if (completion == null || --completion.count > 0) {
+            return;
+        }
+        completions.remove(normalized);
+        completionKeys.remove(completionKey(tokens, 0, normalized));
+        for (int i = 1; i < tokens.size(); i++) {
+            innerCompletionKeys.remove(completionKey(tokens, i, normalized));
+        }
+    }
+
+    private static String completionKey(List<String> tokens, int from, String normalized) {
+        return String.join(" ", tokens.subList(from, tokens.size())) + KEY_SEPARATOR + normalized;
+    }
+
+    /**
+     * Menandai produk sebagai terhapus; entry posting-nya dilewati saat pencarian
+     * dan baru dibuang saat compactIfNeeded membangun ulang index.
+     */
+    private void remove(String idProduct) {
+        Integer doc = docIds.remove(idProduct);
+        if (doc != null) {
+            Product product = docs.get(doc);
+            removeCompletion(product.getName());
+            removeCompletion(product.getCategory());
+            docs.set(doc, null);
+            deletedDocs++;
+        }
+    }
+
+    private Product find(String idProduct) {
+        Integer doc = docIds.get(idProduct);
+        return doc != null ? docs.get(doc) : null;
+    }
+
+    /**
+     * Membangun ulang index jika lebih dari seperempat docId sudah tidak terpakai
+     */
+    private void compactIfNeeded() {
+        if (deletedDocs < 1024 || deletedDocs * 4 < docs.size()) {
+            return;
+        }
+        List<Product> live = new ArrayList<>(docIds.size());
+        for (Product product : docs) {
+            if (product != null) {
+                live.add(product);
+            }
+        }
+        postings.clear();
+        docs.clear();
+        docIds.clear();
+        completions.clear();
+        completionKeys.clear();
+        innerCompletionKeys.clear();
+        deletedDocs = 0;
+        for (Product product : live) {
+            add(product);
+        }
+    }
+
+    /**
+     * Memecah teks menjadi token huruf kecil (huruf dan angka)
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                current.append(Character.toLowerCase(ch));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getIdProduct(), product.getName(), product.getPrice(),
+                product.getStock(), product.getCategory());
+    }
+
+    /**
+     * IntList
+     *
+     * List int tanpa boxing untuk posting dan daftar docId.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Scratch
+     *
+     * Array kerja pencarian milik satu thread, selalu nol di luar pencarian.
+     */
+    private static final class Scratch {
+        private int[] total = new int[0];
+        private int[] matchedTerms = new int[0];
+        private int[] termBest = new int[0];
+        private final IntList touched = new IntList();
+        private final IntList candidates = new IntList();
+
+        private Scratch ensure(int docCount) {
+            if (total.length < docCount) {
+                int capacity = Math.max(docCount, total.length * 2);
+                total = new int[capacity];
+                matchedTerms = new int[capacity];
+                termBest = new int[capacity];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Completion
+     *
+     * Teks saran beserta jumlah produk yang memakainya.
+     */
+    private static final class Completion {
+        private final String text;
+        private int count;
+
+        private Completion(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * Hit
+     *
+     * Produk kandidat beserta total skornya.
+     */
+    private static final class Hit {
+        private final Product product;
+        private final String name;
+        private final int score;
+
+        private Hit(Product product, int score) {
+            this.product = product;
+            this.name = product.getName() != null ? product.getName() : "";
+            this.score = score;
+        }
+    }
+}
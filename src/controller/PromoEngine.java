@@ -0,0 +1,275 @@
+package controller;
+
+import model.CartLine;
+import model.Promo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * PromoEngine
+ *
+ * Daftar promo di memori yang dipakai bersama oleh semua PromoHandler.
+ * Promo jarang berubah, sehingga seluruh tabel dimuat ke index hash berdasarkan
+ * kode dan ID. Setiap perubahan promo menaikkan counter versi di database; paling
+ * sering sekali per CHECK_INTERVAL counter itu dibaca, dan snapshot dimuat ulang jika
+ * versinya berbeda. Dengan begitu perubahan dari instance aplikasi lain ikut terbaca.
+ *
+ * Setiap promo dikompilasi menjadi aturan siap pakai (lingkup produk, tarif,
+ * minimum belanja, dan batas diskon), sehingga menghitung diskon sebuah cart
+ * hanya satu loop atas baris cart tanpa query database dan tanpa alokasi object.
+ *
+ * Index disimpan sebagai snapshot yang tidak pernah diubah; reload membangun
+ * snapshot baru lalu menggantinya sekaligus, sehingga pembaca tidak perlu lock.
+ */
+public class PromoEngine {
+    private static final PromoEngine INSTANCE = new PromoEngine();
+
+    // Jarak minimum antar pengecekan versi promo di database
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private volatile Snapshot snapshot;   // null sampai promo pertama kali dimuat
+    private volatile long checkedAt;      // System.nanoTime() saat versi terakhir dicek
+
+    private PromoEngine() {
+    }
+
+    /**
+     * Mendapatkan instance PromoEngine yang dipakai bersama
+     *
+     * @return PromoEngine instance
+     */
+    public static PromoEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Memuat promo dari database jika belum dimuat atau versinya sudah berubah
+     * Versi hanya dicek paling sering sekali per CHECK_INTERVAL; di antaranya snapshot
+     * yang ada langsung dipakai. Jika versi atau promo gagal dibaca, snapshot lama tetap
+     * dipakai dan pengecekan diulang pada pemanggilan berikutnya.
+     *
+     * @param version Sumber versi promo (misalnya PromoDAO.getVersion), -1 jika gagal
+     * @param loader Sumber seluruh promo (misalnya PromoDAO.getAllPromos), null jika gagal
+     */
+    public void loadIfNeeded(LongSupplier version, Supplier<List<Promo>> loader) {
+        if (snapshot != null && !isCheckDue()) {
+            return;
+        }
+        synchronized (this) {
+            Snapshot current = snapshot;
+            if (current != null && !isCheckDue()) {
+                return;
+            }
+            // Versi dibaca sebelum promo: perubahan di antaranya terdeteksi pada cek berikutnya
+            long latest = version.getAsLong();
+            if (current != null && latest < 0) {
+                return;
+            }
+            if (current != null && latest == current.version) {
+                checkedAt = System.nanoTime();
+                return;
+            }
+            reload(loader.get(), latest);
+        }
+    }
+
+    private boolean isCheckDue() {
+        return System.nanoTime() - checkedAt >= CHECK_INTERVAL_NANOS;
+    }
+
+    /**
+     * Membangun ulang index dan aturan dari seluruh promo
+     * Jika promo gagal dibaca, snapshot lama tetap dipakai (kosong jika belum pernah dimuat).
+     * Snapshot tanpa versi yang valid dicek ulang pada pemanggilan loadIfNeeded berikutnya.
+     *
+     * @param promos Seluruh promo, null jika gagal dibaca
+     * @param version Versi promo yang dibaca sebelum promos, -1 jika tidak diketahui
+     */
+    public synchronized void reload(Collection<Promo> promos, long version) {
+        if (promos == null) {
+            if (snapshot == null) {
+                snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap(),
+                        Collections.emptyList(), -1);
+            }
+            expireCheck();
+            return;
+        }
+        Map<String, CompiledPromo> byCode = new HashMap<>();
+        Map<String, CompiledPromo> byId = new HashMap<>();
+        List<CompiledPromo> all = new ArrayList<>(promos.size());
+        for (Promo promo : promos) {
+            CompiledPromo compiled = new CompiledPromo(promo);
+            all.add(compiled);
+            byId.put(promo.getIdPromo(), compiled);
+            if (promo.getCode() != null) {
+                byCode.put(promo.getCode(), compiled);
+            }
+        }
+        snapshot = new Snapshot(byCode, byId, Collections.unmodifiableList(all), version);
+        if (version < 0) {
+            expireCheck();
+        } else {
+            checkedAt = System.nanoTime();
+        }
+    }
+
+    private void expireCheck() {
+        checkedAt = System.nanoTime() - CHECK_INTERVAL_NANOS;
+    }
+
+    /**
+     * Mencari promo berdasarkan kode
+     *
+     * @param code Kode promo
+     * @return salinan Promo, null jika tidak ada
+     */
+    public Promo findByCode(String code) {
+        CompiledPromo compiled = code != null ? current().byCode.get(code) : null;
+        return compiled != null ? copyOf(compiled.promo) : null;
+    }
+
+    /**
+     * Mencari promo berdasarkan ID
+     *
+     * @param idPromo ID promo
+     * @return salinan Promo, null jika tidak ada
+     */
+    public Promo findById(String idPromo) {
+        CompiledPromo compiled = idPromo != null ? current().byId.get(idPromo) : null;
+        return compiled != null ? copyOf(compiled.promo) : null;
+    }
+
+    /**
+     * @return salinan semua promo, urut seperti saat dimuat
+     */
+    public List<Promo> getAll() {
+        List<CompiledPromo> all = current().all;
+        List<Promo> promos = new ArrayList<>(all.size());
+        for (CompiledPromo compiled : all) {
+            promos.add(copyOf(compiled.promo));
+        }
+        return promos;
+    }
+
+    /**
+     * Menghitung diskon promo untuk isi cart
+     *
+     * @param idPromo ID promo
+     * @param lines Baris cart (harga, jumlah, dan kategori produk)
+     * @return nilai diskon dalam Rupiah, 0 jika promo tidak ada atau syarat tidak terpenuhi
+     */
+    public double discount(String idPromo, List<? extends CartLine> lines) {
+        CompiledPromo compiled = idPromo != null ? current().byId.get(idPromo) : null;
+        return compiled != null ? compiled.discount(lines) : 0;
+    }
+
+    /**
+     * Menghitung diskon promo untuk total belanja tanpa rincian produk
+     * Promo khusus kategori tidak bisa diperiksa tanpa rincian, sehingga menghasilkan 0.
+     *
+     * @param code Kode promo
+     * @param totalAmount Total belanja
+     * @return nilai diskon dalam Rupiah, 0 jika promo tidak ada atau syarat tidak terpenuhi
+     */
+    public double discountForTotal(String code, double totalAmount) {
+        CompiledPromo compiled = code != null ? current().byCode.get(code) : null;
+        if (compiled == null || compiled.category != null) {
+            return 0;
+        }
+        return compiled.apply(totalAmount);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("PromoEngine belum dimuat");
+        }
+        return current;
+    }
+
+    private static Promo copyOf(Promo promo) {
+        return new Promo(promo.getIdPromo(), promo.getCode(), promo.getDiscountPercentage(), promo.getHeadline(),
+                promo.getCategory(), promo.getMinSpend(), promo.getMaxDiscount());
+    }
+
+    /**
+     * Snapshot
+     *
+     * Index promo yang tidak pernah diubah setelah dibuat.
+     */
+    private static final class Snapshot {
+        private final Map<String, CompiledPromo> byCode;
+        private final Map<String, CompiledPromo> byId;
+        private final List<CompiledPromo> all;
+        private final long version;   // Versi promo saat snapshot dimuat
+
+        private Snapshot(Map<String, CompiledPromo> byCode, Map<String, CompiledPromo> byId,
+                         List<CompiledPromo> all, long version) {
+            this.byCode = byCode;
+            this.byId = byId;
+            this.all = all;
+            this.version = version;
+        }
+    }
+
+    /**
+     * CompiledPromo
+     *
+     * Aturan satu promo yang sudah dinormalisasi: tarif dalam pecahan, kategori kosong
+     * berarti semua produk, dan batas 0 berarti tanpa batas.
+     */
+    private static final class CompiledPromo {
+        private final Promo promo;
+        private final String category;   // null = semua produk
+        private final double rate;       // discountPercentage / 100
+        private final double minSpend;
+        private final double cap;        // Double.MAX_VALUE jika tanpa batas
+
+        private CompiledPromo(Promo promo) {
+            this.promo = copyOf(promo);
+            String scope = promo.getCategory() != null ? promo.getCategory().trim() : "";
+            this.category = scope.isEmpty() ? null : scope;
+            this.rate = Math.max(0, Math.min(promo.getDiscountPercentage(), 100)) / 100.0;
+            this.minSpend = Math.max(0, promo.getMinSpend());
+            this.cap = promo.getMaxDiscount() > 0 ? promo.getMaxDiscount() : Double.MAX_VALUE;
+        }
+
+        /**
+         * Menjumlahkan subtotal baris yang masuk lingkup promo lalu menerapkan aturan
+         */
+        private double discount(List<? extends CartLine> lines) {
+            double eligible = 0;
+            if (category == null) {
+                for (int i = 0; i < lines.size(); i++) {
+                    eligible += lines.get(i).getSubtotal();
+                }
+            } else {
+                for (int i = 0; i < lines.size(); i++) {
+                    CartLine line = lines.get(i);
+                    if (category.equalsIgnoreCase(line.getCategory())) {
+                        eligible += line.getSubtotal();
+                    }
+                }
+            }
+            return apply(eligible);
+        }
+
+        /**
+         * Diskon untuk nilai belanja yang eligible: 0 jika di bawah minimum, dibatasi cap
+         */
+        private double apply(double eligible) {
+            if (eligible <= 0 || eligible < minSpend) {
+                return 0;
+            }
+            return Math.min(eligible * rate, cap);
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package controller;
 
+import model.CartLine;
 import model.Promo;
+import database.DatabaseConnection;
 import database.PromoDAO;
+import database.TransactionCallback;
+
+import java.sql.SQLException;
+import java.util.List;
 
 /**
  * PromoController
  * 
  * Controller untuk menangani business logic terkait Promo/Diskon.
  * Bertanggung jawab untuk validasi promo dan kalkulasi diskon.
+ * Pembacaan promo dan kalkulasi diskon dilayani PromoEngine di memori;
+ * database hanya dibaca saat pertama kali dan setelah versi promo berubah.
+ * Setiap perubahan promo menaikkan versi dalam transaksi yang sama.
  * 
  */
 public class PromoHandler {
     private PromoDAO promoDAO;
+    private PromoEngine promoEngine;
 
     /**
      * Constructor untuk PromoController
@@ -19,6 +29,64 @@ public class PromoHandler {
      */
     public PromoHandler() {
         this.promoDAO = new PromoDAO();
+        this.promoEngine = PromoEngine.getInstance();
+    }
+
+    /**
+     * Mendapatkan PromoEngine yang sudah dimuat dan sesuai versi promo di database
+     */
+    private PromoEngine engine() {
+        promoEngine.loadIfNeeded(() -> promoDAO.getVersion(), () -> promoDAO.getAllPromos());
+        return promoEngine;
+    }
+
+    /**
+     * Memuat ulang PromoEngine setelah data promo di database berubah
+     */
+    private void reloadEngine() {
+        long version = promoDAO.getVersion();
+        promoEngine.reload(promoDAO.getAllPromos(), version);
+    }
+
+    /**
+     * Menjalankan perubahan promo bersama kenaikan versi dalam satu transaksi
+     *
+     * @param change Perubahan promo, false jika gagal
+     * @return true jika perubahan dan versi tersimpan
+     */
+    private boolean changePromos(TransactionCallback<Boolean> change) {
+        try {
+            DatabaseConnection.getInstance().inTransaction(() -> {
+                if (!change.execute() || !promoDAO.bumpVersion()) {
+                    throw new BusinessRuleException("Perubahan promo gagal");
+                }
+                return null;
+            });
+        } catch (BusinessRuleException e) {
+            return false;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+        reloadEngine();
+        return true;
+    }
+
+    /**
+     * Memastikan promo masih ada di database saat checkout
+     * Snapshot PromoEngine bisa tertinggal beberapa detik dari perubahan instance lain;
+     * jika promo ternyata sudah dihapus, PromoEngine langsung dimuat ulang.
+     * 
+     * @param idPromo ID promo
+     * @return true jika promo masih ada
+     * @throws SQLException jika query gagal
+     */
+    public boolean confirmPromo(String idPromo) throws SQLException {
+        if (promoDAO.getPromoById(idPromo) != null) {
+            return true;
+        }
+        reloadEngine();
+        return false;
     }
 
     /**
@@ -28,7 +96,7 @@ public class PromoHandler {
      * @return Promo object jika ditemukan, null sebaliknya
      */
     public Promo getPromo(String code) {
-        return promoDAO.getPromoByCode(code);
+        return engine().findByCode(code);
     }
 
     /**
@@ -38,7 +106,7 @@ public class PromoHandler {
      * @return true jika promo ada, false sebaliknya
      */
     public boolean promoExists(String code) {
-        return promoDAO.promoExists(code);
+        return engine().findByCode(code) != null;
     }
 
     /**
@@ -48,23 +116,33 @@ public class PromoHandler {
      * @return Persentase diskon
      */
     public double getDiscountPercentage(String code) {
-        return promoDAO.getDiscountPercentage(code);
+        Promo promo = engine().findByCode(code);
+        return promo != null ? promo.getDiscountPercentage() : 0;
     }
 
     /**
      * Kalkulasi nilai diskon dari kode promo
+     * Minimum belanja dan batas diskon ikut diterapkan; promo khusus kategori
+     * membutuhkan rincian cart (lihat calculateCartDiscount) dan menghasilkan 0 di sini.
      * 
      * @param code Kode promo
      * @param totalAmount Total amount yang akan didiskon
      * @return Nilai diskon, 0 jika promo tidak valid
      */
     public double calculateDiscount(String code, double totalAmount) {
-        if (!promoExists(code)) {
-            return 0;
-        }
+        return engine().discountForTotal(code, totalAmount);
+    }
 
-        double discountPercentage = getDiscountPercentage(code);
-        return totalAmount * (discountPercentage / 100);
+    /**
+     * Kalkulasi nilai diskon promo untuk isi cart
+     * Menerapkan lingkup kategori, minimum belanja, dan batas diskon promo.
+     * 
+     * @param idPromo ID promo
+     * @param lines Baris cart beserta harga dan kategori produk
+     * @return Nilai diskon, 0 jika promo tidak valid atau syarat tidak terpenuhi
+     */
+    public double calculateCartDiscount(String idPromo, List<? extends CartLine> lines) {
+        return engine().discount(idPromo, lines);
     }
 
     /**
@@ -88,8 +166,8 @@ public class PromoHandler {
      * 
      * @return List semua promo di database
      */
-    public java.util.List<Promo> getAllPromos() {
-        return promoDAO.getAllPromos();
+    public List<Promo> getAllPromos() {
+        return engine().getAll();
     }
 
     /**
@@ -99,7 +177,7 @@ public class PromoHandler {
      * @return Promo object jika ditemukan, null sebaliknya
      */
     public Promo getPromoById(String idPromo) {
-        return promoDAO.getPromoById(idPromo);
+        return engine().findById(idPromo);
     }
 
     /**
@@ -109,7 +187,7 @@ public class PromoHandler {
      * @return "success" jika insert berhasil, pesan error sebaliknya
      */
     public String insertPromo(Promo promo) {
-        if (promoDAO.insertPromo(promo)) {
+        if (changePromos(() -> promoDAO.insertPromo(promo))) {
             return "success";
         }
         return "Tambah promo gagal";
@@ -122,7 +200,7 @@ public class PromoHandler {
      * @return "success" jika update berhasil, pesan error sebaliknya
      */
     public String updatePromo(Promo promo) {
-        if (promoDAO.updatePromo(promo)) {
+        if (changePromos(() -> promoDAO.updatePromo(promo))) {
             return "success";
         }
         return "Update promo gagal";
@@ -135,7 +213,7 @@ public class PromoHandler {
      * @return "success" jika delete berhasil, pesan error sebaliknya
      */
     public String deletePromo(String idPromo) {
-        if (promoDAO.deletePromo(idPromo)) {
+        if (changePromos(() -> promoDAO.deletePromo(idPromo))) {
             return "success";
         }
         return "Hapus promo gagal";
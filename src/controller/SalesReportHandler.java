@@ -0,0 +1,122 @@
+package controller;
+
+import model.CartLine;
+import model.SalesTotal;
+import database.DatabaseConnection;
+import database.SalesSummaryDAO;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * SalesReportHandler
+ *
+ * Controller untuk ringkasan dan laporan penjualan.
+ * Setiap checkout menambahkan ordernya ke tabel ringkasan (per tanggal, produk x tanggal,
+ * kategori x tanggal, dan total per customer) di transaksi checkout yang sama, sehingga
+ * ringkasan selalu sesuai dengan order yang ter-commit. Laporan admin hanya membaca tabel
+ * ringkasan tersebut, tidak pernah memindai OrderDetail.
+ */
+public class SalesReportHandler {
+    public static final int DEFAULT_TOP_LIMIT = 10;
+
+    private SalesSummaryDAO salesSummaryDAO;
+
+    /**
+     * Constructor untuk SalesReportHandler
+     * Menginisialisasi SalesSummaryDAO untuk akses tabel ringkasan
+     */
+    public SalesReportHandler() {
+        this.salesSummaryDAO = new SalesSummaryDAO();
+    }
+
+    /**
+     * Menambahkan order yang sedang di-checkout ke tabel ringkasan
+     * Dipanggil sebagai langkah terakhir transaksi checkout; kegagalan dilempar sebagai
+     * BusinessRuleException agar order ikut dibatalkan. Diskon dibagi ke baris order
+     * sebanding subtotal, sehingga revenue produk dan kategori sama dengan totalAmount.
+     *
+     * @param idCustomer ID customer yang checkout
+     * @param orderedAt Waktu order (sama dengan OrderHeader.orderedAt)
+     * @param lines Baris order beserta harga dan kategori produk
+     * @param totalAmount Total yang dibayar (setelah diskon)
+     * @throws SQLException jika ringkasan gagal diperbarui
+     */
+    public void recordCheckout(String idCustomer, LocalDateTime orderedAt, List<CartLine> lines, double totalAmount)
+            throws SQLException {
+        if (!salesSummaryDAO.recordOrder(idCustomer, orderedAt, lines, totalAmount)) {
+            throw new BusinessRuleException("Checkout gagal saat mencatat ringkasan penjualan");
+        }
+    }
+
+    /**
+     * Mendapatkan total penjualan per tanggal
+     *
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return List<SalesTotal> urut berdasarkan tanggal
+     */
+    public List<SalesTotal> getDailySales(LocalDate from, LocalDate to) {
+        return salesSummaryDAO.getDailyTotals(from, to);
+    }
+
+    /**
+     * Mendapatkan total penjualan per kategori
+     *
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return List<SalesTotal> urut dari revenue terbesar
+     */
+    public List<SalesTotal> getCategorySales(LocalDate from, LocalDate to) {
+        return salesSummaryDAO.getCategoryTotals(from, to);
+    }
+
+    /**
+     * Mendapatkan produk terlaris berdasarkan revenue
+     *
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @param limit Jumlah produk maksimum
+     * @return List<SalesTotal> urut dari revenue terbesar
+     */
+    public List<SalesTotal> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        return salesSummaryDAO.getTopProducts(from, to, limit);
+    }
+
+    /**
+     * Mendapatkan customer dengan total belanja terbesar sepanjang waktu
+     *
+     * @param limit Jumlah customer maksimum
+     * @return List<SalesTotal> urut dari total belanja terbesar
+     */
+    public List<SalesTotal> getTopCustomers(int limit) {
+        return salesSummaryDAO.getTopCustomers(limit);
+    }
+
+    /**
+     * Menghitung ulang semua tabel ringkasan dari seluruh order dalam satu transaksi
+     * Untuk perbaikan jika ringkasan pernah tidak sesuai; checkout yang berjalan bersamaan
+     * menunggu sampai rebuild selesai.
+     *
+     * @return "success" jika berhasil, pesan error sebaliknya
+     */
+    public String rebuildAggregates() {
+        long start = System.nanoTime();
+        try {
+            String result = DatabaseConnection.getInstance().inTransaction(() -> {
+                salesSummaryDAO.rebuild();
+                return "success";
+            });
+            System.out.println("[sales] ringkasan dihitung ulang dalam "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return result;
+        } catch (BusinessRuleException e) {
+            return e.getMessage();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return "Hitung ulang ringkasan penjualan gagal";
+        }
+    }
+}
@@ -14,34 +14,28 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel Admin.
  */
 public class AdminDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private AdminRowMapper adminMapper;
 
     /**
      * Constructor untuk AdminDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public AdminDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.adminMapper = new AdminRowMapper();
     }
 
     /**
      * Generate unique ID untuk Admin
      * Format: ADM_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idAdmin, 5) AS UNSIGNED)) as maxId FROM Admin";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("ADM_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("ADM", "Admin", "idAdmin");
         } catch (SQLException e) {
             e.printStackTrace();
             return "ADM_00001";
@@ -56,7 +50,8 @@ public class AdminDAO {
      */
     public boolean insertAdmin(Admin admin) {
         String sql = "INSERT INTO Admin (idAdmin, idUser, emergencyContact) VALUES (?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, admin.getIdAdmin());
             ps.setString(2, admin.getIdUser());
             ps.setString(3, admin.getEmergencyContact());
@@ -75,16 +70,11 @@ public class AdminDAO {
      */
     public Admin getAdminById(String idAdmin) {
         String sql = "SELECT * FROM Admin WHERE idAdmin = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idAdmin);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Admin(
-                        rs.getString("idAdmin"),
-                        rs.getString("idUser"),
-                        rs.getString("emergencyContact")
-                );
-            }
+            return adminMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -99,16 +89,11 @@ public class AdminDAO {
      */
     public Admin getAdminByUserId(String idUser) {
         String sql = "SELECT * FROM Admin WHERE idUser = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idUser);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Admin(
-                        rs.getString("idAdmin"),
-                        rs.getString("idUser"),
-                        rs.getString("emergencyContact")
-                );
-            }
+            return adminMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -123,15 +108,10 @@ public class AdminDAO {
     public List<Admin> getAllAdmins() {
         List<Admin> admins = new ArrayList<>();
         String sql = "SELECT * FROM Admin";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                admins.add(new Admin(
-                        rs.getString("idAdmin"),
-                        rs.getString("idUser"),
-                        rs.getString("emergencyContact")
-                ));
-            }
+            adminMapper.mapAll(rs, admins);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -146,7 +126,8 @@ public class AdminDAO {
      */
     public boolean updateAdmin(Admin admin) {
         String sql = "UPDATE Admin SET idUser = ?, emergencyContact = ? WHERE idAdmin = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, admin.getIdUser());
             ps.setString(2, admin.getEmergencyContact());
             ps.setString(3, admin.getIdAdmin());
@@ -165,7 +146,8 @@ public class AdminDAO {
      */
     public boolean deleteAdmin(String idAdmin) {
         String sql = "DELETE FROM Admin WHERE idAdmin = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idAdmin);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -0,0 +1,29 @@
+package database;
+
+import model.Admin;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * AdminRowMapper
+ *
+ * Mengubah baris tabel Admin menjadi object Admin.
+ */
+public class AdminRowMapper extends RowMapper<Admin> {
+    private static final int ID_ADMIN = 0;
+    private static final int ID_USER = 1;
+    private static final int EMERGENCY_CONTACT = 2;
+
+    public AdminRowMapper() {
+        super("idAdmin", "idUser", "emergencyContact");
+    }
+
+    @Override
+    protected Admin map(ResultSet rs, int[] columns) throws SQLException {
+        return new Admin(
+                rs.getString(columns[ID_ADMIN]),
+                rs.getString(columns[ID_USER]),
+                rs.getString(columns[EMERGENCY_CONTACT])
+        );
+    }
+}
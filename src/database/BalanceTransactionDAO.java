@@ -0,0 +1,66 @@
+package database;
+
+import model.BalanceTransaction;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * BalanceTransactionDAO
+ *
+ * Data Access Object untuk buku besar saldo customer (tabel BalanceTransaction).
+ * Tabel ini append-only: entri hanya diinsert, tidak pernah diupdate atau dihapus.
+ * Saldo terkini tetap dibaca dari kolom Customer.balance, bukan dengan menjumlahkan entri.
+ */
+public class BalanceTransactionDAO {
+    private DatabaseConnection db;
+
+    /**
+     * Constructor untuk BalanceTransactionDAO
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
+     */
+    public BalanceTransactionDAO() {
+        this.db = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Generate unique ID untuk BalanceTransaction
+     * Format: BTX_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
+     *
+     * @return String ID yang unik
+     */
+    public String generateId() {
+        try {
+            return IdAllocator.getInstance().nextId("BTX", "BalanceTransaction", "idTransaction");
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return "BTX_00001";
+        }
+    }
+
+    /**
+     * Insert entri buku besar baru
+     *
+     * @param transaction BalanceTransaction yang akan disimpan
+     * @return boolean true jika berhasil, false jika tidak ada baris yang tersimpan
+     * @throws SQLException jika query gagal
+     */
+    public boolean insertTransaction(BalanceTransaction transaction) throws SQLException {
+        String sql = "INSERT INTO BalanceTransaction "
+                + "(idTransaction, idCustomer, type, amount, balanceAfter, idOrder, createdAt) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, transaction.getIdTransaction());
+            ps.setString(2, transaction.getIdCustomer());
+            ps.setString(3, transaction.getType());
+            ps.setDouble(4, transaction.getAmount());
+            ps.setDouble(5, transaction.getBalanceAfter());
+            ps.setString(6, transaction.getIdOrder());
+            ps.setTimestamp(7, Timestamp.valueOf(transaction.getCreatedAt()));
+            return ps.executeUpdate() > 0;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package database;
 
 import model.CartItem;
+import model.CartLine;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -15,34 +16,30 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel CartItem.
  */
 public class CartItemDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private CartItemRowMapper cartItemMapper;
+    private CartLineRowMapper cartLineMapper;
 
     /**
      * Constructor untuk CartItemDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public CartItemDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.cartItemMapper = new CartItemRowMapper();
+        this.cartLineMapper = new CartLineRowMapper();
     }
 
     /**
      * Generate unique ID untuk CartItem
      * Format: CART_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idCartItem, 6) AS UNSIGNED)) as maxId FROM CartItem";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("CART_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("CART", "CartItem", "idCartItem");
         } catch (SQLException e) {
             e.printStackTrace();
             return "CART_00001";
@@ -57,7 +54,8 @@ public class CartItemDAO {
      */
     public boolean insertCartItem(CartItem cartItem) {
         String sql = "INSERT INTO CartItem (idCartItem, idCustomer, idProduct, count) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, cartItem.getIdCartItem());
             ps.setString(2, cartItem.getIdCustomer());
             ps.setString(3, cartItem.getIdProduct());
@@ -77,17 +75,11 @@ public class CartItemDAO {
      */
     public CartItem getCartItemById(String idCartItem) {
         String sql = "SELECT * FROM CartItem WHERE idCartItem = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCartItem);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new CartItem(
-                        rs.getString("idCartItem"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idProduct"),
-                        rs.getInt("count")
-                );
-            }
+            return cartItemMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -103,23 +95,38 @@ public class CartItemDAO {
     public List<CartItem> getCartItemByCustomerId(String idCustomer) {
         String sql = "SELECT * FROM CartItem WHERE idCustomer = ?";
         List<CartItem> cartItems = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                cartItems.add(new CartItem(
-                        rs.getString("idCartItem"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idProduct"),
-                        rs.getInt("count")
-                ));
-            }
+            cartItemMapper.mapAll(rs, cartItems);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return cartItems;
     }
 
+    /**
+     * Mendapatkan isi cart customer beserta nama, harga, dan stok produk dalam satu query
+     *
+     * @param idCustomer ID dari Customer pemilik cart
+     * @return List CartLine, kosong jika cart kosong
+     * @throws SQLException jika query gagal
+     */
+    public List<CartLine> getCartLinesByCustomerId(String idCustomer) throws SQLException {
+        List<CartLine> cartLines = new ArrayList<>();
+        String sql = "SELECT c.idCartItem, c.idCustomer, c.idProduct, c.count, p.name, p.price, p.stock, p.category "
+                + "FROM CartItem c JOIN Product p ON p.idProduct = c.idProduct "
+                + "WHERE c.idCustomer = ? ORDER BY c.idCartItem";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, idCustomer);
+            ResultSet rs = ps.executeQuery();
+            cartLineMapper.mapAll(rs, cartLines);
+        }
+        return cartLines;
+    }
+
     /**
      * Mendapatkan CartItem berdasarkan idCustomer dan idProduct
      *
@@ -129,18 +136,12 @@ public class CartItemDAO {
      */
     public CartItem getCartItemByCustomerIdAndProductId(String idCustomer, String idProduct) {
         String sql = "SELECT * FROM CartItem WHERE idCustomer = ? AND idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             ps.setString(2, idProduct);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new CartItem(
-                        rs.getString("idCartItem"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idProduct"),
-                        rs.getInt("count")
-                );
-            }
+            return cartItemMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -155,22 +156,29 @@ public class CartItemDAO {
     public List<CartItem> getAllCartItems() {
         List<CartItem> cartItems = new ArrayList<>();
         String sql = "SELECT * FROM CartItem";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                cartItems.add(new CartItem(
-                        rs.getString("idCartItem"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idProduct"),
-                        rs.getInt("count")
-                ));
-            }
+            cartItemMapper.mapAll(rs, cartItems);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return cartItems;
     }
 
+    /**
+     * Membaca seluruh CartItem secara streaming, urut berdasarkan ID
+     * Baris dibaca per fetchSize lewat CursorQuery tanpa ditampung di memori.
+     *
+     * @param fetchSize Jumlah baris per pengambilan dari server
+     * @param callback Penerima setiap CartItem
+     * @return boolean true jika semua baris terbaca, false jika gagal
+     */
+    public boolean forEachCartItem(int fetchSize, RowCallback<CartItem> callback) {
+        return CursorQuery.forEach(db, "SELECT * FROM CartItem ORDER BY idCartItem", fetchSize,
+                cartItemMapper, callback);
+    }
+
     /**
      * Update CartItem di database
      *
@@ -179,7 +187,8 @@ public class CartItemDAO {
      */
     public boolean updateCartItem(CartItem cartItem) {
         String sql = "UPDATE CartItem SET idCustomer = ?, idProduct = ?, count = ? WHERE idCartItem = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, cartItem.getIdCustomer());
             ps.setString(2, cartItem.getIdProduct());
             ps.setInt(3, cartItem.getCount());
@@ -201,7 +210,8 @@ public class CartItemDAO {
      */
     public boolean updateCount(String idCustomer, String idProduct, int newCount) {
         String sql = "UPDATE CartItem SET count = ? WHERE idCustomer = ? AND idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, newCount);
             ps.setString(2, idCustomer);
             ps.setString(3, idProduct);
@@ -221,7 +231,8 @@ public class CartItemDAO {
      */
     public boolean deleteCartItem(String idCustomer, String idProduct) {
         String sql = "DELETE FROM CartItem WHERE idCustomer = ? AND idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             ps.setString(2, idProduct);
             return ps.executeUpdate() > 0;
@@ -233,18 +244,19 @@ public class CartItemDAO {
 
     /**
      * Delete semua CartItem berdasarkan idCustomer
+     * Dipakai juga di dalam transaksi checkout, sehingga error database dilempar
+     * (bukan dikembalikan sebagai false) agar transaksi bisa dibatalkan atau diulang.
      *
      * @param idCustomer ID Customer dari CartItem yang akan dihapus
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika ada item yang dihapus, false jika cart sudah kosong
+     * @throws SQLException jika query gagal
      */
-    public boolean deleteCartItemByCustomerId(String idCustomer) {
+    public boolean deleteCartItemByCustomerId(String idCustomer) throws SQLException {
         String sql = "DELETE FROM CartItem WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 }
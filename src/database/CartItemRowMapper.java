@@ -0,0 +1,31 @@
+package database;
+
+import model.CartItem;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * CartItemRowMapper
+ *
+ * Mengubah baris tabel CartItem menjadi object CartItem.
+ */
+public class CartItemRowMapper extends RowMapper<CartItem> {
+    private static final int ID_CART_ITEM = 0;
+    private static final int ID_CUSTOMER = 1;
+    private static final int ID_PRODUCT = 2;
+    private static final int COUNT = 3;
+
+    public CartItemRowMapper() {
+        super("idCartItem", "idCustomer", "idProduct", "count");
+    }
+
+    @Override
+    protected CartItem map(ResultSet rs, int[] columns) throws SQLException {
+        return new CartItem(
+                rs.getString(columns[ID_CART_ITEM]),
+                rs.getString(columns[ID_CUSTOMER]),
+                rs.getString(columns[ID_PRODUCT]),
+                rs.getInt(columns[COUNT])
+        );
+    }
+}
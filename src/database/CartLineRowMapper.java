@@ -0,0 +1,39 @@
+package database;
+
+import model.CartLine;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * CartLineRowMapper
+ *
+ * Mengubah baris hasil join CartItem dan Product menjadi object CartLine.
+ */
+public class CartLineRowMapper extends RowMapper<CartLine> {
+    private static final int ID_CART_ITEM = 0;
+    private static final int ID_CUSTOMER = 1;
+    private static final int ID_PRODUCT = 2;
+    private static final int COUNT = 3;
+    private static final int NAME = 4;
+    private static final int PRICE = 5;
+    private static final int STOCK = 6;
+    private static final int CATEGORY = 7;
+
+    public CartLineRowMapper() {
+        super("idCartItem", "idCustomer", "idProduct", "count", "name", "price", "stock", "category");
+    }
+
+    @Override
+    protected CartLine map(ResultSet rs, int[] columns) throws SQLException {
+        return new CartLine(
+                rs.getString(columns[ID_CART_ITEM]),
+                rs.getString(columns[ID_CUSTOMER]),
+                rs.getString(columns[ID_PRODUCT]),
+                rs.getInt(columns[COUNT]),
+                rs.getString(columns[NAME]),
+                rs.getDouble(columns[PRICE]),
+                rs.getInt(columns[STOCK]),
+                rs.getString(columns[CATEGORY])
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package database;
+
+import model.ChangeCursor;
+import model.ChangeSet;
+import model.PageCursor;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChangeFeed
+ *
+ * Helper query perubahan berdasarkan kolom updatedAt (TIMESTAMP(3) yang diisi MySQL
+ * otomatis saat INSERT dan UPDATE). View yang terbuka cukup menanyakan baris setelah
+ * cursor (updatedAt, id) terakhir; dengan index pada updatedAt (yang juga memuat
+ * primary key) query ini hanya membaca baris yang benar-benar berubah.
+ *
+ * updatedAt diisi saat baris ditulis, bukan saat transaksi commit, sehingga transaksi
+ * yang lambat bisa commit dengan updatedAt lebih lama dari baris yang sudah terbaca.
+ * Karena itu cursor hanya maju sampai baris yang updatedAt-nya sudah lewat LAG_SECONDS
+ * dari waktu database. Baris yang lebih baru tetap dikirim ke view, tetapi akan dibaca
+ * ulang pada polling berikutnya; menerapkan baris yang sama dua kali tidak mengubah
+ * hasil di view. Transaksi yang commit lebih lambat dari LAG_SECONDS tetap bisa
+ * terlewat sampai view memuat ulang halamannya.
+ *
+ * ResultSet perubahan harus memuat kolom updatedAt, primary key tabel, serta
+ * orderedAt dan idOrder untuk posisi baris di urutan halaman.
+ */
+final class ChangeFeed {
+    static final int MAX_CHANGES = 500;
+
+    // Batas jeda antara baris ditulis dan transaksinya commit
+    static final int LAG_SECONDS = 10;
+
+    // Cursor awal jika tabel masih kosong
+    private static final ChangeCursor EPOCH = new ChangeCursor(LocalDateTime.of(1970, 1, 1, 0, 0), "");
+
+    private ChangeFeed() {
+    }
+
+    /**
+     * Mengambil cursor awal sebuah tabel: baris terakhir yang sudah lewat jeda commit
+     * Dibaca mundur dari index updatedAt, jadi hanya satu baris yang disentuh.
+     *
+     * @param connection Koneksi database
+     * @param table Nama tabel yang memiliki kolom updatedAt
+     * @param idColumn Primary key tabel
+     * @return cursor awal, atau 1970-01-01 jika belum ada baris
+     */
+    static ChangeCursor version(Connection connection, String table, String idColumn) throws SQLException {
+        String sql = "SELECT updatedAt, " + idColumn + " FROM " + table
+                + " WHERE updatedAt <= NOW(3) - INTERVAL " + LAG_SECONDS + " SECOND"
+                + " ORDER BY updatedAt DESC, " + idColumn + " DESC LIMIT 1";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return new ChangeCursor(rs.getTimestamp(1).toLocalDateTime(), rs.getString(2));
+            }
+        }
+        return EPOCH;
+    }
+
+    /**
+     * Mengambil batas cursor untuk satu polling (waktu database dikurangi LAG_SECONDS)
+     * Harus dibaca sebelum query perubahan dijalankan.
+     *
+     * @param connection Koneksi database
+     * @return batas updatedAt yang boleh dilewati cursor
+     */
+    static LocalDateTime horizon(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT NOW(3) - INTERVAL " + LAG_SECONDS + " SECOND")) {
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        }
+    }
+
+    /**
+     * Menyusun query perubahan setelah cursor tertentu
+     *
+     * @param select Bagian SELECT ... FROM ... (termasuk JOIN jika ada)
+     * @param filter Kondisi WHERE tambahan dengan parameter, null jika tidak ada
+     * @param alias Alias tabel yang dilacak di query, kosong jika tanpa alias
+     * @param idColumn Primary key tabel yang dilacak
+     * @return SQL lengkap dengan kondisi cursor, ORDER BY, dan LIMIT
+     */
+    static String changesSql(String select, String filter, String alias, String idColumn) {
+        String prefix = alias.isEmpty() ? "" : alias + ".";
+        String updatedAt = prefix + "updatedAt";
+        String id = prefix + idColumn;
+        StringBuilder sql = new StringBuilder(select).append(" WHERE ");
+        if (filter != null) {
+            sql.append(filter).append(" AND ");
+        }
+        sql.append("(").append(updatedAt).append(" > ? OR (")
+                .append(updatedAt).append(" = ? AND ").append(id).append(" > ?))")
+                .append(" ORDER BY ").append(updatedAt).append(", ").append(id).append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    /**
+     * Mengisi parameter cursor dan LIMIT, dimulai dari index parameter tertentu
+     *
+     * @param ps PreparedStatement dari changesSql
+     * @param index Index parameter pertama setelah parameter filter
+     * @param since Cursor terakhir yang sudah diterapkan
+     */
+    static void bind(PreparedStatement ps, int index, ChangeCursor since) throws SQLException {
+        Timestamp updatedAt = Timestamp.valueOf(since.getUpdatedAt());
+        ps.setTimestamp(index++, updatedAt);
+        ps.setTimestamp(index++, updatedAt);
+        ps.setString(index++, since.getId());
+        ps.setInt(index, MAX_CHANGES + 1);
+    }
+
+    /**
+     * Membaca perubahan dari ResultSet hasil changesSql
+     *
+     * @param mapper RowMapper untuk item
+     * @param rs ResultSet hasil query
+     * @param idColumn Label kolom primary key di ResultSet
+     * @param since Cursor terakhir yang sudah diterapkan
+     * @param horizon Batas dari horizon(), dibaca sebelum query
+     * @return ChangeSet berisi maksimal MAX_CHANGES item
+     */
+    static <T> ChangeSet<T> read(RowMapper<T> mapper, ResultSet rs, String idColumn,
+            ChangeCursor since, LocalDateTime horizon) throws SQLException {
+        List<T> items = new ArrayList<>();
+        List<PageCursor> positions = new ArrayList<>();
+        int[] columns = null;
+        int updatedAtColumn = 0;
+        int idColumnIndex = 0;
+        int orderedAtColumn = 0;
+        int idOrderColumn = 0;
+        ChangeCursor version = since;
+
+        while (rs.next()) {
+            if (columns == null) {
+                columns = mapper.resolve(rs);
+                updatedAtColumn = rs.findColumn("updatedAt");
+                idColumnIndex = rs.findColumn(idColumn);
+                orderedAtColumn = rs.findColumn("orderedAt");
+                idOrderColumn = rs.findColumn("idOrder");
+            }
+            if (items.size() == MAX_CHANGES) {
+                // Masih ada perubahan lain: pemanggil memuat ulang penuh, cursor tetap maju
+                return new ChangeSet<>(items, positions, version, true);
+            }
+            items.add(mapper.map(rs, columns));
+            positions.add(new PageCursor(rs.getTimestamp(orderedAtColumn).toLocalDateTime(),
+                    rs.getString(idOrderColumn)));
+
+            // Baris urut menurut updatedAt: setelah melewati horizon, sisanya juga lewat
+            LocalDateTime updatedAt = rs.getTimestamp(updatedAtColumn).toLocalDateTime();
+            if (!updatedAt.isAfter(horizon)) {
+                version = new ChangeCursor(updatedAt, rs.getString(idColumnIndex));
+            }
+        }
+        return new ChangeSet<>(items, positions, version, false);
+    }
+}
@@ -0,0 +1,412 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionPool
+ *
+ * Pool koneksi JDBC yang thread-safe dengan ukuran minimum dan maksimum.
+ * Koneksi divalidasi saat dipinjam, koneksi idle yang terlalu lama ditutup,
+ * dan koneksi yang tidak dikembalikan dalam batas waktu tertentu dilaporkan sebagai leak.
+ *
+ * Connection yang dikembalikan oleh borrow() adalah proxy: memanggil close()
+ * akan mengembalikan koneksi fisik ke pool, bukan menutupnya.
+ * Setiap koneksi fisik memiliki StatementCache sehingga prepareStatement(sql)
+ * dengan SQL yang sama memakai ulang PreparedStatement yang sudah disiapkan.
+ */
+public class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;   // Batas waktu Connection.isValid
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;                 // Jumlah koneksi minimum yang dijaga tetap terbuka
+    private final int maxSize;                 // Jumlah koneksi maksimum (idle + dipinjam)
+    private final long borrowTimeoutMillis;    // Lama menunggu koneksi sebelum gagal
+    private final long idleTimeoutMillis;      // Koneksi idle lebih lama dari ini akan ditutup
+    private final long leakThresholdMillis;    // Koneksi dipinjam lebih lama dari ini dilaporkan (0 = nonaktif)
+    private final int statementCacheSize;      // Jumlah PreparedStatement yang di-cache per koneksi (0 = nonaktif)
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    /**
+     * Membuat pool baru dan langsung membuka koneksi sebanyak minSize
+     *
+     * @param url JDBC URL
+     * @param username Username database
+     * @param password Password database
+     * @param minSize Jumlah koneksi minimum
+     * @param maxSize Jumlah koneksi maksimum
+     * @param borrowTimeoutMillis Lama menunggu koneksi tersedia
+     * @param idleTimeoutMillis Lama koneksi boleh idle sebelum ditutup
+     * @param leakThresholdMillis Lama koneksi boleh dipinjam sebelum dilaporkan sebagai leak
+     * @param statementCacheSize Jumlah PreparedStatement yang di-cache per koneksi
+     */
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Ukuran pool tidak valid: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        fillToMinimum();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS,
+                HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Meminjam koneksi dari pool
+     * Koneksi idle divalidasi terlebih dahulu; koneksi yang rusak dibuang dan diganti.
+     *
+     * @return Connection proxy, panggil close() untuk mengembalikan ke pool
+     * @throws SQLException jika pool habis sampai timeout atau koneksi gagal dibuat
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool sudah ditutup");
+        }
+
+        long deadline = System.currentTimeMillis() + borrowTimeoutMillis;
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Connection pool habis (max " + maxSize + " koneksi)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Menunggu koneksi terinterupsi", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidConnection(deadline);
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = leakThresholdMillis > 0 ? new Throwable("Koneksi dipinjam di sini") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Mengambil koneksi idle yang valid, atau membuat koneksi baru jika masih di bawah maxSize
+     */
+    private PooledConnection takeValidConnection(long deadline) throws SQLException {
+        while (true) {
+            PooledConnection pooled = idle.pollFirst();
+            if (pooled == null) {
+                if (tryReserveSlot()) {
+                    try {
+                        return new PooledConnection(openPhysical());
+                    } catch (SQLException e) {
+                        totalCount.decrementAndGet();
+                        throw e;
+                    }
+                }
+                // Semua slot terpakai oleh koneksi yang sedang dikembalikan, tunggu sebentar
+                long remaining = deadline - System.currentTimeMillis();
+                try {
+                    pooled = remaining > 0 ? idle.pollFirst(remaining, TimeUnit.MILLISECONDS) : null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Menunggu koneksi terinterupsi", e);
+                }
+                if (pooled == null) {
+                    throw new SQLException("Timeout menunggu koneksi dari pool");
+                }
+            }
+
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Mengembalikan koneksi fisik ke pool
+     * Transaksi yang belum selesai di-rollback dan autoCommit dikembalikan ke true.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            boolean healthy = !closed && !pooled.physical.isClosed();
+            if (healthy && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (healthy) {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean tryReserveSlot() {
+        while (true) {
+            int current = totalCount.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (totalCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalCount.decrementAndGet();
+        pooled.statements.clear();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Koneksi sudah rusak, tidak ada yang perlu dilakukan
+        }
+    }
+
+    /**
+     * Membuka koneksi idle sampai jumlah koneksi mencapai minSize
+     */
+    private void fillToMinimum() {
+        while (!closed && totalCount.get() < minSize && tryReserveSlot()) {
+            try {
+                PooledConnection pooled = new PooledConnection(openPhysical());
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                totalCount.decrementAndGet();
+                e.printStackTrace();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tugas periodik: menutup koneksi idle yang kedaluwarsa, menjaga minSize,
+     * dan melaporkan koneksi yang dipinjam terlalu lama
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Koneksi paling lama idle berada di ujung belakang deque
+        PooledConnection oldest;
+        while (totalCount.get() > minSize && (oldest = idle.peekLast()) != null
+                && now - oldest.lastUsedAt > idleTimeoutMillis) {
+            if (idle.removeLastOccurrence(oldest)) {
+                destroy(oldest);
+            }
+        }
+        fillToMinimum();
+
+        if (leakThresholdMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    System.out.println("Kemungkinan connection leak: koneksi dipinjam selama "
+                            + (now - pooled.borrowedAt) + " ms");
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Menutup semua koneksi idle dan menghentikan housekeeping
+     * Koneksi yang sedang dipinjam akan ditutup saat dikembalikan.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * @return jumlah koneksi fisik yang terbuka (idle + dipinjam)
+     */
+    public int getTotalConnections() {
+        return totalCount.get();
+    }
+
+    /**
+     * @return jumlah koneksi yang sedang dipinjam
+     */
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    /**
+     * @return jumlah koneksi idle di pool
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * @return jumlah prepareStatement yang dilayani dari cache
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    /**
+     * @return jumlah prepareStatement yang harus menyiapkan statement baru
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * @return persentase hit cache statement (0-100)
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.get();
+        long total = hits + statementCacheMisses.get();
+        return total == 0 ? 0 : hits * 100.0 / total;
+    }
+
+    /**
+     * PooledConnection
+     *
+     * Membungkus satu koneksi fisik beserta metadata peminjamannya.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long borrowedAt;
+        private volatile long lastUsedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize,
+                    statementCacheHits, statementCacheMisses);
+        }
+
+        /**
+         * Membuat proxy Connection untuk satu kali peminjaman
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Handle(this));
+        }
+    }
+
+    /**
+     * Handle
+     *
+     * InvocationHandler untuk proxy Connection. close() mengembalikan koneksi ke pool
+     * tepat satu kali; pemanggilan lain setelah close() akan gagal.
+     */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            PooledConnection current;
+            synchronized (this) {
+                if ("close".equals(name)) {
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        release(returning);
+                    }
+                    return null;
+                }
+                if ("isClosed".equals(name)) {
+                    return pooled == null || pooled.physical.isClosed();
+                }
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                }
+                if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                }
+                if ("toString".equals(name)) {
+                    return "PooledConnection[" + (pooled == null ? "closed" : pooled.physical) + "]";
+                }
+                if (pooled == null) {
+                    throw new SQLException("Koneksi sudah dikembalikan ke pool");
+                }
+                current = pooled;
+            }
+
+            if ("prepareStatement".equals(name) && args != null && args.length == 1) {
+                return current.statements.prepare((String) args[0]);
+            }
+            try {
+                return method.invoke(current.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -15,34 +15,32 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel Courier.
  */
 public class CourierDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private CourierRowMapper courierMapper;
+    private CourierSummaryRowMapper courierSummaryMapper;
+    private CourierLoadRowMapper courierLoadMapper;
 
     /**
      * Constructor untuk CourierDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public CourierDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.courierMapper = new CourierRowMapper();
+        this.courierSummaryMapper = new CourierSummaryRowMapper();
+        this.courierLoadMapper = new CourierLoadRowMapper();
     }
 
     /**
      * Generate unique ID untuk Courier
      * Format: COURIER_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idCourier, 9) AS UNSIGNED)) as maxId FROM Courier";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("COURIER_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("COURIER", "Courier", "idCourier");
         } catch (SQLException e) {
             e.printStackTrace();
             return "COURIER_00001";
@@ -57,7 +55,8 @@ public class CourierDAO {
      */
     public boolean insertCourier(Courier courier) {
         String sql = "INSERT INTO Courier (idCourier, idUser, vehicleType, vehiclePlate) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, courier.getIdCourier());
             ps.setString(2, courier.getIdUser());
             ps.setString(3, courier.getVehicleType());
@@ -77,17 +76,11 @@ public class CourierDAO {
      */
     public Courier getCourierById(String idCourier) {
         String sql = "SELECT * FROM Courier WHERE idCourier = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCourier);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Courier(
-                        rs.getString("idCourier"),
-                        rs.getString("idUser"),
-                        rs.getString("vehicleType"),
-                        rs.getString("vehiclePlate")
-                );
-            }
+            return courierMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -102,17 +95,11 @@ public class CourierDAO {
      */
     public Courier getCourierByUserId(String idUser) {
         String sql = "SELECT * FROM Courier WHERE idUser = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idUser);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Courier(
-                        rs.getString("idCourier"),
-                        rs.getString("idUser"),
-                        rs.getString("vehicleType"),
-                        rs.getString("vehiclePlate")
-                );
-            }
+            return courierMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -127,22 +114,71 @@ public class CourierDAO {
     public List<Courier> getAllCouriers() {
         List<Courier> couriers = new ArrayList<>();
         String sql = "SELECT * FROM Courier";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                couriers.add(new Courier(
-                        rs.getString("idCourier"),
-                        rs.getString("idUser"),
-                        rs.getString("vehicleType"),
-                        rs.getString("vehiclePlate")
-                ));
-            }
+            courierMapper.mapAll(rs, couriers);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return couriers;
     }
     
+    /**
+     * Mendapatkan semua Courier beserta data User dan jumlah delivery aktifnya
+     * Join Courier-User dan hitungan Delivery (status pending / in progress)
+     * diambil dalam satu query, sehingga biaya tetap satu round trip berapa pun
+     * jumlah kurirnya.
+     *
+     * @param vehicleType Filter tipe kendaraan, null atau kosong untuk semua kurir
+     * @return List<Courier> dengan fullName, email, phone, dan activeDeliveryCount terisi
+     */
+    public List<Courier> getCourierSummaries(String vehicleType) {
+        List<Courier> couriers = new ArrayList<>();
+        boolean filtered = vehicleType != null && !vehicleType.isEmpty();
+        String sql = "SELECT c.idCourier, c.idUser, c.vehicleType, c.vehiclePlate, "
+                + "u.fullName, u.email, u.phone, COALESCE(d.activeCount, 0) AS activeDeliveryCount "
+                + "FROM Courier c "
+                + "JOIN User u ON u.idUser = c.idUser "
+                + "LEFT JOIN (SELECT idCourier, COUNT(*) AS activeCount FROM Delivery "
+                + "WHERE status IN ('pending', 'in progress') GROUP BY idCourier) d "
+                + "ON d.idCourier = c.idCourier "
+                + (filtered ? "WHERE c.vehicleType = ? " : "")
+                + "ORDER BY c.idCourier";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            if (filtered) {
+                ps.setString(1, vehicleType);
+            }
+            ResultSet rs = ps.executeQuery();
+            courierSummaryMapper.mapAll(rs, couriers);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return couriers;
+    }
+
+    /**
+     * Mendapatkan semua Courier beserta jumlah delivery yang belum delivered
+     * Versi ringan dari getCourierSummaries untuk dispatcher: tanpa join User.
+     *
+     * @return List<Courier> dengan idCourier, vehicleType, dan activeDeliveryCount terisi
+     * @throws SQLException jika query gagal
+     */
+    public List<Courier> getCourierLoads() throws SQLException {
+        List<Courier> couriers = new ArrayList<>();
+        String sql = "SELECT c.idCourier, c.vehicleType, COUNT(d.idDelivery) AS activeDeliveryCount "
+                + "FROM Courier c "
+                + "LEFT JOIN Delivery d ON d.idCourier = c.idCourier AND d.status <> 'delivered' "
+                + "GROUP BY c.idCourier, c.vehicleType";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ResultSet rs = ps.executeQuery();
+            courierLoadMapper.mapAll(rs, couriers);
+        }
+        return couriers;
+    }
+
     /**
      * Mengambil seluruh ID Courier dari tabel Courier.
      * Method ini biasanya digunakan untuk proses mapping
@@ -155,11 +191,12 @@ public class CourierDAO {
         List<String> ids = new ArrayList<>();
         String sql = "SELECT idCourier FROM Courier";
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                ids.add(rs.getString("idCourier"));
+                ids.add(rs.getString(1));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -176,7 +213,8 @@ public class CourierDAO {
      */
     public boolean updateCourier(Courier courier) {
         String sql = "UPDATE Courier SET idUser = ?, vehicleType = ?, vehiclePlate = ? WHERE idCourier = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
         	ps.setString(1, courier.getIdUser());
             ps.setString(2, courier.getVehicleType());
             ps.setString(3, courier.getVehiclePlate());
@@ -196,7 +234,8 @@ public class CourierDAO {
      */
     public boolean deleteCourier(String idCourier) {
         String sql = "DELETE FROM Courier WHERE idCourier = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCourier);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -0,0 +1,30 @@
+package database;
+
+import model.Courier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * CourierLoadRowMapper
+ *
+ * Mengubah baris beban kurir (Courier dengan jumlah Delivery aktif, tanpa join User)
+ * menjadi object Courier untuk dispatcher.
+ */
+public class CourierLoadRowMapper extends RowMapper<Courier> {
+    private static final int ID_COURIER = 0;
+    private static final int VEHICLE_TYPE = 1;
+    private static final int ACTIVE_DELIVERY_COUNT = 2;
+
+    public CourierLoadRowMapper() {
+        super("idCourier", "vehicleType", "activeDeliveryCount");
+    }
+
+    @Override
+    protected Courier map(ResultSet rs, int[] columns) throws SQLException {
+        Courier courier = new Courier();
+        courier.setIdCourier(rs.getString(columns[ID_COURIER]));
+        courier.setVehicleType(rs.getString(columns[VEHICLE_TYPE]));
+        courier.setActiveDeliveryCount(rs.getInt(columns[ACTIVE_DELIVERY_COUNT]));
+        return courier;
+    }
+}
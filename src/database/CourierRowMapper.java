@@ -0,0 +1,31 @@
+package database;
+
+import model.Courier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * CourierRowMapper
+ *
+ * Mengubah baris tabel Courier menjadi object Courier.
+ */
+public class CourierRowMapper extends RowMapper<Courier> {
+    private static final int ID_COURIER = 0;
+    private static final int ID_USER = 1;
+    private static final int VEHICLE_TYPE = 2;
+    private static final int VEHICLE_PLATE = 3;
+
+    public CourierRowMapper() {
+        super("idCourier", "idUser", "vehicleType", "vehiclePlate");
+    }
+
+    @Override
+    protected Courier map(ResultSet rs, int[] columns) throws SQLException {
+        return new Courier(
+                rs.getString(columns[ID_COURIER]),
+                rs.getString(columns[ID_USER]),
+                rs.getString(columns[VEHICLE_TYPE]),
+                rs.getString(columns[VEHICLE_PLATE])
+        );
+    }
+}
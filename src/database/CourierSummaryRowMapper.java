@@ -0,0 +1,42 @@
+package database;
+
+import model.Courier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * CourierSummaryRowMapper
+ *
+ * Mengubah baris hasil join Courier, User, dan jumlah Delivery aktif
+ * menjadi object Courier yang sudah berisi data user (nama, email, telepon).
+ */
+public class CourierSummaryRowMapper extends RowMapper<Courier> {
+    private static final int ID_COURIER = 0;
+    private static final int ID_USER = 1;
+    private static final int VEHICLE_TYPE = 2;
+    private static final int VEHICLE_PLATE = 3;
+    private static final int FULL_NAME = 4;
+    private static final int EMAIL = 5;
+    private static final int PHONE = 6;
+    private static final int ACTIVE_DELIVERY_COUNT = 7;
+
+    public CourierSummaryRowMapper() {
+        super("idCourier", "idUser", "vehicleType", "vehiclePlate",
+                "fullName", "email", "phone", "activeDeliveryCount");
+    }
+
+    @Override
+    protected Courier map(ResultSet rs, int[] columns) throws SQLException {
+        Courier courier = new Courier(
+                rs.getString(columns[ID_COURIER]),
+                rs.getString(columns[ID_USER]),
+                rs.getString(columns[VEHICLE_TYPE]),
+                rs.getString(columns[VEHICLE_PLATE])
+        );
+        courier.setFullName(rs.getString(columns[FULL_NAME]));
+        courier.setEmail(rs.getString(columns[EMAIL]));
+        courier.setPhone(rs.getString(columns[PHONE]));
+        courier.setActiveDeliveryCount(rs.getInt(columns[ACTIVE_DELIVERY_COUNT]));
+        return courier;
+    }
+}
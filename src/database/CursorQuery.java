@@ -0,0 +1,49 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * CursorQuery
+ *
+ * Menjalankan query besar secara streaming untuk method forEach... di DAO.
+ * ResultSet forward-only dibaca per fetchSize baris lewat cursor fetch MySQL
+ * (useCursorFetch di URL koneksi), sehingga memori tetap berapa pun jumlah barisnya.
+ * Karena baris diambil lewat cursor server, koneksi yang sama tetap bisa menjalankan
+ * statement lain di dalam callback (misalnya di dalam transaksi).
+ *
+ * Statement dibuat di luar StatementCache agar pengaturan fetch size tidak terbawa
+ * ke pemakai statement berikutnya.
+ */
+final class CursorQuery {
+
+    private CursorQuery() {
+    }
+
+    /**
+     * Membaca semua baris hasil query satu per satu
+     *
+     * @param db DatabaseConnection sumber koneksi
+     * @param sql Query tanpa parameter
+     * @param fetchSize Jumlah baris per pengambilan dari server
+     * @param mapper RowMapper untuk setiap baris
+     * @param callback Penerima setiap object; exception darinya menghentikan pembacaan
+     * @return boolean true jika semua baris terbaca, false jika gagal atau dihentikan callback
+     */
+    static <T> boolean forEach(DatabaseConnection db, String sql, int fetchSize,
+                               RowMapper<T> mapper, RowCallback<? super T> callback) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                mapper.forEach(rs, callback);
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -15,34 +15,28 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel Customer termasuk manajemen saldo.
  */
 public class CustomerDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private CustomerRowMapper customerMapper;
 
     /**
      * Constructor untuk CustomerDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public CustomerDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.customerMapper = new CustomerRowMapper();
     }
 
     /**
      * Generate unique ID untuk Customer
      * Format: CUST_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idCustomer, 6) AS UNSIGNED)) as maxId FROM Customer";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("CUST_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("CUST", "Customer", "idCustomer");
         } catch (SQLException e) {
             e.printStackTrace();
             return "CUST_00001";
@@ -57,7 +51,8 @@ public class CustomerDAO {
      */
     public boolean insertCustomer(Customer customer) {
         String sql = "INSERT INTO Customer (idCustomer, idUser, balance) VALUES (?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, customer.getIdCustomer());
             ps.setString(2, customer.getIdUser());
             ps.setDouble(3, customer.getBalance());
@@ -76,16 +71,11 @@ public class CustomerDAO {
      */
     public Customer getCustomerById(String idCustomer) {
         String sql = "SELECT * FROM Customer WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Customer(
-                        rs.getString("idCustomer"),
-                        rs.getString("idUser"),
-                        rs.getDouble("balance")
-                );
-            }
+            return customerMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -100,16 +90,11 @@ public class CustomerDAO {
      */
     public Customer getCustomerByUserId(String idUser) {
         String sql = "SELECT * FROM Customer WHERE idUser = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idUser);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Customer(
-                        rs.getString("idCustomer"),
-                        rs.getString("idUser"),
-                        rs.getDouble("balance")
-                );
-            }
+            return customerMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -124,21 +109,29 @@ public class CustomerDAO {
     public List<Customer> getAllCustomers() {
         List<Customer> customers = new ArrayList<>();
         String sql = "SELECT * FROM Customer";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                customers.add(new Customer(
-                        rs.getString("idCustomer"),
-                        rs.getString("idUser"),
-                        rs.getDouble("balance")
-                ));
-            }
+            customerMapper.mapAll(rs, customers);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return customers;
     }
 
+    /**
+     * Membaca seluruh Customer secara streaming, urut berdasarkan ID
+     * Versi streaming dari getAllCustomers untuk job yang memproses semua customer.
+     *
+     * @param fetchSize Jumlah baris per pengambilan dari server
+     * @param callback Penerima setiap Customer
+     * @return boolean true jika semua baris terbaca, false jika gagal
+     */
+    public boolean forEachCustomer(int fetchSize, RowCallback<Customer> callback) {
+        return CursorQuery.forEach(db, "SELECT * FROM Customer ORDER BY idCustomer", fetchSize,
+                customerMapper, callback);
+    }
+
     /**
      * Update data Customer di database
      *
@@ -147,7 +140,8 @@ public class CustomerDAO {
      */
     public boolean updateCustomer(Customer customer) {
         String sql = "UPDATE Customer SET idUser = ?, balance = ? WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, customer.getIdUser());
             ps.setDouble(2, customer.getBalance());
             ps.setString(3, customer.getIdCustomer());
@@ -166,7 +160,8 @@ public class CustomerDAO {
      */
     public boolean deleteCustomer(String idCustomer) {
         String sql = "DELETE FROM Customer WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -180,36 +175,36 @@ public class CustomerDAO {
      *
      * @param idCustomer ID Customer yang akan ditambahkan saldo
      * @param amount Jumlah saldo yang akan ditambahkan
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika customer tidak ditemukan
+     * @throws SQLException jika query gagal
      */
-    public boolean topUpBalance(String idCustomer, double amount) {
+    public boolean topUpBalance(String idCustomer, double amount) throws SQLException {
         String sql = "UPDATE Customer SET balance = balance + ? WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setDouble(1, amount);
             ps.setString(2, idCustomer);
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
     /**
-     * Mengurangi saldo dari Customer
+     * Mengurangi saldo Customer hanya jika saldo mencukupi
+     * Pengecekan dan pengurangan dilakukan dalam satu UPDATE sehingga aman dari race condition.
      *
      * @param idCustomer ID Customer yang akan dikurangi saldonya
      * @param amount Jumlah saldo yang akan dikurangi
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika saldo tidak cukup
+     * @throws SQLException jika query gagal
      */
-    public boolean deductBalance(String idCustomer, double amount) {
-        String sql = "UPDATE Customer SET balance = balance - ? WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+    public boolean deductBalanceIfSufficient(String idCustomer, double amount) throws SQLException {
+        String sql = "UPDATE Customer SET balance = balance - ? WHERE idCustomer = ? AND balance >= ?";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setDouble(1, amount);
             ps.setString(2, idCustomer);
+            ps.setDouble(3, amount);
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
@@ -218,17 +213,17 @@ public class CustomerDAO {
      *
      * @param idCustomer ID Customer yang dicari saldonya
      * @return double saldo Customer, atau 0 jika tidak ditemukan
+     * @throws SQLException jika query gagal
      */
-    public double getBalance(String idCustomer) {
+    public double getBalance(String idCustomer) throws SQLException {
         String sql = "SELECT balance FROM Customer WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return rs.getDouble("balance");
+                return rs.getDouble(1);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return 0;
     }
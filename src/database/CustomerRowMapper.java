@@ -0,0 +1,29 @@
+package database;
+
+import model.Customer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * CustomerRowMapper
+ *
+ * Mengubah baris tabel Customer menjadi object Customer.
+ */
+public class CustomerRowMapper extends RowMapper<Customer> {
+    private static final int ID_CUSTOMER = 0;
+    private static final int ID_USER = 1;
+    private static final int BALANCE = 2;
+
+    public CustomerRowMapper() {
+        super("idCustomer", "idUser", "balance");
+    }
+
+    @Override
+    protected Customer map(ResultSet rs, int[] columns) throws SQLException {
+        return new Customer(
+                rs.getString(columns[ID_CUSTOMER]),
+                rs.getString(columns[ID_USER]),
+                rs.getDouble(columns[BALANCE])
+        );
+    }
+}
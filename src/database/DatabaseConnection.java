@@ -1,118 +1,276 @@
 package database;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * DatabaseConnection
- * 
- * Singleton class untuk mengelola koneksi ke database MySQL.
- * Menyediakan single instance koneksi yang digunakan oleh semua DAO classes.
- * Menggunakan Singleton pattern untuk memastikan hanya satu koneksi yang aktif.
+ *
+ * Singleton class untuk mengelola akses ke database MySQL.
+ * Menyimpan satu ConnectionPool yang dipakai bersama oleh semua DAO classes.
+ * Setiap operasi DAO meminjam koneksi dari pool dan mengembalikannya setelah selesai,
+ * sehingga beberapa handler dapat menjalankan query secara paralel.
+ *
+ * Selama inTransaction berjalan, getConnection() pada thread yang sama
+ * mengembalikan koneksi transaksi tersebut, sehingga method DAO yang sudah ada
+ * otomatis ikut dalam transaksi tanpa perlu diubah.
+ *
+ * Membuat instance (dan DAO yang memakainya) tidak menyentuh database: driver, pool,
+ * dan migration baru disiapkan saat koneksi pertama diminta atau saat warmUp()
+ * dipanggil dari background thread ketika aplikasi start.
  */
 public class DatabaseConnection {
-	 private final String USERNAME = "root";              // Username MySQL
-	    private final String PASSWORD = "";                  // Password MySQL
-	    private final String DATABASE = "joymarket";         // Nama database
-	    private final String HOST = "localhost:3306";        // Host dan port MySQL
-	    private final String CONNECTION = "jdbc:mysql://" + HOST + "/" + DATABASE;
-
-	    private Connection con;      // Koneksi ke database
-	    private Statement st;        // Statement untuk query
-
-	    private static DatabaseConnection instance;  // Singleton instance
-
-	    /**
-	     * Constructor private untuk Singleton pattern
-	     * Menginisialisasi koneksi ke MySQL
-	     */
-	    private DatabaseConnection() {
-	        try {
-	            Class.forName("com.mysql.cj.jdbc.Driver");
-	            con = DriverManager.getConnection(CONNECTION, USERNAME, PASSWORD);
-	            st = con.createStatement();
-	            System.out.println("Connected!");
-	        } catch (Exception e) {
-	            e.printStackTrace();
-	            System.out.println("Connection Failed!");
-	        }
-	    }
-
-	    /**
-	     * Mendapatkan singleton instance dari DatabaseConnection
-	     * Menginisialisasi koneksi jika belum ada
-	     * 
-	     * @return DatabaseConnection instance
-	     */
-	    public static DatabaseConnection getInstance() {
-	        if (instance == null) {
-	            instance = new DatabaseConnection();
-	        }
-	        return instance;
-	    }
-	    
-	    /**
-	     * Mendapatkan Connection object yang terhubung ke database
-	     * 
-	     * @return Connection object
-	     */
-	    public Connection getConnection() {
-	        return con;
-	    }
-
-	    /**
-	     * Menjalankan SELECT query
-	     * 
-	     * @param query SQL query string
-	     * @return ResultSet hasil query
-	     */
-	    public ResultSet executeQuery(String query) {
-	        try {
-	            return st.executeQuery(query);
-	        } catch (SQLException e) {
-	            e.printStackTrace();
-	            return null;
-	        }
-	    }
-
-	    /**
-	     * Menjalankan INSERT/UPDATE/DELETE query
-	     * 
-	     * @param query SQL query string\n	     */
-	    public void executeUpdate(String query) {
-	        try {
-	            st.executeUpdate(query);
-	        } catch (SQLException e) {
-	            e.printStackTrace();
-	        }
-	    }
-
-	    /**
-	     * Menyiapkan PreparedStatement untuk menghindari SQL injection
-	     * 
-	     * @param query SQL query template dengan parameter placeholder\n	     * @return PreparedStatement object
-	     */
-	    public PreparedStatement prepareStatement(String query) {
-	        try {
-	            return con.prepareStatement(query);
-	        } catch (SQLException e) {
-	            e.printStackTrace();
-	            return null;
-	        }
-	    }
-	    
-	    /**
-	     * Membuat Statement baru untuk query
-	     * 
-	     * @return Statement object
-	     * @throws SQLException jika ada error\n	     */
-	    public Statement getStatement() throws SQLException {
-			
-			return con.createStatement();
-		}
-    
-}
\ No newline at end of file
+    private static final String USERNAME = "root";              // Username MySQL
+    private static final String PASSWORD = "";                  // Password MySQL
+    private static final String DATABASE = "joymarket";         // Nama database
+    private static final String HOST = "localhost:3306";        // Host dan port MySQL
+    private static final String CONNECTION = "jdbc:mysql://" + HOST + "/" + DATABASE
+            + "?useServerPrepStmts=true"        // Statement disiapkan di server agar cache bermanfaat
+            + "&rewriteBatchedStatements=true"  // executeBatch dikirim sebagai satu statement multi-row
+            + "&useCursorFetch=true";           // setFetchSize > 0 membaca ResultSet per blok dari server
+
+    private static final int POOL_MIN_SIZE = 2;                  // Koneksi minimum yang selalu terbuka
+    private static final int POOL_MAX_SIZE = 10;                 // Koneksi maksimum
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;    // Lama menunggu koneksi dari pool
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;  // Koneksi idle > 5 menit ditutup
+    private static final long LEAK_THRESHOLD_MILLIS = 60_000;    // Koneksi dipinjam > 1 menit dilaporkan
+    private static final int STATEMENT_CACHE_SIZE = 64;          // PreparedStatement yang di-cache per koneksi
+    private static final int TRANSACTION_ATTEMPTS = 3;           // Percobaan transaksi yang kena deadlock/lock wait
+    private static final long RETRY_BACKOFF_MILLIS = 20;         // Jeda dasar sebelum transaksi diulang
+
+    private static volatile DatabaseConnection instance;  // Singleton instance
+
+    private volatile ConnectionPool pool;   // Pool koneksi ke database (dibuat saat pertama dipakai)
+    private final ThreadLocal<Connection> transaction = new ThreadLocal<>();   // Koneksi transaksi aktif per thread
+
+    /**
+     * Constructor private untuk Singleton pattern
+     * Tidak membuka koneksi; lihat pool()
+     */
+    private DatabaseConnection() {
+    }
+
+    /**
+     * Mendapatkan pool, dan saat pertama kali dipanggil: memuat driver MySQL,
+     * menginisialisasi connection pool, dan menerapkan migration skema.
+     * Thread lain yang meminta koneksi selama inisialisasi menunggu sampai selesai.
+     * Jika skema gagal dimigrasi, pool ditutup dan tidak ada koneksi yang diberikan:
+     * aplikasi tidak boleh berjalan dengan skema lama. Permintaan berikutnya mencoba lagi.
+     *
+     * @throws SQLException jika skema database belum versi terbaru
+     */
+    private ConnectionPool pool() throws SQLException {
+        ConnectionPool result = pool;
+        if (result == null) {
+            synchronized (this) {
+                result = pool;
+                if (result == null) {
+                    try {
+                        Class.forName("com.mysql.cj.jdbc.Driver");
+                    } catch (ClassNotFoundException e) {
+                        e.printStackTrace();
+                        System.out.println("Connection Failed!");
+                    }
+                    result = new ConnectionPool(CONNECTION, USERNAME, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                            BORROW_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS, STATEMENT_CACHE_SIZE);
+                    if (!new MigrationRunner(result).migrate()) {
+                        result.shutdown();
+                        throw new SQLException("Skema database belum versi terbaru; migration gagal atau "
+                                + "masih dijalankan instance lain");
+                    }
+                    pool = result;
+                    System.out.println("Connected!");
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Menyiapkan pool lebih awal dan memvalidasi koneksi minimum
+     * Dipanggil dari background thread saat aplikasi start, agar query pertama
+     * (misalnya login) tidak menunggu koneksi dan migration dibuat.
+     *
+     * @return boolean true jika semua koneksi minimum berhasil dipinjam dan valid
+     */
+    public boolean warmUp() {
+        List<Connection> connections = new ArrayList<>(POOL_MIN_SIZE);
+        try {
+            ConnectionPool current = pool();
+            // Dipinjam bersamaan agar setiap koneksi fisik ikut divalidasi, bukan koneksi yang sama berulang
+            for (int i = 0; i < POOL_MIN_SIZE; i++) {
+                connections.add(current.borrow());
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Mendapatkan singleton instance dari DatabaseConnection
+     * Aman dipanggil dari beberapa thread sekaligus (double-checked locking)
+     *
+     * @return DatabaseConnection instance
+     */
+    public static DatabaseConnection getInstance() {
+        DatabaseConnection result = instance;
+        if (result == null) {
+            synchronized (DatabaseConnection.class) {
+                result = instance;
+                if (result == null) {
+                    result = new DatabaseConnection();
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Meminjam Connection dari pool
+     * Pemanggil wajib menutup Connection (try-with-resources) agar kembali ke pool.
+     * Jika thread ini sedang berada di dalam inTransaction, koneksi transaksi yang
+     * dikembalikan; close() pada koneksi tersebut tidak berpengaruh.
+     *
+     * @return Connection object yang terhubung ke database
+     * @throws SQLException jika tidak ada koneksi yang tersedia
+     */
+    public Connection getConnection() throws SQLException {
+        Connection current = transaction.get();
+        if (current != null) {
+            return nonClosing(current);
+        }
+        return pool().borrow();
+    }
+
+    /**
+     * Menjalankan unit kerja di dalam satu transaksi
+     * Commit dilakukan sekali di akhir; exception apa pun akan me-rollback seluruh perubahan.
+     * Pemanggilan bersarang ikut dalam transaksi terluar memakai savepoint, sehingga
+     * kegagalan di dalamnya hanya membatalkan perubahan miliknya sendiri.
+     *
+     * Jika transaksi terluar dibatalkan server (deadlock atau lock wait timeout), unit kerja
+     * diulang dari awal hingga TRANSACTION_ATTEMPTS kali. Karena itu unit kerja tidak boleh
+     * mengubah state di luar database kecuali menyetelnya ulang di awal setiap percobaan.
+     *
+     * @param work Unit kerja yang dijalankan
+     * @return hasil dari unit kerja
+     * @throws SQLException jika unit kerja gagal atau commit gagal
+     */
+    public <T> T inTransaction(TransactionCallback<T> work) throws SQLException {
+        Connection current = transaction.get();
+        if (current != null) {
+            Savepoint savepoint = current.setSavepoint();
+            try {
+                T result = work.execute();
+                current.releaseSavepoint(savepoint);
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    current.rollback(savepoint);
+                } catch (SQLException rollbackError) {
+                    // Deadlock me-rollback seluruh transaksi sehingga savepoint sudah tidak ada;
+                    // exception asli diteruskan agar transaksi terluar yang mengulang
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            }
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return runTransaction(work);
+            } catch (SQLException e) {
+                if (attempt >= TRANSACTION_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+                System.out.println("[tx] transaksi dibatalkan server (" + e.getMessage() + "), percobaan ke-"
+                        + (attempt + 1));
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private <T> T runTransaction(TransactionCallback<T> work) throws SQLException {
+        try (Connection connection = pool().borrow()) {
+            connection.setAutoCommit(false);
+            transaction.set(connection);
+            try {
+                T result = work.execute();
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                transaction.remove();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * @return true jika exception berasal dari server yang membatalkan transaksi
+     *         (deadlock 1213 atau lock wait timeout 1205) sehingga aman diulang
+     */
+    private static boolean isTransient(SQLException e) {
+        return e instanceof SQLTransactionRollbackException
+                || "40001".equals(e.getSQLState())
+                || e.getErrorCode() == 1205
+                || e.getErrorCode() == 1213;
+    }
+
+    /**
+     * Membungkus koneksi transaksi agar close() dari DAO tidak mengembalikannya ke pool
+     */
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    /**
+     * Mendapatkan ConnectionPool untuk keperluan monitoring
+     *
+     * @return ConnectionPool yang digunakan
+     * @throws SQLException jika skema database belum versi terbaru
+     */
+    public ConnectionPool getPool() throws SQLException {
+        return pool();
+    }
+}
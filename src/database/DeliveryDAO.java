@@ -1,10 +1,16 @@
 package database;
 
+import model.ChangeCursor;
+import model.ChangeSet;
 import model.Delivery;
+import model.Page;
+import model.PageCursor;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,34 +21,35 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel Delivery.
  */
 public class DeliveryDAO {
-    private Connection connection;
+    // SELECT untuk query halaman: kolom Delivery + orderedAt sebagai key pengurutan
+    private static final String PAGE_SELECT = "SELECT d.idDelivery, d.idOrder, d.idCourier, d.status, o.orderedAt "
+            + "FROM Delivery d JOIN OrderHeader o ON o.idOrder = d.idOrder";
+    // SELECT untuk query perubahan: kolom Delivery + updatedAt sebagai cursor, orderedAt untuk posisi di halaman
+    private static final String CHANGE_SELECT = "SELECT d.idDelivery, d.idOrder, d.idCourier, d.status, d.updatedAt, o.orderedAt "
+            + "FROM Delivery d JOIN OrderHeader o ON o.idOrder = d.idOrder";
+
+    private DatabaseConnection db;
+    private DeliveryRowMapper deliveryMapper;
 
     /**
      * Constructor untuk DeliveryDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public DeliveryDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.deliveryMapper = new DeliveryRowMapper();
     }
 
     /**
      * Generate unique ID untuk Delivery
      * Format: DELIV_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idDelivery, 7) AS UNSIGNED)) as maxId FROM Delivery";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("DELIV_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("DELIV", "Delivery", "idDelivery");
         } catch (SQLException e) {
             e.printStackTrace();
             return "DELIV_00001";
@@ -55,21 +62,18 @@ public class DeliveryDAO {
      *
      * @param orderId ID order yang ingin dicek
      * @return true jika order sudah memiliki delivery, false jika belum
+     * @throws SQLException jika query gagal
      */
-    public boolean isOrderAlreadyAssigned(String orderId) {
+    public boolean isOrderAlreadyAssigned(String orderId) throws SQLException {
         String sql = "SELECT 1 FROM Delivery WHERE idOrder = ? LIMIT 1";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, orderId);
             // Eksekusi query
             ResultSet rs = ps.executeQuery();
          // Jika ada hasil (rs.next() == true), berarti order sudah pernah di-assign
             return rs.next();
-        } catch (SQLException e) {
-        	// Menangani error database (misalnya query gagal atau koneksi bermasalah)
-            e.printStackTrace();
         }
-     // Default: order belum pernah di-assign
-        return false;
     }
 
 
@@ -77,19 +81,45 @@ public class DeliveryDAO {
      * Insert Delivery baru ke database
      *
      * @param delivery Delivery object yang akan disimpan
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika tidak ada baris yang tersimpan
+     * @throws SQLException jika query gagal
      */
-    public boolean insertDelivery(Delivery delivery) {
+    public boolean insertDelivery(Delivery delivery) throws SQLException {
         String sql = "INSERT INTO Delivery (idDelivery, idOrder, idCourier, status) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, delivery.getIdDelivery());
             ps.setString(2, delivery.getIdOrder());
             ps.setString(3, delivery.getIdCourier());
             ps.setString(4, delivery.getStatus());
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        }
+    }
+
+    /**
+     * Insert beberapa Delivery sekaligus dengan satu batch
+     *
+     * @param deliveries List Delivery yang akan disimpan
+     * @return boolean true jika semua berhasil, false jika ada baris yang gagal
+     * @throws SQLException jika query gagal
+     */
+    public boolean insertDeliveries(List<Delivery> deliveries) throws SQLException {
+        String sql = "INSERT INTO Delivery (idDelivery, idOrder, idCourier, status) VALUES (?, ?, ?, ?)";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (Delivery delivery : deliveries) {
+                ps.setString(1, delivery.getIdDelivery());
+                ps.setString(2, delivery.getIdOrder());
+                ps.setString(3, delivery.getIdCourier());
+                ps.setString(4, delivery.getStatus());
+                ps.addBatch();
+            }
+            for (int count : ps.executeBatch()) {
+                if (count == Statement.EXECUTE_FAILED) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
@@ -101,17 +131,11 @@ public class DeliveryDAO {
      */
     public Delivery getDeliveryById(String idDelivery) {
         String sql = "SELECT * FROM Delivery WHERE idDelivery = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idDelivery);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Delivery(
-                        rs.getString("idDelivery"),
-                        rs.getString("idOrder"),
-                        rs.getString("idCourier"),
-                        rs.getString("status")
-                );
-            }
+            return deliveryMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -126,17 +150,11 @@ public class DeliveryDAO {
      */
     public Delivery getDeliveryByOrderId(String idOrder) {
         String sql = "SELECT * FROM Delivery WHERE idOrder = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrder);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Delivery(
-                        rs.getString("idDelivery"),
-                        rs.getString("idOrder"),
-                        rs.getString("idCourier"),
-                        rs.getString("status")
-                );
-            }
+            return deliveryMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -152,17 +170,11 @@ public class DeliveryDAO {
     public List<Delivery> getDeliveriesByCourierId(String idCourier) {
         List<Delivery> deliveries = new ArrayList<>();
         String sql = "SELECT * FROM Delivery WHERE idCourier = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCourier);
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                deliveries.add(new Delivery(
-                        rs.getString("idDelivery"),
-                        rs.getString("idOrder"),
-                        rs.getString("idCourier"),
-                        rs.getString("status")
-                ));
-            }
+            deliveryMapper.mapAll(rs, deliveries);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -177,16 +189,10 @@ public class DeliveryDAO {
     public List<Delivery> getAllDeliveries() {
         List<Delivery> deliveries = new ArrayList<>();
         String sql = "SELECT * FROM Delivery";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                deliveries.add(new Delivery(
-                        rs.getString("idDelivery"),
-                        rs.getString("idOrder"),
-                        rs.getString("idCourier"),
-                        rs.getString("status")
-                ));
-            }
+            deliveryMapper.mapAll(rs, deliveries);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -201,7 +207,8 @@ public class DeliveryDAO {
      */
     public boolean updateDelivery(Delivery delivery) {
         String sql = "UPDATE Delivery SET idOrder = ?, idCourier = ?, status = ? WHERE idDelivery = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, delivery.getIdOrder());
             ps.setString(2, delivery.getIdCourier());
             ps.setString(3, delivery.getStatus());
@@ -215,7 +222,8 @@ public class DeliveryDAO {
 
     public boolean updateDeliveryStatus(String idDelivery, String status) {
         String sql = "UPDATE Delivery SET status = ? WHERE idDelivery = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, status);
             ps.setString(2, idDelivery);
             return ps.executeUpdate() > 0;
@@ -225,9 +233,54 @@ public class DeliveryDAO {
         }
     }
 
+    /**
+     * Memindahkan status beberapa Delivery beserta OrderHeader-nya dalam satu batch
+     * Setiap baris hanya di-update jika status saat ini sama dengan fromStatus
+     * (conditional UPDATE), sehingga transisi yang tidak valid atau sudah diubah
+     * pengguna lain tidak ikut tertimpa. Delivery dan OrderHeader diubah oleh
+     * statement yang sama.
+     *
+     * @param idDeliveries ID Delivery yang akan diubah
+     * @param fromStatus Status yang harus dimiliki Delivery saat ini
+     * @param toStatus Status baru untuk Delivery dan OrderHeader
+     * @param idCourier Hanya ubah delivery milik kurir ini, null untuk semua kurir
+     * @return List idDelivery yang tidak bisa diubah (kosong jika semua berhasil)
+     * @throws SQLException jika query gagal
+     */
+    public List<String> transitionStatuses(List<String> idDeliveries, String fromStatus, String toStatus,
+                                           String idCourier) throws SQLException {
+        String sql = "UPDATE Delivery d JOIN OrderHeader o ON o.idOrder = d.idOrder "
+                + "SET d.status = ?, o.status = ? "
+                + "WHERE d.idDelivery = ? AND d.status = ?"
+                + (idCourier != null ? " AND d.idCourier = ?" : "");
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (String idDelivery : idDeliveries) {
+                ps.setString(1, toStatus);
+                ps.setString(2, toStatus);
+                ps.setString(3, idDelivery);
+                ps.setString(4, fromStatus);
+                if (idCourier != null) {
+                    ps.setString(5, idCourier);
+                }
+                ps.addBatch();
+            }
+
+            List<String> rejected = new ArrayList<>();
+            int[] counts = ps.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0 || counts[i] == Statement.EXECUTE_FAILED) {
+                    rejected.add(idDeliveries.get(i));
+                }
+            }
+            return rejected;
+        }
+    }
+
     public boolean deleteDelivery(String idDelivery) {
         String sql = "DELETE FROM Delivery WHERE idDelivery = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idDelivery);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -239,20 +292,119 @@ public class DeliveryDAO {
     public List<Delivery> getDeliveriesByStatus(String status) {
         List<Delivery> deliveries = new ArrayList<>();
         String sql = "SELECT * FROM Delivery WHERE status = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, status);
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                deliveries.add(new Delivery(
-                        rs.getString("idDelivery"),
-                        rs.getString("idOrder"),
-                        rs.getString("idCourier"),
-                        rs.getString("status")
-                ));
-            }
+            deliveryMapper.mapAll(rs, deliveries);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return deliveries;
     }
+
+    /**
+     * Mendapatkan satu halaman Delivery, diurutkan dari order terbaru
+     * Delivery di-join dengan OrderHeader untuk keyset pagination pada
+     * (orderedAt, idOrder); unique index uq_delivery_order menjamin satu order hanya punya
+     * satu delivery sehingga key tetap unik.
+     *
+     * @param after Cursor dari halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah delivery per halaman
+     * @return Page<Delivery>, kosong jika gagal
+     */
+    public Page<Delivery> getDeliveryPage(PageCursor after, int pageSize) {
+        String sql = OrderKeyset.pageSql(PAGE_SELECT, null, "o", after);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            OrderKeyset.bind(ps, 1, after, pageSize);
+            ResultSet rs = ps.executeQuery();
+            return OrderKeyset.read(deliveryMapper, rs, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty();
+    }
+
+    /**
+     * Mendapatkan satu halaman Delivery milik courier, diurutkan dari order terbaru
+     *
+     * @param idCourier ID dari Courier yang dicari
+     * @param after Cursor dari halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah delivery per halaman
+     * @return Page<Delivery>, kosong jika gagal
+     */
+    public Page<Delivery> getDeliveryPageByCourierId(String idCourier, PageCursor after, int pageSize) {
+        String sql = OrderKeyset.pageSql(PAGE_SELECT, "d.idCourier = ?", "o", after);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, idCourier);
+            OrderKeyset.bind(ps, 2, after, pageSize);
+            ResultSet rs = ps.executeQuery();
+            return OrderKeyset.read(deliveryMapper, rs, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty();
+    }
+
+    /**
+     * Mendapatkan cursor awal change feed Delivery
+     * Diambil sebelum memuat daftar delivery, lalu dipakai sebagai titik awal polling perubahan.
+     *
+     * @return cursor awal, null jika gagal
+     */
+    public ChangeCursor getChangeVersion() {
+        try (Connection connection = db.getConnection()) {
+            return ChangeFeed.version(connection, "Delivery", "idDelivery");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Mendapatkan delivery yang dibuat atau diubah setelah cursor tertentu
+     *
+     * @param since Cursor terakhir yang sudah diterapkan di view
+     * @return ChangeSet<Delivery>, kosong jika gagal
+     */
+    public ChangeSet<Delivery> getDeliveriesChangedSince(ChangeCursor since) {
+        String sql = ChangeFeed.changesSql(CHANGE_SELECT, null, "d", "idDelivery");
+        try (Connection connection = db.getConnection()) {
+            LocalDateTime horizon = ChangeFeed.horizon(connection);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ChangeFeed.bind(ps, 1, since);
+                ResultSet rs = ps.executeQuery();
+                return ChangeFeed.read(deliveryMapper, rs, "idDelivery", since, horizon);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return ChangeSet.empty(since);
+    }
+
+    /**
+     * Mendapatkan delivery milik kurir yang dibuat atau diubah setelah cursor tertentu
+     * Memakai index (idCourier, updatedAt).
+     *
+     * @param idCourier ID kurir
+     * @param since Cursor terakhir yang sudah diterapkan di view
+     * @return ChangeSet<Delivery>, kosong jika gagal
+     */
+    public ChangeSet<Delivery> getDeliveriesChangedSinceByCourierId(String idCourier, ChangeCursor since) {
+        String sql = ChangeFeed.changesSql(CHANGE_SELECT, "d.idCourier = ?", "d", "idDelivery");
+        try (Connection connection = db.getConnection()) {
+            LocalDateTime horizon = ChangeFeed.horizon(connection);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, idCourier);
+                ChangeFeed.bind(ps, 2, since);
+                ResultSet rs = ps.executeQuery();
+                return ChangeFeed.read(deliveryMapper, rs, "idDelivery", since, horizon);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return ChangeSet.empty(since);
+    }
 }
@@ -0,0 +1,31 @@
+package database;
+
+import model.Delivery;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * DeliveryRowMapper
+ *
+ * Mengubah baris tabel Delivery menjadi object Delivery.
+ */
+public class DeliveryRowMapper extends RowMapper<Delivery> {
+    private static final int ID_DELIVERY = 0;
+    private static final int ID_ORDER = 1;
+    private static final int ID_COURIER = 2;
+    private static final int STATUS = 3;
+
+    public DeliveryRowMapper() {
+        super("idDelivery", "idOrder", "idCourier", "status");
+    }
+
+    @Override
+    protected Delivery map(ResultSet rs, int[] columns) throws SQLException {
+        return new Delivery(
+                rs.getString(columns[ID_DELIVERY]),
+                rs.getString(columns[ID_ORDER]),
+                rs.getString(columns[ID_COURIER]),
+                rs.getString(columns[STATUS])
+        );
+    }
+}
@@ -0,0 +1,151 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IdAllocator
+ *
+ * Singleton yang membagikan ID unik untuk semua entity dengan format PREFIX_00001.
+ * Setiap entity memiliki baris counter di tabel IdSequence (dibuat oleh
+ * MigrationRunner). Counter dinaikkan sekaligus satu blok (hi/lo), lalu ID
+ * di dalam blok dibagikan dari memori, sehingga sebagian besar pemanggilan
+ * tidak menyentuh database sama sekali.
+ *
+ * Kenaikan counter memakai UPDATE atomik di database, jadi dua thread (atau dua
+ * instance aplikasi) tidak pernah mendapatkan blok yang sama. ID yang belum
+ * terpakai saat aplikasi ditutup akan dilewati (gap), bukan dipakai ulang.
+ * Koneksi dipinjam langsung dari pool agar kenaikan counter tidak ikut
+ * ter-rollback bersama transaksi pemanggil.
+ */
+public class IdAllocator {
+    private static final int BLOCK_SIZE = 20;   // Jumlah ID yang dicadangkan per akses database
+    private static final int MAX_DIGITS = 9;    // ID lama dengan suffix lebih panjang (mis. timestamp) diabaikan saat seeding
+
+    private static volatile IdAllocator instance;
+
+    private final DatabaseConnection db;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    private IdAllocator() {
+        this.db = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Mendapatkan singleton instance dari IdAllocator
+     *
+     * @return IdAllocator instance
+     */
+    public static IdAllocator getInstance() {
+        IdAllocator result = instance;
+        if (result == null) {
+            synchronized (IdAllocator.class) {
+                result = instance;
+                if (result == null) {
+                    result = new IdAllocator();
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mendapatkan ID berikutnya untuk sebuah entity
+     * Saat counter belum ada, counter diinisialisasi satu kali dari ID terbesar
+     * yang sudah ada di tabel sehingga data lama tetap aman.
+     *
+     * @param prefix Prefix ID (misalnya "PROD")
+     * @param table Nama tabel entity
+     * @param idColumn Nama kolom primary key
+     * @return ID baru dengan format PREFIX_00001
+     * @throws SQLException jika counter gagal dinaikkan
+     */
+    public String nextId(String prefix, String table, String idColumn) throws SQLException {
+        Block block = blocks.computeIfAbsent(table + "." + prefix,
+                name -> new Block(name, prefix, table, idColumn));
+        return String.format("%s_%05d", prefix, block.next());
+    }
+
+    /**
+     * Mencadangkan satu blok ID dari tabel IdSequence
+     *
+     * @return nilai pertama dari blok yang dicadangkan
+     */
+    private long reserveBlock(Block block) throws SQLException {
+        try (Connection connection = db.getPool().borrow()) {
+            if (!block.seeded) {
+                seed(connection, block);
+                block.seeded = true;
+            }
+
+            String sql = "UPDATE IdSequence SET nextValue = LAST_INSERT_ID(nextValue + ?) WHERE name = ?";
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setInt(1, BLOCK_SIZE);
+                ps.setString(2, block.name);
+                if (ps.executeUpdate() == 0) {
+                    throw new SQLException("Counter ID tidak ditemukan: " + block.name);
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement("SELECT LAST_INSERT_ID()")) {
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) {
+                    throw new SQLException("Gagal membaca counter ID: " + block.name);
+                }
+                return rs.getLong(1) - BLOCK_SIZE;
+            }
+        }
+    }
+
+    /**
+     * Membuat baris counter jika belum ada, dimulai dari ID terbesar yang sudah ada
+     * INSERT IGNORE memastikan hanya seeding pertama yang berlaku.
+     */
+    private void seed(Connection connection, Block block) throws SQLException {
+        int suffixStart = block.prefix.length() + 2;
+        String sql = "INSERT IGNORE INTO IdSequence (name, nextValue) "
+                + "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(" + block.idColumn + ", " + suffixStart + ") AS UNSIGNED)), 0) + 1 "
+                + "FROM " + block.table + " WHERE " + block.idColumn + " LIKE ? "
+                + "AND CHAR_LENGTH(" + block.idColumn + ") <= ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, block.name);
+            ps.setString(2, block.prefix + "\\_%");
+            ps.setInt(3, suffixStart - 1 + MAX_DIGITS);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Block
+     *
+     * Rentang ID [next, end) yang sudah dicadangkan untuk satu entity.
+     */
+    private final class Block {
+        private final String name;
+        private final String prefix;
+        private final String table;
+        private final String idColumn;
+        private long next;
+        private long end;
+        private volatile boolean seeded;
+
+        private Block(String name, String prefix, String table, String idColumn) {
+            this.name = name;
+            this.prefix = prefix;
+            this.table = table;
+            this.idColumn = idColumn;
+        }
+
+        private synchronized long next() throws SQLException {
+            if (next >= end) {
+                next = reserveBlock(this);
+                end = next + BLOCK_SIZE;
+            }
+            return next++;
+        }
+    }
+}
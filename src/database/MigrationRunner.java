@@ -0,0 +1,309 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MigrationRunner
+ *
+ * Menerapkan perubahan skema database secara berurutan saat aplikasi start.
+ * Setiap migration memiliki nomor versi; versi yang sudah diterapkan dicatat
+ * di tabel SchemaVersion sehingga tidak dijalankan dua kali.
+ *
+ * Aman dijalankan terhadap database joymarket yang sudah ada: error MySQL
+ * "sudah ada" (index, tabel, atau kolom) dianggap sebagai sudah diterapkan.
+ * Migration baru cukup ditambahkan di akhir daftar MIGRATIONS.
+ */
+public class MigrationRunner {
+    private static final String LOCK_NAME = "joymarket_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+    private static final int LOCK_ATTEMPTS = 4;   // Total menunggu lock maksimal 2 menit
+
+    // Kode error MySQL yang berarti perubahan sudah ada di skema
+    private static final Set<Integer> ALREADY_APPLIED_ERRORS = new HashSet<>(Arrays.asList(
+            1050,   // ER_TABLE_EXISTS_ERROR
+            1060,   // ER_DUP_FIELDNAME
+            1061,   // ER_DUP_KEYNAME
+            1091    // ER_CANT_DROP_FIELD_OR_KEY
+    ));
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        MIGRATIONS.add(new Migration(1, "Tabel counter untuk IdAllocator",
+                "CREATE TABLE IF NOT EXISTS IdSequence ("
+                        + "name VARCHAR(100) PRIMARY KEY, "
+                        + "nextValue BIGINT NOT NULL)"));
+
+        // Total per pasangan disimpan dulu di tabel sementara agar migration aman diulang jika
+        // terputus: UPDATE menyetel total dari snapshot (bukan menjumlahkan ulang) dan hanya untuk
+        // pasangan yang masih punya duplikat. CREATE TABLE yang sudah ada (error 1050) dilewati.
+        MIGRATIONS.add(new Migration(2, "Gabungkan CartItem duplikat lalu tambah unique (idCustomer, idProduct)",
+                "CREATE TABLE CartItemMerge AS "
+                        + "SELECT idCustomer, idProduct, MIN(idCartItem) AS keepId, SUM(count) AS total "
+                        + "FROM CartItem GROUP BY idCustomer, idProduct HAVING COUNT(*) > 1",
+                "UPDATE CartItem c JOIN CartItemMerge d ON c.idCartItem = d.keepId "
+                        + "JOIN CartItem k ON k.idCustomer = c.idCustomer AND k.idProduct = c.idProduct "
+                        + "AND k.idCartItem > c.idCartItem "
+                        + "SET c.count = d.total",
+                "DELETE c FROM CartItem c JOIN CartItem k "
+                        + "ON c.idCustomer = k.idCustomer AND c.idProduct = k.idProduct "
+                        + "AND c.idCartItem > k.idCartItem",
+                "ALTER TABLE CartItem ADD UNIQUE INDEX uq_cartitem_customer_product (idCustomer, idProduct)",
+                "DROP TABLE IF EXISTS CartItemMerge"));
+
+        MIGRATIONS.add(new Migration(3, "Index untuk kolom filter OrderHeader, OrderDetail, Delivery, dan Product",
+                "CREATE INDEX idx_orderdetail_order ON OrderDetail (idOrder)",
+                "CREATE INDEX idx_delivery_courier ON Delivery (idCourier)",
+                "CREATE INDEX idx_delivery_order ON Delivery (idOrder)",
+                "CREATE INDEX idx_delivery_status ON Delivery (status)",
+                "CREATE INDEX idx_product_category ON Product (category)"));
+
+        MIGRATIONS.add(new Migration(4, "Index keyset (orderedAt, idOrder) untuk daftar order per halaman",
+                "UPDATE OrderHeader SET orderedAt = '1970-01-01 00:00:00' WHERE orderedAt IS NULL",
+                "ALTER TABLE OrderHeader MODIFY orderedAt DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP",
+                "CREATE INDEX idx_orderheader_ordered ON OrderHeader (orderedAt, idOrder)",
+                "CREATE INDEX idx_orderheader_customer_ordered ON OrderHeader (idCustomer, orderedAt, idOrder)",
+                "CREATE INDEX idx_orderheader_status_ordered ON OrderHeader (status, orderedAt, idOrder)",
+                // Index lama dari versi awal migration 3; pada database baru tidak ada (error 1091 dilewati)
+                "DROP INDEX idx_orderheader_customer ON OrderHeader",
+                "DROP INDEX idx_orderheader_status ON OrderHeader"));
+
+        MIGRATIONS.add(new Migration(5, "Kolom updatedAt untuk polling perubahan OrderHeader dan Delivery",
+                "ALTER TABLE OrderHeader ADD COLUMN updatedAt TIMESTAMP(3) NOT NULL "
+                        + "DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)",
+                "ALTER TABLE Delivery ADD COLUMN updatedAt TIMESTAMP(3) NOT NULL "
+                        + "DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)",
+                "CREATE INDEX idx_orderheader_updated ON OrderHeader (updatedAt)",
+                "CREATE INDEX idx_delivery_updated ON Delivery (updatedAt)",
+                "CREATE INDEX idx_delivery_courier_updated ON Delivery (idCourier, updatedAt)"));
+
+        MIGRATIONS.add(new Migration(6, "Aturan promo: kategori, minimum belanja, dan batas diskon",
+                "ALTER TABLE Promo ADD COLUMN category VARCHAR(50) NULL",
+                "ALTER TABLE Promo ADD COLUMN minSpend DOUBLE NOT NULL DEFAULT 0",
+                "ALTER TABLE Promo ADD COLUMN maxDiscount DOUBLE NOT NULL DEFAULT 0"));
+
+        // Saldo yang sudah ada dicatat sebagai entri opening; ID-nya sengaja lebih panjang
+        // dari BTX_XXXXX agar tidak ikut dihitung saat IdAllocator menentukan nomor berikutnya
+        MIGRATIONS.add(new Migration(7, "Buku besar saldo customer (BalanceTransaction) beserta saldo awal",
+                "CREATE TABLE IF NOT EXISTS BalanceTransaction ("
+                        + "idTransaction VARCHAR(50) PRIMARY KEY, "
+                        + "idCustomer VARCHAR(50) NOT NULL, "
+                        + "type VARCHAR(20) NOT NULL, "
+                        + "amount DOUBLE NOT NULL, "
+                        + "balanceAfter DOUBLE NOT NULL, "
+                        + "idOrder VARCHAR(50) NULL, "
+                        + "createdAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), "
+                        + "INDEX idx_balancetx_customer_created (idCustomer, createdAt), "
+                        + "FOREIGN KEY (idCustomer) REFERENCES Customer(idCustomer) ON DELETE CASCADE)",
+                "INSERT IGNORE INTO BalanceTransaction "
+                        + "(idTransaction, idCustomer, type, amount, balanceAfter, idOrder) "
+                        + "SELECT CONCAT('BTX_OPENING_', idCustomer), idCustomer, 'opening', balance, balance, NULL "
+                        + "FROM Customer WHERE balance <> 0"));
+
+        // Ringkasan diisi sekali dari order yang sudah ada; setelah itu diperbarui oleh checkout
+        MIGRATIONS.add(new Migration(8, "Tabel ringkasan penjualan per tanggal, produk, kategori, dan customer",
+                "CREATE TABLE IF NOT EXISTS SalesDaily ("
+                        + "salesDate DATE PRIMARY KEY, "
+                        + "orderCount INT NOT NULL DEFAULT 0, "
+                        + "itemCount INT NOT NULL DEFAULT 0, "
+                        + "revenue DOUBLE NOT NULL DEFAULT 0)",
+                "CREATE TABLE IF NOT EXISTS SalesProductDaily ("
+                        + "salesDate DATE NOT NULL, "
+                        + "idProduct VARCHAR(50) NOT NULL, "
+                        + "orderCount INT NOT NULL DEFAULT 0, "
+                        + "quantity INT NOT NULL DEFAULT 0, "
+                        + "revenue DOUBLE NOT NULL DEFAULT 0, "
+                        + "PRIMARY KEY (salesDate, idProduct))",
+                "CREATE TABLE IF NOT EXISTS SalesCategoryDaily ("
+                        + "salesDate DATE NOT NULL, "
+                        + "category VARCHAR(50) NOT NULL, "
+                        + "orderCount INT NOT NULL DEFAULT 0, "
+                        + "quantity INT NOT NULL DEFAULT 0, "
+                        + "revenue DOUBLE NOT NULL DEFAULT 0, "
+                        + "PRIMARY KEY (salesDate, category))",
+                "CREATE TABLE IF NOT EXISTS CustomerSalesTotal ("
+                        + "idCustomer VARCHAR(50) PRIMARY KEY, "
+                        + "orderCount INT NOT NULL DEFAULT 0, "
+                        + "itemCount INT NOT NULL DEFAULT 0, "
+                        + "totalSpent DOUBLE NOT NULL DEFAULT 0, "
+                        + "lastOrderAt DATETIME NULL, "
+                        + "INDEX idx_customersales_spent (totalSpent), "
+                        + "FOREIGN KEY (idCustomer) REFERENCES Customer(idCustomer) ON DELETE CASCADE)",
+                SalesSummaryDAO.BACKFILL_DAILY,
+                SalesSummaryDAO.BACKFILL_PRODUCT_DAILY,
+                SalesSummaryDAO.BACKFILL_CATEGORY_DAILY,
+                SalesSummaryDAO.BACKFILL_CUSTOMER_TOTAL));
+
+        // Satu baris counter; dinaikkan setiap promo diubah agar PromoEngine di instance lain ikut memuat ulang
+        MIGRATIONS.add(new Migration(9, "Counter versi data promo untuk sinkronisasi PromoEngine",
+                "CREATE TABLE IF NOT EXISTS PromoVersion ("
+                        + "id TINYINT PRIMARY KEY, "
+                        + "version BIGINT NOT NULL DEFAULT 0)",
+                "INSERT IGNORE INTO PromoVersion (id, version) VALUES (1, 0)"));
+
+        // Delivery ganda dari assign manual yang balapan: yang ID-nya terkecil (paling awal) dipertahankan
+        MIGRATIONS.add(new Migration(10, "Satu Delivery per order (unique idOrder)",
+                "DELETE d FROM Delivery d JOIN Delivery keep "
+                        + "ON keep.idOrder = d.idOrder AND keep.idDelivery < d.idDelivery",
+                "ALTER TABLE Delivery ADD UNIQUE INDEX uq_delivery_order (idOrder)",
+                // Digantikan uq_delivery_order
+                "DROP INDEX idx_delivery_order ON Delivery"));
+
+        // Baris harian dan kategori dibagi ke beberapa slot agar checkout bersamaan tidak antre
+        // pada satu baris; revenue produk dan kategori dihitung ulang setelah diskon
+        MIGRATIONS.add(new Migration(11, "Slot ringkasan penjualan dan revenue produk setelah diskon",
+                "ALTER TABLE SalesDaily ADD COLUMN slot TINYINT NOT NULL DEFAULT 0 AFTER salesDate, "
+                        + "DROP PRIMARY KEY, ADD PRIMARY KEY (salesDate, slot)",
+                "ALTER TABLE SalesCategoryDaily ADD COLUMN slot TINYINT NOT NULL DEFAULT 0 AFTER category, "
+                        + "DROP PRIMARY KEY, ADD PRIMARY KEY (salesDate, category, slot)",
+                SalesSummaryDAO.BACKFILL_PRODUCT_DAILY,
+                SalesSummaryDAO.BACKFILL_CATEGORY_DAILY));
+    }
+
+    private final ConnectionPool pool;
+
+    /**
+     * @param pool Pool koneksi yang dipakai untuk menjalankan migration
+     */
+    public MigrationRunner(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Menjalankan semua migration yang belum diterapkan secara berurutan
+     * Named lock MySQL mencegah dua instance aplikasi menjalankan migration bersamaan.
+     * Selama lock dipegang instance lain, method ini menunggu lalu memeriksa ulang
+     * SchemaVersion; jika instance lain sudah menyelesaikan semua migration, tidak ada
+     * yang perlu dijalankan. Jika sebuah migration gagal, migration berikutnya tidak dijalankan.
+     *
+     * @return boolean true jika skema sudah versi terbaru, false jika ada yang gagal
+     *         atau lock tidak didapat
+     */
+    public boolean migrate() {
+        try (Connection connection = pool.borrow()) {
+            createVersionTable(connection);
+            int attempts = 0;
+            while (!acquireLock(connection)) {
+                if (isUpToDate(loadAppliedVersions(connection))) {
+                    return true;
+                }
+                if (++attempts >= LOCK_ATTEMPTS) {
+                    System.out.println("Migration gagal: lock skema masih dipegang instance lain");
+                    return false;
+                }
+                System.out.println("Menunggu instance lain menyelesaikan migration...");
+            }
+            try {
+                Set<Integer> applied = loadAppliedVersions(connection);
+                for (Migration migration : MIGRATIONS) {
+                    if (applied.contains(migration.version)) {
+                        continue;
+                    }
+                    apply(connection, migration);
+                    System.out.println("Migration " + migration.version + " diterapkan: " + migration.description);
+                }
+                return true;
+            } finally {
+                releaseLock(connection);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Menjalankan semua statement satu migration lalu mencatat versinya
+     */
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                try {
+                    st.execute(sql);
+                } catch (SQLException e) {
+                    if (!ALREADY_APPLIED_ERRORS.contains(e.getErrorCode())) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        String sql = "INSERT INTO SchemaVersion (version, description) VALUES (?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, migration.version);
+            ps.setString(2, migration.description);
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean isUpToDate(Set<Integer> applied) {
+        for (Migration migration : MIGRATIONS) {
+            if (!applied.contains(migration.version)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void createVersionTable(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS SchemaVersion ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(255), "
+                    + "appliedAt DATETIME DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private Set<Integer> loadAppliedVersions(Connection connection) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version FROM SchemaVersion")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery();
+        }
+    }
+
+    /**
+     * Migration
+     *
+     * Satu perubahan skema bernomor versi, terdiri dari satu atau lebih statement SQL.
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+
+        private Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
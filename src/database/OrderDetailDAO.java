@@ -1,10 +1,12 @@
 package database;
 
 import model.OrderDetail;
+import model.OrderDetailLine;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,34 +17,30 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel OrderDetail.
  */
 public class OrderDetailDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private OrderDetailRowMapper orderDetailMapper;
+    private OrderDetailLineRowMapper orderDetailLineMapper;
 
     /**
      * Constructor untuk OrderDetailDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public OrderDetailDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.orderDetailMapper = new OrderDetailRowMapper();
+        this.orderDetailLineMapper = new OrderDetailLineRowMapper();
     }
 
     /**
      * Generate unique ID untuk OrderDetail
      * Format: DETAIL_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idOrderDetail, 8) AS UNSIGNED)) as maxId FROM OrderDetail";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("DETAIL_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("DETAIL", "OrderDetail", "idOrderDetail");
         } catch (SQLException e) {
             e.printStackTrace();
             return "DETAIL_00001";
@@ -57,7 +55,8 @@ public class OrderDetailDAO {
      */
     public boolean insertOrderDetail(OrderDetail orderDetail) {
         String sql = "INSERT INTO OrderDetail (idOrderDetail, idOrder, idProduct, qty) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, orderDetail.getIdOrderDetail());
             ps.setString(2, orderDetail.getIdOrder());
             ps.setString(3, orderDetail.getIdProduct());
@@ -69,6 +68,33 @@ public class OrderDetailDAO {
         }
     }
 
+    /**
+     * Insert beberapa OrderDetail sekaligus dengan satu batch
+     *
+     * @param orderDetails List OrderDetail yang akan disimpan
+     * @return boolean true jika semua berhasil, false jika ada baris yang gagal
+     * @throws SQLException jika query gagal
+     */
+    public boolean insertOrderDetails(List<OrderDetail> orderDetails) throws SQLException {
+        String sql = "INSERT INTO OrderDetail (idOrderDetail, idOrder, idProduct, qty) VALUES (?, ?, ?, ?)";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (OrderDetail orderDetail : orderDetails) {
+                ps.setString(1, orderDetail.getIdOrderDetail());
+                ps.setString(2, orderDetail.getIdOrder());
+                ps.setString(3, orderDetail.getIdProduct());
+                ps.setInt(4, orderDetail.getQty());
+                ps.addBatch();
+            }
+            for (int count : ps.executeBatch()) {
+                if (count == Statement.EXECUTE_FAILED) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * Mendapatkan OrderDetail berdasarkan ID
      *
@@ -77,17 +103,11 @@ public class OrderDetailDAO {
      */
     public OrderDetail getOrderDetailById(String idOrderDetail) {
         String sql = "SELECT * FROM OrderDetail WHERE idOrderDetail = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrderDetail);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new OrderDetail(
-                        rs.getString("idOrderDetail"),
-                        rs.getString("idOrder"),
-                        rs.getString("idProduct"),
-                        rs.getInt("qty")
-                );
-            }
+            return orderDetailMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -103,23 +123,41 @@ public class OrderDetailDAO {
     public List<OrderDetail> getOrderDetailsByOrderId(String idOrder) {
         List<OrderDetail> orderDetails = new ArrayList<>();
         String sql = "SELECT * FROM OrderDetail WHERE idOrder = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrder);
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                orderDetails.add(new OrderDetail(
-                        rs.getString("idOrderDetail"),
-                        rs.getString("idOrder"),
-                        rs.getString("idProduct"),
-                        rs.getInt("qty")
-                ));
-            }
+            orderDetailMapper.mapAll(rs, orderDetails);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return orderDetails;
     }
 
+    /**
+     * Mendapatkan semua item order beserta nama dan harga produknya
+     * OrderDetail di-join dengan Product dalam satu query (LEFT JOIN, sehingga
+     * item dengan produk yang sudah dihapus tetap muncul dengan nama null).
+     *
+     * @param idOrder ID dari Order yang dicari
+     * @return List<OrderDetailLine> daftar item order dengan data produk
+     */
+    public List<OrderDetailLine> getOrderDetailLinesByOrderId(String idOrder) {
+        List<OrderDetailLine> lines = new ArrayList<>();
+        String sql = "SELECT od.idOrderDetail, od.idOrder, od.idProduct, od.qty, p.name, p.price "
+                + "FROM OrderDetail od LEFT JOIN Product p ON p.idProduct = od.idProduct "
+                + "WHERE od.idOrder = ? ORDER BY od.idOrderDetail";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, idOrder);
+            ResultSet rs = ps.executeQuery();
+            orderDetailLineMapper.mapAll(rs, lines);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return lines;
+    }
+
     /**
      * Mendapatkan semua OrderDetail dari database
      *
@@ -128,22 +166,30 @@ public class OrderDetailDAO {
     public List<OrderDetail> getAllOrderDetails() {
         List<OrderDetail> orderDetails = new ArrayList<>();
         String sql = "SELECT * FROM OrderDetail";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                orderDetails.add(new OrderDetail(
-                        rs.getString("idOrderDetail"),
-                        rs.getString("idOrder"),
-                        rs.getString("idProduct"),
-                        rs.getInt("qty")
-                ));
-            }
+            orderDetailMapper.mapAll(rs, orderDetails);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return orderDetails;
     }
 
+    /**
+     * Membaca seluruh OrderDetail secara streaming, urut berdasarkan ID
+     * OrderDetail adalah tabel terbesar (beberapa baris per order), sehingga job yang
+     * membaca semuanya sebaiknya memakai method ini daripada getAllOrderDetails.
+     *
+     * @param fetchSize Jumlah baris per pengambilan dari server
+     * @param callback Penerima setiap OrderDetail
+     * @return boolean true jika semua baris terbaca, false jika gagal
+     */
+    public boolean forEachOrderDetail(int fetchSize, RowCallback<OrderDetail> callback) {
+        return CursorQuery.forEach(db, "SELECT * FROM OrderDetail ORDER BY idOrderDetail", fetchSize,
+                orderDetailMapper, callback);
+    }
+
     /**
      * Update OrderDetail di database
      *
@@ -152,7 +198,8 @@ public class OrderDetailDAO {
      */
     public boolean updateOrderDetail(OrderDetail orderDetail) {
         String sql = "UPDATE OrderDetail SET idOrder = ?, idProduct = ?, qty = ? WHERE idOrderDetail = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, orderDetail.getIdOrder());
             ps.setString(2, orderDetail.getIdProduct());
             ps.setInt(3, orderDetail.getQty());
@@ -172,7 +219,8 @@ public class OrderDetailDAO {
      */
     public boolean deleteOrderDetail(String idOrderDetail) {
         String sql = "DELETE FROM OrderDetail WHERE idOrderDetail = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrderDetail);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -189,7 +237,8 @@ public class OrderDetailDAO {
      */
     public boolean deleteOrderDetailByOrderId(String idOrder) {
         String sql = "DELETE FROM OrderDetail WHERE idOrder = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrder);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
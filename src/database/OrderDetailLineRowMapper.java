@@ -0,0 +1,35 @@
+package database;
+
+import model.OrderDetailLine;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * OrderDetailLineRowMapper
+ *
+ * Mengubah baris hasil join OrderDetail dan Product menjadi object OrderDetailLine.
+ */
+public class OrderDetailLineRowMapper extends RowMapper<OrderDetailLine> {
+    private static final int ID_ORDER_DETAIL = 0;
+    private static final int ID_ORDER = 1;
+    private static final int ID_PRODUCT = 2;
+    private static final int QTY = 3;
+    private static final int NAME = 4;
+    private static final int PRICE = 5;
+
+    public OrderDetailLineRowMapper() {
+        super("idOrderDetail", "idOrder", "idProduct", "qty", "name", "price");
+    }
+
+    @Override
+    protected OrderDetailLine map(ResultSet rs, int[] columns) throws SQLException {
+        return new OrderDetailLine(
+                rs.getString(columns[ID_ORDER_DETAIL]),
+                rs.getString(columns[ID_ORDER]),
+                rs.getString(columns[ID_PRODUCT]),
+                rs.getInt(columns[QTY]),
+                rs.getString(columns[NAME]),
+                rs.getDouble(columns[PRICE])
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package database;
+
+import model.OrderDetail;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * OrderDetailRowMapper
+ *
+ * Mengubah baris tabel OrderDetail menjadi object OrderDetail.
+ */
+public class OrderDetailRowMapper extends RowMapper<OrderDetail> {
+    private static final int ID_ORDER_DETAIL = 0;
+    private static final int ID_ORDER = 1;
+    private static final int ID_PRODUCT = 2;
+    private static final int QTY = 3;
+
+    public OrderDetailRowMapper() {
+        super("idOrderDetail", "idOrder", "idProduct", "qty");
+    }
+
+    @Override
+    protected OrderDetail map(ResultSet rs, int[] columns) throws SQLException {
+        return new OrderDetail(
+                rs.getString(columns[ID_ORDER_DETAIL]),
+                rs.getString(columns[ID_ORDER]),
+                rs.getString(columns[ID_PRODUCT]),
+                rs.getInt(columns[QTY])
+        );
+    }
+}
@@ -1,11 +1,18 @@
 package database;
 
+import model.ChangeCursor;
+import model.ChangeSet;
+import model.Delivery;
 import model.OrderHeader;
+import model.OrderSummary;
+import model.Page;
+import model.PageCursor;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,35 +23,28 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel OrderHeader.
  */
 public class OrderHeaderDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private OrderHeaderRowMapper orderHeaderMapper;
 
     /**
      * Constructor untuk OrderHeaderDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public OrderHeaderDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.orderHeaderMapper = new OrderHeaderRowMapper();
     }
 
     /**
      * Generate unique ID untuk OrderHeader
      * Format: ORDER_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idOrder, 7) AS UNSIGNED)) as maxId FROM OrderHeader";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            System.out.println(nextId);
-            return String.format("ORDER_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("ORDER", "OrderHeader", "idOrder");
         } catch (SQLException e) {
             e.printStackTrace();
             return "ORDER_00001";
@@ -55,11 +55,13 @@ public class OrderHeaderDAO {
      * Insert OrderHeader baru ke database
      *
      * @param orderHeader OrderHeader object yang akan disimpan
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika tidak ada baris yang tersimpan
+     * @throws SQLException jika query gagal
      */
-    public boolean saveDataOrderHeader(OrderHeader orderHeader) {
+    public boolean saveDataOrderHeader(OrderHeader orderHeader) throws SQLException {
         String sqlInsert = "INSERT INTO OrderHeader (idOrder, idCustomer, idPromo, status, orderedAt, totalAmount) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sqlInsert)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sqlInsert)) {
             ps.setString(1, orderHeader.getIdOrder());
             ps.setString(2, orderHeader.getIdCustomer());
             ps.setString(3, orderHeader.getIdPromo());
@@ -67,9 +69,6 @@ public class OrderHeaderDAO {
             ps.setTimestamp(5, Timestamp.valueOf(orderHeader.getOrderedAt()));
             ps.setDouble(6, orderHeader.getTotalAmount());
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
@@ -80,19 +79,19 @@ public class OrderHeaderDAO {
      * @param idOrder ID Order yang telah dibuat
      * @param idProduct ID produk yang dipesan
      * @param quantity Jumlah produk yang dipesan
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika tidak ada baris yang tersimpan
+     * @throws SQLException jika query gagal
      */
-    public boolean saveDataOrderHeader(String idOrderDetail, String idOrder, String idProduct, int quantity) {
+    public boolean saveDataOrderHeader(String idOrderDetail, String idOrder, String idProduct, int quantity)
+            throws SQLException {
         String sql = "INSERT INTO OrderDetail (idOrderDetail, idOrder, idProduct, qty) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrderDetail);
             ps.setString(2, idOrder);
             ps.setString(3, idProduct);
             ps.setInt(4, quantity);
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
@@ -105,20 +104,12 @@ public class OrderHeaderDAO {
      */
     public OrderHeader getOrderHeaderById(String idOrder, String idCustomer) {
         String sql = "SELECT * FROM OrderHeader WHERE idOrder = ? AND idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrder);
             ps.setString(2, idCustomer);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new OrderHeader(
-                        rs.getString("idOrder"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idPromo"),
-                        rs.getString("status"),
-                        rs.getTimestamp("orderedAt").toLocalDateTime(),
-                        rs.getDouble("totalAmount")
-                );
-            }
+            return orderHeaderMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -134,19 +125,11 @@ public class OrderHeaderDAO {
     public List<OrderHeader> getOrderHeadersByCustomerId(String idCustomer) {
         List<OrderHeader> orders = new ArrayList<>();
         String sql = "SELECT * FROM OrderHeader WHERE idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                orders.add(new OrderHeader(
-                        rs.getString("idOrder"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idPromo"),
-                        rs.getString("status"),
-                        rs.getTimestamp("orderedAt").toLocalDateTime(),
-                        rs.getDouble("totalAmount")
-                ));
-            }
+            orderHeaderMapper.mapAll(rs, orders);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -171,19 +154,52 @@ public class OrderHeaderDAO {
     public OrderHeader getOrderHeaderById(String idOrder) {
         String sql = "SELECT * FROM OrderHeader WHERE idOrder = ?";
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrder);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new OrderHeader(
-                    rs.getString("idOrder"),
-                    rs.getString("idCustomer"),
-                    rs.getString("idPromo"),
-                    rs.getString("status"),
-                    rs.getTimestamp("orderedAt").toLocalDateTime(),
-                    rs.getDouble("totalAmount")
-                );
+            return orderHeaderMapper.mapFirst(rs);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Mengambil satu OrderHeader beserta Delivery-nya berdasarkan idOrder
+     * Sama seperti getOrderHeaderById (lookup primary key), ditambah LEFT JOIN
+     * ke Delivery sehingga status pengiriman ikut terbaca di query yang sama.
+     * Item order tidak diisi di sini (lihat OrderDetailDAO.getOrderDetailLinesByOrderId).
+     *
+     * @param idOrder ID Order
+     * @return OrderSummary dengan header dan delivery (null jika belum di-assign),
+     *         null jika order tidak ditemukan
+     */
+    public OrderSummary getOrderSummaryById(String idOrder) {
+        String sql = "SELECT o.idOrder, o.idCustomer, o.idPromo, o.status, o.orderedAt, o.totalAmount, "
+                + "d.idDelivery, d.idCourier, d.status AS deliveryStatus "
+                + "FROM OrderHeader o LEFT JOIN Delivery d ON d.idOrder = o.idOrder "
+                + "WHERE o.idOrder = ?";
+
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, idOrder);
+            ResultSet rs = ps.executeQuery();
+            OrderHeader header = orderHeaderMapper.mapFirst(rs);
+            if (header == null) {
+                return null;
             }
+
+            // mapFirst membiarkan cursor di baris pertama, kolom delivery (kolom 7-9 pada SELECT
+            // di atas) dibaca dari baris yang sama berdasarkan index
+            OrderSummary summary = new OrderSummary();
+            summary.setHeader(header);
+            String idDelivery = rs.getString(7);
+            if (idDelivery != null) {
+                summary.setDelivery(new Delivery(idDelivery, header.getIdOrder(),
+                        rs.getString(8), rs.getString(9)));
+            }
+            return summary;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -198,33 +214,40 @@ public class OrderHeaderDAO {
     public List<OrderHeader> getAllOrderHeaders() {
         List<OrderHeader> orders = new ArrayList<>();
         String sql = "SELECT * FROM OrderHeader";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                orders.add(new OrderHeader(
-                        rs.getString("idOrder"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idPromo"),
-                        rs.getString("status"),
-                        rs.getTimestamp("orderedAt").toLocalDateTime(),
-                        rs.getDouble("totalAmount")
-                ));
-            }
+            orderHeaderMapper.mapAll(rs, orders);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return orders;
     }
+
+    /**
+     * Membaca seluruh OrderHeader secara streaming, urut berdasarkan ID
+     * Untuk export dan batch job atas seluruh order; berbeda dengan getAllOrderHeaders,
+     * baris dibaca per fetchSize lewat CursorQuery tanpa ditampung di memori.
+     *
+     * @param fetchSize Jumlah baris per pengambilan dari server
+     * @param callback Penerima setiap OrderHeader
+     * @return boolean true jika semua baris terbaca, false jika gagal
+     */
+    public boolean forEachOrderHeader(int fetchSize, RowCallback<OrderHeader> callback) {
+        return CursorQuery.forEach(db, "SELECT * FROM OrderHeader ORDER BY idOrder", fetchSize,
+                orderHeaderMapper, callback);
+    }
     
     public List<String> getAllOrderIds() {
         List<String> ids = new ArrayList<>();
         String sql = "SELECT idOrder FROM OrderHeader";
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                ids.add(rs.getString("idOrder"));
+                ids.add(rs.getString(1));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -232,6 +255,54 @@ public class OrderHeaderDAO {
         return ids;
     }
 
+    /**
+     * Mengambil order pending yang belum punya Delivery, dari order terlama
+     * Harus dipanggil di dalam transaksi: baris order yang terbaca dikunci sampai commit,
+     * dan baris yang sedang dikunci transaksi lain (dispatcher di client lain) dilewati,
+     * sehingga satu order tidak diambil dua dispatcher sekaligus.
+     *
+     * @param limit Jumlah order maksimum
+     * @return List ID order yang siap di-assign
+     * @throws SQLException jika query gagal
+     */
+    public List<String> lockUnassignedPendingOrderIds(int limit) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        String sql = "SELECT o.idOrder FROM OrderHeader o "
+                + "WHERE o.status = 'pending' "
+                + "AND NOT EXISTS (SELECT 1 FROM Delivery d WHERE d.idOrder = o.idOrder) "
+                + "ORDER BY o.orderedAt, o.idOrder LIMIT ? "
+                + "FOR UPDATE OF o SKIP LOCKED";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Mengunci satu baris order sampai transaksi selesai
+     * Harus dipanggil di dalam transaksi. Assign kurir manual dan dispatcher sama-sama
+     * mengunci baris order sebelum membuat Delivery, sehingga pengecekan "sudah di-assign"
+     * dan insert Delivery tidak bisa disela assign lain untuk order yang sama.
+     *
+     * @param idOrder ID order
+     * @return boolean true jika order ada dan terkunci, false jika tidak ada
+     * @throws SQLException jika query gagal
+     */
+    public boolean lockOrder(String idOrder) throws SQLException {
+        String sql = "SELECT idOrder FROM OrderHeader WHERE idOrder = ? FOR UPDATE";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, idOrder);
+            ResultSet rs = ps.executeQuery();
+            return rs.next();
+        }
+    }
+
     /**
      * Update data OrderHeader di database
      *
@@ -240,7 +311,8 @@ public class OrderHeaderDAO {
      */
     public boolean updateOrderHeader(OrderHeader orderHeader) {
         String sql = "UPDATE OrderHeader SET idCustomer = ?, idPromo = ?, status = ?, orderedAt = ?, totalAmount = ? WHERE idOrder = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, orderHeader.getIdCustomer());
             ps.setString(2, orderHeader.getIdPromo());
             ps.setString(3, orderHeader.getStatus());
@@ -263,7 +335,8 @@ public class OrderHeaderDAO {
      */
     public boolean updateOrderStatus(String idOrder, String status) {
         String sql = "UPDATE OrderHeader SET status = ? WHERE idOrder = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, status);
             ps.setString(2, idOrder);
             return ps.executeUpdate() > 0;
@@ -281,7 +354,8 @@ public class OrderHeaderDAO {
      */
     public boolean deleteOrderHeader(String idOrder) {
         String sql = "DELETE FROM OrderHeader WHERE idOrder = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idOrder);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -299,22 +373,117 @@ public class OrderHeaderDAO {
     public List<OrderHeader> getOrderHeadersByStatus(String status) {
         List<OrderHeader> orders = new ArrayList<>();
         String sql = "SELECT * FROM OrderHeader WHERE status = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, status);
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                orders.add(new OrderHeader(
-                        rs.getString("idOrder"),
-                        rs.getString("idCustomer"),
-                        rs.getString("idPromo"),
-                        rs.getString("status"),
-                        rs.getTimestamp("orderedAt").toLocalDateTime(),
-                        rs.getDouble("totalAmount")
-                ));
-            }
+            orderHeaderMapper.mapAll(rs, orders);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return orders;
     }
+
+    /**
+     * Mendapatkan satu halaman OrderHeader, diurutkan dari order terbaru
+     * Keyset pagination pada (orderedAt, idOrder): hanya pageSize baris yang dibaca
+     * per halaman, berapa pun jumlah order di database.
+     *
+     * @param after Cursor dari halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah order per halaman
+     * @return Page<OrderHeader>, kosong jika gagal
+     */
+    public Page<OrderHeader> getOrderHeaderPage(PageCursor after, int pageSize) {
+        String sql = OrderKeyset.pageSql("SELECT * FROM OrderHeader", null, "", after);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            OrderKeyset.bind(ps, 1, after, pageSize);
+            ResultSet rs = ps.executeQuery();
+            return OrderKeyset.read(orderHeaderMapper, rs, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty();
+    }
+
+    /**
+     * Mendapatkan satu halaman OrderHeader milik customer, diurutkan dari order terbaru
+     *
+     * @param idCustomer ID Customer yang dicari
+     * @param after Cursor dari halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah order per halaman
+     * @return Page<OrderHeader>, kosong jika gagal
+     */
+    public Page<OrderHeader> getOrderHeaderPageByCustomerId(String idCustomer, PageCursor after, int pageSize) {
+        String sql = OrderKeyset.pageSql("SELECT * FROM OrderHeader", "idCustomer = ?", "", after);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, idCustomer);
+            OrderKeyset.bind(ps, 2, after, pageSize);
+            ResultSet rs = ps.executeQuery();
+            return OrderKeyset.read(orderHeaderMapper, rs, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty();
+    }
+
+    /**
+     * Mendapatkan satu halaman OrderHeader dengan status tertentu, diurutkan dari order terbaru
+     *
+     * @param status status yang dicari
+     * @param after Cursor dari halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah order per halaman
+     * @return Page<OrderHeader>, kosong jika gagal
+     */
+    public Page<OrderHeader> getOrderHeaderPageByStatus(String status, PageCursor after, int pageSize) {
+        String sql = OrderKeyset.pageSql("SELECT * FROM OrderHeader", "status = ?", "", after);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, status);
+            OrderKeyset.bind(ps, 2, after, pageSize);
+            ResultSet rs = ps.executeQuery();
+            return OrderKeyset.read(orderHeaderMapper, rs, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty();
+    }
+
+    /**
+     * Mendapatkan cursor awal change feed OrderHeader
+     * Diambil sebelum memuat daftar order, lalu dipakai sebagai titik awal polling perubahan.
+     *
+     * @return cursor awal, null jika gagal
+     */
+    public ChangeCursor getChangeVersion() {
+        try (Connection connection = db.getConnection()) {
+            return ChangeFeed.version(connection, "OrderHeader", "idOrder");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Mendapatkan OrderHeader yang dibuat atau diubah setelah cursor tertentu
+     * Memakai index updatedAt, sehingga biaya polling sebanding dengan jumlah perubahan.
+     *
+     * @param since Cursor terakhir yang sudah diterapkan di view
+     * @return ChangeSet<OrderHeader>, kosong jika gagal
+     */
+    public ChangeSet<OrderHeader> getOrderHeadersChangedSince(ChangeCursor since) {
+        String sql = ChangeFeed.changesSql("SELECT * FROM OrderHeader", null, "", "idOrder");
+        try (Connection connection = db.getConnection()) {
+            LocalDateTime horizon = ChangeFeed.horizon(connection);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ChangeFeed.bind(ps, 1, since);
+                ResultSet rs = ps.executeQuery();
+                return ChangeFeed.read(orderHeaderMapper, rs, "idOrder", since, horizon);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return ChangeSet.empty(since);
+    }
 }
@@ -0,0 +1,37 @@
+package database;
+
+import model.OrderHeader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * OrderHeaderRowMapper
+ *
+ * Mengubah baris tabel OrderHeader menjadi object OrderHeader.
+ */
+public class OrderHeaderRowMapper extends RowMapper<OrderHeader> {
+    private static final int ID_ORDER = 0;
+    private static final int ID_CUSTOMER = 1;
+    private static final int ID_PROMO = 2;
+    private static final int STATUS = 3;
+    private static final int ORDERED_AT = 4;
+    private static final int TOTAL_AMOUNT = 5;
+
+    public OrderHeaderRowMapper() {
+        super("idOrder", "idCustomer", "idPromo", "status", "orderedAt", "totalAmount");
+    }
+
+    @Override
+    protected OrderHeader map(ResultSet rs, int[] columns) throws SQLException {
+        Timestamp orderedAt = rs.getTimestamp(columns[ORDERED_AT]);
+        return new OrderHeader(
+                rs.getString(columns[ID_ORDER]),
+                rs.getString(columns[ID_CUSTOMER]),
+                rs.getString(columns[ID_PROMO]),
+                rs.getString(columns[STATUS]),
+                orderedAt != null ? orderedAt.toLocalDateTime() : null,
+                rs.getDouble(columns[TOTAL_AMOUNT])
+        );
+    }
+}
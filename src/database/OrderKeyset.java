@@ -0,0 +1,112 @@
+package database;
+
+import model.Page;
+import model.PageCursor;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrderKeyset
+ *
+ * Helper keyset pagination untuk query daftar order dan delivery, diurutkan dari
+ * order terbaru berdasarkan (orderedAt, idOrder). Halaman berikutnya difilter dengan
+ * "lebih lama dari baris terakhir" sehingga memakai index (..., orderedAt, idOrder)
+ * dan biaya tiap halaman hanya sebesar pageSize, berapa pun halaman ke berapa.
+ *
+ * Query mengambil pageSize + 1 baris; baris tambahan hanya dipakai untuk
+ * mengetahui apakah masih ada halaman berikutnya.
+ */
+final class OrderKeyset {
+    static final int MAX_PAGE_SIZE = 500;
+
+    private OrderKeyset() {
+    }
+
+    /**
+     * Menyusun query satu halaman
+     *
+     * @param select Bagian SELECT ... FROM ... (termasuk JOIN jika ada)
+     * @param filter Kondisi WHERE tambahan dengan parameter, null jika tidak ada
+     * @param alias Alias tabel OrderHeader di query, kosong jika tanpa alias
+     * @param cursor Posisi halaman sebelumnya, null untuk halaman pertama
+     * @return SQL lengkap dengan kondisi keyset, ORDER BY, dan LIMIT
+     */
+    static String pageSql(String select, String filter, String alias, PageCursor cursor) {
+        String column = alias.isEmpty() ? "" : alias + ".";
+        StringBuilder sql = new StringBuilder(select);
+        String glue = " WHERE ";
+        if (filter != null) {
+            sql.append(glue).append(filter);
+            glue = " AND ";
+        }
+        if (cursor != null) {
+            sql.append(glue).append("(").append(column).append("orderedAt < ? OR (")
+                    .append(column).append("orderedAt = ? AND ")
+                    .append(column).append("idOrder < ?))");
+        }
+        sql.append(" ORDER BY ").append(column).append("orderedAt DESC, ")
+                .append(column).append("idOrder DESC LIMIT ?");
+        return sql.toString();
+    }
+
+    /**
+     * Mengisi parameter keyset dan LIMIT, dimulai dari index parameter tertentu
+     *
+     * @param ps PreparedStatement dari pageSql
+     * @param index Index parameter pertama setelah parameter filter
+     * @param cursor Posisi halaman sebelumnya, null untuk halaman pertama
+     * @param pageSize Jumlah item per halaman
+     */
+    static void bind(PreparedStatement ps, int index, PageCursor cursor, int pageSize) throws SQLException {
+        if (cursor != null) {
+            Timestamp orderedAt = Timestamp.valueOf(cursor.getOrderedAt());
+            ps.setTimestamp(index++, orderedAt);
+            ps.setTimestamp(index++, orderedAt);
+            ps.setString(index++, cursor.getIdOrder());
+        }
+        ps.setInt(index, clamp(pageSize) + 1);
+    }
+
+    /**
+     * Membaca satu halaman dari ResultSet hasil pageSql
+     * ResultSet harus memuat kolom orderedAt dan idOrder untuk membentuk cursor.
+     *
+     * @param mapper RowMapper untuk item
+     * @param rs ResultSet hasil query
+     * @param pageSize Jumlah item per halaman
+     * @return Page berisi maksimal pageSize item
+     */
+    static <T> Page<T> read(RowMapper<T> mapper, ResultSet rs, int pageSize) throws SQLException {
+        int limit = clamp(pageSize);
+        List<T> items = new ArrayList<>(Math.min(limit, 64));
+        int[] columns = null;
+        int orderedAtColumn = 0;
+        int idOrderColumn = 0;
+        Timestamp lastOrderedAt = null;
+        String lastIdOrder = null;
+
+        while (rs.next()) {
+            if (columns == null) {
+                columns = mapper.resolve(rs);
+                orderedAtColumn = rs.findColumn("orderedAt");
+                idOrderColumn = rs.findColumn("idOrder");
+            }
+            if (items.size() == limit) {
+                // Ada baris ke-(pageSize + 1): halaman berikutnya dimulai setelah baris terakhir
+                return new Page<>(items, new PageCursor(lastOrderedAt.toLocalDateTime(), lastIdOrder));
+            }
+            items.add(mapper.map(rs, columns));
+            lastOrderedAt = rs.getTimestamp(orderedAtColumn);
+            lastIdOrder = rs.getString(idOrderColumn);
+        }
+        return new Page<>(items, null);
+    }
+
+    private static int clamp(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+}
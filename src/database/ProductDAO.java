@@ -5,8 +5,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ProductDAO
@@ -15,34 +19,28 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel Product.
  */
 public class ProductDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private ProductRowMapper productMapper;
 
     /**
      * Constructor untuk ProductDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public ProductDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.productMapper = new ProductRowMapper();
     }
 
     /**
      * Generate unique ID untuk Product
      * Format: PROD_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idProduct, 6) AS UNSIGNED)) as maxId FROM Product";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("PROD_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("PROD", "Product", "idProduct");
         } catch (SQLException e) {
             e.printStackTrace();
             return "PROD_00001";
@@ -57,7 +55,8 @@ public class ProductDAO {
      */
     public boolean insertProduct(Product product) {
         String sql = "INSERT INTO Product (idProduct, name, price, stock, category) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, product.getIdProduct());
             ps.setString(2, product.getName());
             ps.setDouble(3, product.getPrice());
@@ -75,25 +74,16 @@ public class ProductDAO {
      *
      * @param idProduct ID dari Product yang dicari
      * @return Product object jika ditemukan, null jika tidak ditemukan
+     * @throws SQLException jika query gagal
      */
-    public Product getProductById(String idProduct) {
+    public Product getProductById(String idProduct) throws SQLException {
         String sql = "SELECT * FROM Product WHERE idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idProduct);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Product(
-                        rs.getString("idProduct"),
-                        rs.getString("name"),
-                        rs.getDouble("price"),
-                        rs.getInt("stock"),
-                        rs.getString("category")
-                );
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return productMapper.mapFirst(rs);
         }
-        return null;
     }
 
     /**
@@ -104,17 +94,10 @@ public class ProductDAO {
     public List<Product> getAllProducts() {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT * FROM Product";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                products.add(new Product(
-                        rs.getString("idProduct"),
-                        rs.getString("name"),
-                        rs.getDouble("price"),
-                        rs.getInt("stock"),
-                        rs.getString("category")
-                ));
-            }
+            productMapper.mapAll(rs, products);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -129,17 +112,10 @@ public class ProductDAO {
     public List<Product> getAvailableProducts() {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT * FROM Product WHERE stock > 0";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                products.add(new Product(
-                        rs.getString("idProduct"),
-                        rs.getString("name"),
-                        rs.getDouble("price"),
-                        rs.getInt("stock"),
-                        rs.getString("category")
-                ));
-            }
+            productMapper.mapAll(rs, products);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -155,18 +131,11 @@ public class ProductDAO {
     public List<Product> getProductsByCategory(String category) {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT * FROM Product WHERE category = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, category);
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                products.add(new Product(
-                        rs.getString("idProduct"),
-                        rs.getString("name"),
-                        rs.getDouble("price"),
-                        rs.getInt("stock"),
-                        rs.getString("category")
-                ));
-            }
+            productMapper.mapAll(rs, products);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -181,7 +150,8 @@ public class ProductDAO {
      */
     public boolean updateProduct(Product product) {
         String sql = "UPDATE Product SET name = ?, price = ?, stock = ?, category = ? WHERE idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, product.getName());
             ps.setDouble(2, product.getPrice());
             ps.setInt(3, product.getStock());
@@ -203,7 +173,8 @@ public class ProductDAO {
      */
     public boolean updateStock(String idProduct, int newStock) {
         String sql = "UPDATE Product SET stock = ? WHERE idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, newStock);
             ps.setString(2, idProduct);
             return ps.executeUpdate() > 0;
@@ -213,6 +184,129 @@ public class ProductDAO {
         }
     }
 
+    /**
+     * Mengurangi stok beberapa produk dalam satu batch
+     * Setiap baris hanya di-update jika stok masih mencukupi (conditional UPDATE),
+     * sehingga pembelian bersamaan tidak bisa membuat stok negatif.
+     *
+     * @param quantities Map idProduct ke jumlah yang dikurangi
+     * @return List idProduct yang stoknya tidak mencukupi (kosong jika semua berhasil)
+     * @throws SQLException jika query gagal
+     */
+    public List<String> decreaseStocks(Map<String, Integer> quantities) throws SQLException {
+        String sql = "UPDATE Product SET stock = stock - ? WHERE idProduct = ? AND stock >= ?";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            List<String> idProducts = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                ps.setInt(1, entry.getValue());
+                ps.setString(2, entry.getKey());
+                ps.setInt(3, entry.getValue());
+                ps.addBatch();
+                idProducts.add(entry.getKey());
+            }
+
+            List<String> rejected = new ArrayList<>();
+            int[] counts = ps.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0 || counts[i] == Statement.EXECUTE_FAILED) {
+                    rejected.add(idProducts.get(i));
+                }
+            }
+            return rejected;
+        }
+    }
+
+    /**
+     * Mengambil beberapa Product sekaligus berdasarkan ID dengan satu query
+     *
+     * @param idProducts ID Product yang dicari
+     * @return List<Product> yang ditemukan (urutan tidak dijamin)
+     * @throws SQLException jika query gagal
+     */
+    public List<Product> getProductsByIds(Collection<String> idProducts) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        if (idProducts.isEmpty()) {
+            return products;
+        }
+        String sql = "SELECT * FROM Product WHERE idProduct IN ("
+                + String.join(", ", Collections.nCopies(idProducts.size(), "?")) + ")";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (String idProduct : idProducts) {
+                ps.setString(index++, idProduct);
+            }
+            ResultSet rs = ps.executeQuery();
+            productMapper.mapAll(rs, products);
+        }
+        return products;
+    }
+
+    /**
+     * Insert beberapa Product baru sekaligus dengan satu batch
+     *
+     * @param products List Product yang akan disimpan
+     * @return boolean true jika semua berhasil, false jika ada baris yang gagal
+     * @throws SQLException jika query gagal (misalnya ID sudah ada)
+     */
+    public boolean insertProducts(List<Product> products) throws SQLException {
+        String sql = "INSERT INTO Product (idProduct, name, price, stock, category) VALUES (?, ?, ?, ?, ?)";
+        return executeProductBatch(sql, products);
+    }
+
+    /**
+     * Insert atau update beberapa Product sekaligus dengan satu batch
+     * Product yang ID-nya sudah ada diperbarui (nama, harga, stok, kategori).
+     *
+     * @param products List Product yang akan disimpan
+     * @return boolean true jika semua berhasil, false jika ada baris yang gagal
+     * @throws SQLException jika query gagal
+     */
+    public boolean upsertProducts(List<Product> products) throws SQLException {
+        String sql = "INSERT INTO Product (idProduct, name, price, stock, category) VALUES (?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE name = VALUES(name), price = VALUES(price), "
+                + "stock = VALUES(stock), category = VALUES(category)";
+        return executeProductBatch(sql, products);
+    }
+
+    private boolean executeProductBatch(String sql, List<Product> products) throws SQLException {
+        if (products.isEmpty()) {
+            return true;
+        }
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (Product product : products) {
+                ps.setString(1, product.getIdProduct());
+                ps.setString(2, product.getName());
+                ps.setDouble(3, product.getPrice());
+                ps.setInt(4, product.getStock());
+                ps.setString(5, product.getCategory());
+                ps.addBatch();
+            }
+            for (int count : ps.executeBatch()) {
+                if (count == Statement.EXECUTE_FAILED) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Membaca seluruh Product secara streaming, urut berdasarkan ID
+     * Baris dibaca per fetchSize lewat CursorQuery, sehingga memori tetap walaupun tabel
+     * berisi ratusan ribu produk.
+     *
+     * @param fetchSize Jumlah baris per pengambilan dari server
+     * @param callback Penerima setiap Product
+     * @return boolean true jika semua baris terbaca, false jika gagal
+     */
+    public boolean forEachProduct(int fetchSize, RowCallback<Product> callback) {
+        return CursorQuery.forEach(db, "SELECT * FROM Product ORDER BY idProduct", fetchSize,
+                productMapper, callback);
+    }
+
     /**
      * Delete Product dari database
      *
@@ -221,7 +315,8 @@ public class ProductDAO {
      */
     public boolean deleteProduct(String idProduct) {
         String sql = "DELETE FROM Product WHERE idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idProduct);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -238,11 +333,12 @@ public class ProductDAO {
      */
     public int getStock(String idProduct) {
         String sql = "SELECT stock FROM Product WHERE idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idProduct);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return rs.getInt("stock");
+                return rs.getInt(1);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -258,11 +354,12 @@ public class ProductDAO {
      */
     public double getPrice(String idProduct) {
         String sql = "SELECT price FROM Product WHERE idProduct = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idProduct);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return rs.getDouble("price");
+                return rs.getDouble(1);
             }
         } catch (SQLException e) {
             e.printStackTrace();
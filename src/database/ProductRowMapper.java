@@ -0,0 +1,33 @@
+package database;
+
+import model.Product;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * ProductRowMapper
+ *
+ * Mengubah baris tabel Product menjadi object Product.
+ */
+public class ProductRowMapper extends RowMapper<Product> {
+    private static final int ID_PRODUCT = 0;
+    private static final int NAME = 1;
+    private static final int PRICE = 2;
+    private static final int STOCK = 3;
+    private static final int CATEGORY = 4;
+
+    public ProductRowMapper() {
+        super("idProduct", "name", "price", "stock", "category");
+    }
+
+    @Override
+    protected Product map(ResultSet rs, int[] columns) throws SQLException {
+        return new Product(
+                rs.getString(columns[ID_PRODUCT]),
+                rs.getString(columns[NAME]),
+                rs.getDouble(columns[PRICE]),
+                rs.getInt(columns[STOCK]),
+                rs.getString(columns[CATEGORY])
+        );
+    }
+}
@@ -15,34 +15,28 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel Promo.
  */
 public class PromoDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private PromoRowMapper promoMapper;
 
     /**
      * Constructor untuk PromoDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public PromoDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.promoMapper = new PromoRowMapper();
     }
 
     /**
      * Generate unique ID untuk Promo
      * Format: PROMO_XXXXX (diikuti dengan nomor urut)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @return String ID yang unik
      */
     public String generateId() {
-        String sql = "SELECT MAX(CAST(SUBSTRING(idPromo, 7) AS UNSIGNED)) as maxId FROM Promo";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("PROMO_%05d", nextId);
+        try {
+            return IdAllocator.getInstance().nextId("PROMO", "Promo", "idPromo");
         } catch (SQLException e) {
             e.printStackTrace();
             return "PROMO_00001";
@@ -53,19 +47,22 @@ public class PromoDAO {
      * Insert Promo baru ke database
      *
      * @param promo Promo object yang akan disimpan
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika tidak ada baris yang tersimpan
+     * @throws SQLException jika query gagal
      */
-    public boolean insertPromo(Promo promo) {
-        String sql = "INSERT INTO Promo (idPromo, code, discountPercentage, headline) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+    public boolean insertPromo(Promo promo) throws SQLException {
+        String sql = "INSERT INTO Promo (idPromo, code, discountPercentage, headline, category, minSpend, maxDiscount) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, promo.getIdPromo());
             ps.setString(2, promo.getCode());
             ps.setDouble(3, promo.getDiscountPercentage());
             ps.setString(4, promo.getHeadline());
+            ps.setString(5, promo.getCategory());
+            ps.setDouble(6, promo.getMinSpend());
+            ps.setDouble(7, promo.getMaxDiscount());
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
@@ -74,24 +71,16 @@ public class PromoDAO {
      *
      * @param idPromo ID dari Promo yang dicari
      * @return Promo object jika ditemukan, null jika tidak ditemukan
+     * @throws SQLException jika query gagal
      */
-    public Promo getPromoById(String idPromo) {
+    public Promo getPromoById(String idPromo) throws SQLException {
         String sql = "SELECT * FROM Promo WHERE idPromo = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idPromo);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Promo(
-                        rs.getString("idPromo"),
-                        rs.getString("code"),
-                        rs.getDouble("discountPercentage"),
-                        rs.getString("headline")
-                );
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return promoMapper.mapFirst(rs);
         }
-        return null;
     }
 
     /**
@@ -102,17 +91,11 @@ public class PromoDAO {
      */
     public Promo getPromoByCode(String code) {
         String sql = "SELECT * FROM Promo WHERE code = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, code);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Promo(
-                        rs.getString("idPromo"),
-                        rs.getString("code"),
-                        rs.getDouble("discountPercentage"),
-                        rs.getString("headline")
-                );
-            }
+            return promoMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -122,23 +105,18 @@ public class PromoDAO {
     /**
      * Get semua Promo dari database
      *
-     * @return List<Promo> daftar semua Promo
+     * @return List<Promo> daftar semua Promo, null jika gagal
      */
     public List<Promo> getAllPromos() {
         List<Promo> promos = new ArrayList<>();
         String sql = "SELECT * FROM Promo";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                promos.add(new Promo(
-                        rs.getString("idPromo"),
-                        rs.getString("code"),
-                        rs.getDouble("discountPercentage"),
-                        rs.getString("headline")
-                ));
-            }
+            promoMapper.mapAll(rs, promos);
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
         }
         return promos;
     }
@@ -147,19 +125,22 @@ public class PromoDAO {
      * Update data Promo di database
      *
      * @param promo Promo object yang akan diupdate
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika promo tidak ditemukan
+     * @throws SQLException jika query gagal
      */
-    public boolean updatePromo(Promo promo) {
-        String sql = "UPDATE Promo SET code = ?, discountPercentage = ?, headline = ? WHERE idPromo = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+    public boolean updatePromo(Promo promo) throws SQLException {
+        String sql = "UPDATE Promo SET code = ?, discountPercentage = ?, headline = ?, category = ?, "
+                + "minSpend = ?, maxDiscount = ? WHERE idPromo = ?";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, promo.getCode());
             ps.setDouble(2, promo.getDiscountPercentage());
             ps.setString(3, promo.getHeadline());
-            ps.setString(4, promo.getIdPromo());
+            ps.setString(4, promo.getCategory());
+            ps.setDouble(5, promo.getMinSpend());
+            ps.setDouble(6, promo.getMaxDiscount());
+            ps.setString(7, promo.getIdPromo());
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
@@ -167,16 +148,15 @@ public class PromoDAO {
      * Delete Promo dari database
      *
      * @param idPromo ID dari Promo yang akan dihapus
-     * @return boolean true jika berhasil, false jika gagal
+     * @return boolean true jika berhasil, false jika promo tidak ditemukan
+     * @throws SQLException jika query gagal
      */
-    public boolean deletePromo(String idPromo) {
+    public boolean deletePromo(String idPromo) throws SQLException {
         String sql = "DELETE FROM Promo WHERE idPromo = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idPromo);
             return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
@@ -187,8 +167,9 @@ public class PromoDAO {
      * @return boolean true jika ada, false jika tidak ada
      */
     public boolean promoExists(String code) {
-        String sql = "SELECT * FROM Promo WHERE code = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        String sql = "SELECT 1 FROM Promo WHERE code = ? LIMIT 1";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, code);
             ResultSet rs = ps.executeQuery();
             return rs.next();
@@ -206,15 +187,51 @@ public class PromoDAO {
      */
     public double getDiscountPercentage(String code) {
         String sql = "SELECT discountPercentage FROM Promo WHERE code = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, code);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return rs.getDouble("discountPercentage");
+                return rs.getDouble(1);
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return 0;
     }
+
+    /**
+     * Mendapatkan versi data promo (counter di tabel PromoVersion)
+     * Hanya membaca satu baris berdasarkan primary key, sehingga murah dipanggil berkala.
+     *
+     * @return versi data promo, -1 jika gagal
+     */
+    public long getVersion() {
+        String sql = "SELECT version FROM PromoVersion WHERE id = 1";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Menaikkan versi data promo
+     * Dipanggil dalam transaksi yang sama dengan insert, update, atau delete promo.
+     *
+     * @return boolean true jika berhasil, false jika baris versi belum ada
+     * @throws SQLException jika query gagal
+     */
+    public boolean bumpVersion() throws SQLException {
+        String sql = "UPDATE PromoVersion SET version = version + 1 WHERE id = 1";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            return ps.executeUpdate() > 0;
+        }
+    }
 }
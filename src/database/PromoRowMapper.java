@@ -0,0 +1,37 @@
+package database;
+
+import model.Promo;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * PromoRowMapper
+ *
+ * Mengubah baris tabel Promo menjadi object Promo.
+ */
+public class PromoRowMapper extends RowMapper<Promo> {
+    private static final int ID_PROMO = 0;
+    private static final int CODE = 1;
+    private static final int DISCOUNT_PERCENTAGE = 2;
+    private static final int HEADLINE = 3;
+    private static final int CATEGORY = 4;
+    private static final int MIN_SPEND = 5;
+    private static final int MAX_DISCOUNT = 6;
+
+    public PromoRowMapper() {
+        super("idPromo", "code", "discountPercentage", "headline", "category", "minSpend", "maxDiscount");
+    }
+
+    @Override
+    protected Promo map(ResultSet rs, int[] columns) throws SQLException {
+        return new Promo(
+                rs.getString(columns[ID_PROMO]),
+                rs.getString(columns[CODE]),
+                rs.getDouble(columns[DISCOUNT_PERCENTAGE]),
+                rs.getString(columns[HEADLINE]),
+                rs.getString(columns[CATEGORY]),
+                rs.getDouble(columns[MIN_SPEND]),
+                rs.getDouble(columns[MAX_DISCOUNT])
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package database;
+
+/**
+ * RowCallback
+ *
+ * Penerima baris hasil query yang dibaca secara streaming, satu baris per panggilan.
+ * Baris tidak ditampung di memori oleh DAO, sehingga query besar berjalan dengan
+ * memori tetap.
+ *
+ * @param <T> Tipe object per baris
+ */
+@FunctionalInterface
+public interface RowCallback<T> {
+
+    /**
+     * Memproses satu baris. Melempar exception menghentikan pembacaan.
+     *
+     * @param row Object hasil mapping baris
+     * @throws Exception jika pemrosesan gagal (misalnya gagal menulis file)
+     */
+    void accept(T row) throws Exception;
+}
@@ -0,0 +1,115 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RowMapper
+ *
+ * Base class untuk mengubah baris ResultSet menjadi object model.
+ * Posisi kolom dicari sekali per ResultSet (findColumn), lalu setiap baris
+ * dibaca berdasarkan index sehingga tidak ada lookup nama kolom per baris.
+ *
+ * Subclass cukup menyebutkan nama kolom di constructor dan mengisi map(),
+ * membaca kolom ke-i dari columns[i].
+ *
+ * @param <T> Tipe model yang dihasilkan
+ */
+public abstract class RowMapper<T> {
+    private final String[] columnNames;
+
+    /**
+     * @param columnNames Nama kolom yang dibaca, urutannya menentukan index di map()
+     */
+    protected RowMapper(String... columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    /**
+     * Membuat object model dari baris saat ini
+     *
+     * @param rs ResultSet yang sudah berada di baris yang akan dibaca
+     * @param columns Posisi kolom di ResultSet, sesuai urutan columnNames
+     * @return object model
+     * @throws SQLException jika kolom gagal dibaca
+     */
+    protected abstract T map(ResultSet rs, int[] columns) throws SQLException;
+
+    /**
+     * Mencari posisi semua kolom di ResultSet
+     *
+     * @param rs ResultSet yang akan dibaca
+     * @return posisi kolom sesuai urutan columnNames
+     * @throws SQLException jika ada kolom yang tidak ditemukan
+     */
+    public int[] resolve(ResultSet rs) throws SQLException {
+        int[] columns = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            columns[i] = rs.findColumn(columnNames[i]);
+        }
+        return columns;
+    }
+
+    /**
+     * Membaca baris pertama dari ResultSet
+     *
+     * @param rs ResultSet hasil query
+     * @return object model jika ada baris, null jika ResultSet kosong
+     * @throws SQLException jika gagal membaca
+     */
+    public T mapFirst(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        return map(rs, resolve(rs));
+    }
+
+    /**
+     * Membaca semua baris dari ResultSet
+     *
+     * @param rs ResultSet hasil query
+     * @return List object model, kosong jika tidak ada baris
+     * @throws SQLException jika gagal membaca
+     */
+    public List<T> mapAll(ResultSet rs) throws SQLException {
+        List<T> result = new ArrayList<>();
+        mapAll(rs, result);
+        return result;
+    }
+
+    /**
+     * Membaca semua baris dari ResultSet ke dalam list yang sudah ada
+     *
+     * @param rs ResultSet hasil query
+     * @param target List tujuan
+     * @throws SQLException jika gagal membaca
+     */
+    public void mapAll(ResultSet rs, List<? super T> target) throws SQLException {
+        int[] columns = null;
+        while (rs.next()) {
+            if (columns == null) {
+                columns = resolve(rs);
+            }
+            target.add(map(rs, columns));
+        }
+    }
+
+    /**
+     * Membaca semua baris dari ResultSet satu per satu tanpa menampungnya
+     *
+     * @param rs ResultSet hasil query (sebaiknya forward-only dengan fetch size)
+     * @param callback Penerima setiap object model
+     * @throws Exception jika gagal membaca atau callback melempar exception
+     */
+    public void forEach(ResultSet rs, RowCallback<? super T> callback) throws Exception {
+        int[] columns = null;
+        while (rs.next()) {
+            if (columns == null) {
+                columns = resolve(rs);
+            }
+            callback.accept(map(rs, columns));
+        }
+    }
+}
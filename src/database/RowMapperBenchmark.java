@@ -0,0 +1,83 @@
+package database;
+
+import model.OrderHeader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RowMapperBenchmark
+ *
+ * Membandingkan throughput mapping OrderHeader berdasarkan nama kolom
+ * (cara lama, rs.getString("idOrder") per baris) dengan RowMapper yang memakai
+ * index kolom yang sudah di-resolve. ResultSet berasal dari driver MySQL atas tabel
+ * OrderHeader di database yang dikonfigurasi DatabaseConnection. Driver membuffer seluruh
+ * hasil query, sehingga waktu yang diukur setelah executeQuery hanya biaya mapping.
+ *
+ * Jalankan: java -cp bin:lib/mysql-connector-j-9.5.0/mysql-connector-j-9.5.0.jar database.RowMapperBenchmark [jumlahBaris]
+ */
+class RowMapperBenchmark {
+    private static final String SQL = "SELECT * FROM OrderHeader LIMIT ?";
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        OrderHeaderRowMapper mapper = new OrderHeaderRowMapper();
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement ps = connection.prepareStatement(SQL)) {
+            ps.setInt(1, rows);
+
+            // Pemanasan JIT
+            mapByName(ps.executeQuery());
+            if (mapper.mapAll(ps.executeQuery()).isEmpty()) {
+                System.out.println("Tabel OrderHeader kosong, tidak ada yang diukur");
+                return;
+            }
+
+            for (int round = 1; round <= ROUNDS; round++) {
+                ResultSet rs = ps.executeQuery();
+                long start = System.nanoTime();
+                int byName = mapByName(rs).size();
+                long nameNanos = System.nanoTime() - start;
+
+                rs = ps.executeQuery();
+                start = System.nanoTime();
+                int byIndex = mapper.mapAll(rs).size();
+                long indexNanos = System.nanoTime() - start;
+
+                System.out.printf("Round %d (%,d baris): nama kolom %,d baris/detik | RowMapper %,d baris/detik (%.2fx)%n",
+                        round, byIndex, perSecond(byName, nameNanos), perSecond(byIndex, indexNanos),
+                        (double) nameNanos / indexNanos);
+            }
+        }
+    }
+
+    /**
+     * Mapping dengan cara lama: lookup nama kolom untuk setiap kolom di setiap baris
+     */
+    private static List<OrderHeader> mapByName(ResultSet rs) throws SQLException {
+        List<OrderHeader> orders = new ArrayList<>();
+        while (rs.next()) {
+            Timestamp orderedAt = rs.getTimestamp("orderedAt");
+            orders.add(new OrderHeader(
+                    rs.getString("idOrder"),
+                    rs.getString("idCustomer"),
+                    rs.getString("idPromo"),
+                    rs.getString("status"),
+                    orderedAt != null ? orderedAt.toLocalDateTime() : null,
+                    rs.getDouble("totalAmount")
+            ));
+        }
+        return orders;
+    }
+
+    private static long perSecond(int rows, long nanos) {
+        return (long) (rows / (nanos / 1_000_000_000.0));
+    }
+}
@@ -0,0 +1,329 @@
+package database;
+
+import model.CartLine;
+import model.SalesTotal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SalesSummaryDAO
+ *
+ * Data Access Object untuk tabel ringkasan penjualan yang diperbarui setiap checkout:
+ * SalesDaily (per tanggal), SalesProductDaily (produk x tanggal), SalesCategoryDaily
+ * (kategori x tanggal), dan CustomerSalesTotal (total seumur hidup per customer).
+ * Laporan membaca tabel ringkasan ini, sehingga jumlah baris yang dibaca sebanding dengan
+ * jumlah hari pada rentang laporan, bukan jumlah OrderDetail.
+ *
+ * Semua revenue adalah total yang dibayar (setelah diskon promo). Diskon sebuah order dibagi
+ * ke baris-barisnya sebanding subtotal, sehingga jumlah revenue produk dan kategori sama
+ * dengan revenue harian.
+ *
+ * Setiap checkout menaikkan baris harian dan baris kategori yang sama untuk satu tanggal.
+ * Agar checkout bersamaan tidak antre pada satu baris sampai commit, kedua tabel itu dibagi
+ * ke SLOTS baris per key dan setiap checkout memilih satu slot secara acak; laporan
+ * menjumlahkan semua slot.
+ */
+public class SalesSummaryDAO {
+    // Jumlah baris per tanggal (dan per kategori) untuk menyebar kontensi lock
+    static final int SLOTS = 8;
+
+    // Total harga per order (harga produk saat ini), pembagi untuk membagi totalAmount ke baris
+    private static final String ORDER_GROSS = "(SELECT d2.idOrder, SUM(d2.qty * COALESCE(p2.price, 0)) AS gross "
+            + "FROM OrderDetail d2 LEFT JOIN Product p2 ON p2.idProduct = d2.idProduct GROUP BY d2.idOrder) g";
+
+    // Query backfill dipakai oleh migration (sekali, atas order yang sudah ada) dan oleh rebuild().
+    // Hasil backfill masuk ke slot 0. OrderDetail tidak menyimpan harga saat checkout, sehingga
+    // totalAmount order lama dibagi ke produk berdasarkan harga produk saat ini (perkiraan);
+    // total per order tetap sama dengan totalAmount.
+    static final String BACKFILL_DAILY = "INSERT INTO SalesDaily (salesDate, orderCount, itemCount, revenue) "
+            + "SELECT DATE(o.orderedAt), COUNT(*), COALESCE(SUM(i.items), 0), SUM(o.totalAmount) "
+            + "FROM OrderHeader o LEFT JOIN "
+            + "(SELECT idOrder, SUM(qty) AS items FROM OrderDetail GROUP BY idOrder) i ON i.idOrder = o.idOrder "
+            + "GROUP BY DATE(o.orderedAt) "
+            + "ON DUPLICATE KEY UPDATE orderCount = VALUES(orderCount), itemCount = VALUES(itemCount), "
+            + "revenue = VALUES(revenue)";
+
+    static final String BACKFILL_PRODUCT_DAILY = "INSERT INTO SalesProductDaily "
+            + "(salesDate, idProduct, orderCount, quantity, revenue) "
+            + "SELECT DATE(o.orderedAt), d.idProduct, COUNT(DISTINCT o.idOrder), SUM(d.qty), "
+            + "SUM(IF(g.gross > 0, d.qty * COALESCE(p.price, 0) * o.totalAmount / g.gross, 0)) "
+            + "FROM OrderHeader o JOIN OrderDetail d ON d.idOrder = o.idOrder "
+            + "LEFT JOIN Product p ON p.idProduct = d.idProduct "
+            + "JOIN " + ORDER_GROSS + " ON g.idOrder = o.idOrder "
+            + "GROUP BY DATE(o.orderedAt), d.idProduct "
+            + "ON DUPLICATE KEY UPDATE orderCount = VALUES(orderCount), quantity = VALUES(quantity), "
+            + "revenue = VALUES(revenue)";
+
+    static final String BACKFILL_CATEGORY_DAILY = "INSERT INTO SalesCategoryDaily "
+            + "(salesDate, category, orderCount, quantity, revenue) "
+            + "SELECT DATE(o.orderedAt), COALESCE(p.category, ''), COUNT(DISTINCT o.idOrder), SUM(d.qty), "
+            + "SUM(IF(g.gross > 0, d.qty * COALESCE(p.price, 0) * o.totalAmount / g.gross, 0)) "
+            + "FROM OrderHeader o JOIN OrderDetail d ON d.idOrder = o.idOrder "
+            + "LEFT JOIN Product p ON p.idProduct = d.idProduct "
+            + "JOIN " + ORDER_GROSS + " ON g.idOrder = o.idOrder "
+            + "GROUP BY DATE(o.orderedAt), COALESCE(p.category, '') "
+            + "ON DUPLICATE KEY UPDATE orderCount = VALUES(orderCount), quantity = VALUES(quantity), "
+            + "revenue = VALUES(revenue)";
+
+    static final String BACKFILL_CUSTOMER_TOTAL = "INSERT INTO CustomerSalesTotal "
+            + "(idCustomer, orderCount, itemCount, totalSpent, lastOrderAt) "
+            + "SELECT o.idCustomer, COUNT(*), COALESCE(SUM(i.items), 0), SUM(o.totalAmount), MAX(o.orderedAt) "
+            + "FROM OrderHeader o LEFT JOIN "
+            + "(SELECT idOrder, SUM(qty) AS items FROM OrderDetail GROUP BY idOrder) i ON i.idOrder = o.idOrder "
+            + "GROUP BY o.idCustomer "
+            + "ON DUPLICATE KEY UPDATE orderCount = VALUES(orderCount), itemCount = VALUES(itemCount), "
+            + "totalSpent = VALUES(totalSpent), lastOrderAt = VALUES(lastOrderAt)";
+
+    private static final int NO_SLOT = -1;
+
+    private DatabaseConnection db;
+    private SalesTotalRowMapper totalMapper;
+
+    /**
+     * Constructor untuk SalesSummaryDAO
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
+     */
+    public SalesSummaryDAO() {
+        this.db = DatabaseConnection.getInstance();
+        this.totalMapper = new SalesTotalRowMapper();
+    }
+
+    /**
+     * Menambahkan satu order ke semua tabel ringkasan
+     * Dipanggil sebagai langkah terakhir transaksi checkout agar ringkasan ikut di-commit atau
+     * di-rollback bersama order, dan lock baris ringkasan dipegang sesingkat mungkin. Baris
+     * produk dan kategori diperbarui urut berdasarkan key, sehingga dua checkout bersamaan
+     * mengunci baris dengan urutan yang sama dan tidak saling deadlock.
+     *
+     * @param idCustomer ID customer yang checkout
+     * @param orderedAt Waktu order
+     * @param lines Baris order beserta harga dan kategori produk
+     * @param totalAmount Total yang dibayar (setelah diskon)
+     * @return boolean true jika berhasil, false jika ada baris ringkasan yang gagal disimpan
+     * @throws SQLException jika query gagal
+     */
+    public boolean recordOrder(String idCustomer, LocalDateTime orderedAt, List<CartLine> lines, double totalAmount)
+            throws SQLException {
+        Map<String, double[]> products = new TreeMap<>();     // idProduct -> {qty, revenue}
+        Map<String, double[]> categories = new TreeMap<>();   // category -> {qty, revenue}
+        double gross = 0;
+        for (CartLine line : lines) {
+            gross += line.getSubtotal();
+        }
+        // Diskon dibagi ke setiap baris sebanding subtotalnya
+        double share = gross > 0 ? totalAmount / gross : 0;
+        int items = 0;
+        for (CartLine line : lines) {
+            String category = line.getCategory() != null ? line.getCategory() : "";
+            double revenue = line.getSubtotal() * share;
+            add(products, line.getIdProduct(), line.getCount(), revenue);
+            add(categories, category, line.getCount(), revenue);
+            items += line.getCount();
+        }
+
+        Date salesDate = Date.valueOf(orderedAt.toLocalDate());
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        String dailySql = "INSERT INTO SalesDaily (salesDate, slot, orderCount, itemCount, revenue) "
+                + "VALUES (?, ?, 1, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE orderCount = orderCount + 1, "
+                + "itemCount = itemCount + VALUES(itemCount), revenue = revenue + VALUES(revenue)";
+        String productSql = "INSERT INTO SalesProductDaily (salesDate, idProduct, orderCount, quantity, revenue) "
+                + "VALUES (?, ?, 1, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE orderCount = orderCount + 1, "
+                + "quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue)";
+        String categorySql = "INSERT INTO SalesCategoryDaily (salesDate, category, slot, orderCount, quantity, revenue) "
+                + "VALUES (?, ?, ?, 1, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE orderCount = orderCount + 1, "
+                + "quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue)";
+        String customerSql = "INSERT INTO CustomerSalesTotal (idCustomer, orderCount, itemCount, totalSpent, lastOrderAt) "
+                + "VALUES (?, 1, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE orderCount = orderCount + 1, itemCount = itemCount + VALUES(itemCount), "
+                + "totalSpent = totalSpent + VALUES(totalSpent), "
+                + "lastOrderAt = GREATEST(lastOrderAt, VALUES(lastOrderAt))";
+
+        try (Connection connection = db.getConnection()) {
+            if (!upsertDaily(connection, productSql, salesDate, NO_SLOT, products)
+                    || !upsertDaily(connection, categorySql, salesDate, slot, categories)) {
+                return false;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(customerSql)) {
+                ps.setString(1, idCustomer);
+                ps.setInt(2, items);
+                ps.setDouble(3, totalAmount);
+                ps.setTimestamp(4, Timestamp.valueOf(orderedAt));
+                ps.executeUpdate();
+            }
+            // Baris harian paling banyak diperebutkan, sehingga dikunci paling akhir
+            try (PreparedStatement ps = connection.prepareStatement(dailySql)) {
+                ps.setDate(1, salesDate);
+                ps.setInt(2, slot);
+                ps.setInt(3, items);
+                ps.setDouble(4, totalAmount);
+                ps.executeUpdate();
+            }
+            return true;
+        }
+    }
+
+    private static void add(Map<String, double[]> totals, String key, int qty, double revenue) {
+        double[] total = totals.computeIfAbsent(key, k -> new double[2]);
+        total[0] += qty;
+        total[1] += revenue;
+    }
+
+    /**
+     * Upsert baris ringkasan (tanggal, key[, slot]) untuk setiap key dalam totals
+     *
+     * @param slot Slot baris, atau NO_SLOT untuk tabel tanpa kolom slot
+     */
+    private boolean upsertDaily(Connection connection, String sql, Date salesDate, int slot,
+                                Map<String, double[]> totals) throws SQLException {
+        if (totals.isEmpty()) {
+            return true;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (Map.Entry<String, double[]> entry : totals.entrySet()) {
+                int index = 1;
+                ps.setDate(index++, salesDate);
+                ps.setString(index++, entry.getKey());
+                if (slot != NO_SLOT) {
+                    ps.setInt(index++, slot);
+                }
+                ps.setInt(index++, (int) entry.getValue()[0]);
+                ps.setDouble(index, entry.getValue()[1]);
+                ps.addBatch();
+            }
+            for (int count : ps.executeBatch()) {
+                if (count == Statement.EXECUTE_FAILED) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Menghitung ulang seluruh tabel ringkasan dari OrderHeader dan OrderDetail
+     * Sebaiknya dipanggil di dalam transaksi agar laporan tidak sempat membaca tabel kosong.
+     *
+     * @throws SQLException jika query gagal
+     */
+    public void rebuild() throws SQLException {
+        String[] statements = {
+                "DELETE FROM SalesDaily",
+                "DELETE FROM SalesProductDaily",
+                "DELETE FROM SalesCategoryDaily",
+                "DELETE FROM CustomerSalesTotal",
+                BACKFILL_DAILY,
+                BACKFILL_PRODUCT_DAILY,
+                BACKFILL_CATEGORY_DAILY,
+                BACKFILL_CUSTOMER_TOTAL
+        };
+        try (Connection connection = db.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.executeUpdate(sql);
+            }
+        }
+    }
+
+    /**
+     * Mengambil total penjualan per tanggal dalam rentang tertentu
+     *
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return List<SalesTotal> urut berdasarkan tanggal, hanya tanggal yang ada penjualannya
+     */
+    public List<SalesTotal> getDailyTotals(LocalDate from, LocalDate to) {
+        String sql = "SELECT salesDate AS salesKey, NULL AS label, SUM(orderCount) AS orderCount, "
+                + "SUM(itemCount) AS quantity, SUM(revenue) AS revenue "
+                + "FROM SalesDaily WHERE salesDate BETWEEN ? AND ? GROUP BY salesDate ORDER BY salesDate";
+        return queryTotals(sql, from, to, 0);
+    }
+
+    /**
+     * Mengambil total penjualan per kategori dalam rentang tanggal tertentu
+     *
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return List<SalesTotal> urut dari revenue terbesar
+     */
+    public List<SalesTotal> getCategoryTotals(LocalDate from, LocalDate to) {
+        String sql = "SELECT category AS salesKey, IF(category = '', 'Tanpa kategori', category) AS label, "
+                + "SUM(orderCount) AS orderCount, SUM(quantity) AS quantity, SUM(revenue) AS revenue "
+                + "FROM SalesCategoryDaily WHERE salesDate BETWEEN ? AND ? "
+                + "GROUP BY category ORDER BY revenue DESC";
+        return queryTotals(sql, from, to, 0);
+    }
+
+    /**
+     * Mengambil produk dengan revenue terbesar dalam rentang tanggal tertentu
+     *
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @param limit Jumlah produk maksimum
+     * @return List<SalesTotal> urut dari revenue terbesar
+     */
+    public List<SalesTotal> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        String sql = "SELECT s.idProduct AS salesKey, p.name AS label, SUM(s.orderCount) AS orderCount, "
+                + "SUM(s.quantity) AS quantity, SUM(s.revenue) AS revenue "
+                + "FROM SalesProductDaily s LEFT JOIN Product p ON p.idProduct = s.idProduct "
+                + "WHERE s.salesDate BETWEEN ? AND ? "
+                + "GROUP BY s.idProduct, p.name ORDER BY revenue DESC LIMIT ?";
+        return queryTotals(sql, from, to, limit);
+    }
+
+    /**
+     * Mengambil customer dengan total belanja seumur hidup terbesar
+     * Memakai index totalSpent sehingga hanya baris yang ditampilkan yang dibaca.
+     *
+     * @param limit Jumlah customer maksimum
+     * @return List<SalesTotal> urut dari total belanja terbesar
+     */
+    public List<SalesTotal> getTopCustomers(int limit) {
+        List<SalesTotal> totals = new ArrayList<>();
+        String sql = "SELECT t.idCustomer AS salesKey, u.fullName AS label, t.orderCount, "
+                + "t.itemCount AS quantity, t.totalSpent AS revenue "
+                + "FROM CustomerSalesTotal t JOIN Customer c ON c.idCustomer = t.idCustomer "
+                + "JOIN User u ON u.idUser = c.idUser "
+                + "ORDER BY t.totalSpent DESC LIMIT ?";
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            ResultSet rs = ps.executeQuery();
+            totalMapper.mapAll(rs, totals);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return totals;
+    }
+
+    private List<SalesTotal> queryTotals(String sql, LocalDate from, LocalDate to, int limit) {
+        List<SalesTotal> totals = new ArrayList<>();
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            if (limit > 0) {
+                ps.setInt(3, limit);
+            }
+            ResultSet rs = ps.executeQuery();
+            totalMapper.mapAll(rs, totals);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return totals;
+    }
+}
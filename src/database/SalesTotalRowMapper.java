@@ -0,0 +1,36 @@
+package database;
+
+import model.SalesTotal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * SalesTotalRowMapper
+ *
+ * Mengubah baris laporan dari tabel ringkasan penjualan menjadi object SalesTotal.
+ * Setiap query laporan memberi alias kolom salesKey, label, orderCount, quantity, dan revenue.
+ */
+public class SalesTotalRowMapper extends RowMapper<SalesTotal> {
+    private static final int SALES_KEY = 0;
+    private static final int LABEL = 1;
+    private static final int ORDER_COUNT = 2;
+    private static final int QUANTITY = 3;
+    private static final int REVENUE = 4;
+
+    public SalesTotalRowMapper() {
+        super("salesKey", "label", "orderCount", "quantity", "revenue");
+    }
+
+    @Override
+    protected SalesTotal map(ResultSet rs, int[] columns) throws SQLException {
+        String key = rs.getString(columns[SALES_KEY]);
+        String label = rs.getString(columns[LABEL]);
+        return new SalesTotal(
+                key,
+                label != null ? label : key,
+                rs.getInt(columns[ORDER_COUNT]),
+                rs.getInt(columns[QUANTITY]),
+                rs.getDouble(columns[REVENUE])
+        );
+    }
+}
@@ -0,0 +1,248 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StatementCache
+ *
+ * Cache LRU PreparedStatement untuk satu koneksi fisik, dengan key teks SQL.
+ * PreparedStatement yang dikembalikan adalah proxy: memanggil close() hanya
+ * menutup ResultSet yang terbuka dan membersihkan parameter, lalu statement
+ * disimpan kembali untuk dipakai ulang oleh query dengan SQL yang sama.
+ *
+ * Pengaturan statement (fetch size, max rows, query timeout, dll.) dikembalikan ke nilai
+ * awal saat statement kembali ke cache, sehingga tidak terbawa ke pemakai berikutnya.
+ * Statement yang pengaturannya tidak bisa dikembalikan dibuang dari cache.
+ *
+ * Tidak thread-safe secara terpisah; dipakai di bawah satu peminjaman koneksi.
+ */
+class StatementCache {
+    // Setter yang nilainya dikembalikan ke nilai awal di returnToCache
+    private static final Set<String> RESETTABLE_SETTINGS = new HashSet<>(Arrays.asList(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows",
+            "setMaxFieldSize", "setQueryTimeout"));
+
+    // Setter yang nilai awalnya tidak bisa dibaca kembali; statement tidak dipakai ulang
+    private static final Set<String> UNCACHEABLE_SETTINGS = new HashSet<>(Arrays.asList(
+            "setCursorName", "setEscapeProcessing", "setPoolable", "closeOnCompletion"));
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;      // Counter hit bersama untuk seluruh pool
+    private final AtomicLong misses;    // Counter miss bersama untuk seluruh pool
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * @param physical Koneksi fisik pemilik statement
+     * @param maxSize Jumlah statement maksimum yang disimpan
+     * @param hits Counter cache hit
+     * @param misses Counter cache miss
+     */
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Mendapatkan PreparedStatement untuk SQL dari cache, atau menyiapkan yang baru
+     * Jika statement dengan SQL yang sama sedang dipakai (misalnya query bersarang),
+     * statement baru tanpa cache dikembalikan.
+     *
+     * @param sql Query SQL
+     * @return PreparedStatement proxy yang siap dipakai
+     * @throws SQLException jika statement gagal disiapkan
+     */
+    synchronized PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.handle;
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (cached != null || maxSize <= 0) {
+            return statement;
+        }
+        try {
+            cached = new CachedStatement(statement);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        cached.inUse = true;
+        statements.put(sql, cached);
+        return cached.handle;
+    }
+
+    /**
+     * Menutup semua statement yang tersimpan, dipanggil saat koneksi fisik dibuang
+     */
+    synchronized void clear() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    /**
+     * @return jumlah statement yang tersimpan di cache
+     */
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * CachedStatement
+     *
+     * Satu PreparedStatement fisik beserta proxy yang diberikan ke DAO.
+     */
+    private final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement handle;
+        private ResultSet openResult;    // ResultSet terakhir dari executeQuery
+        private boolean inUse;
+        private boolean evicted;
+        private boolean tuned;           // Ada pengaturan yang diubah pemakai saat ini
+        private boolean uncacheable;     // Ada pengaturan yang tidak bisa dikembalikan
+
+        // Nilai awal pengaturan statement, dibaca sekali saat statement dibuat
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int queryTimeout;
+
+        private CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.maxRows = statement.getMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.queryTimeout = statement.getQueryTimeout();
+            this.handle = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                synchronized (StatementCache.this) {
+                    returnToCache();
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                synchronized (StatementCache.this) {
+                    return !inUse || statement.isClosed();
+                }
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return "CachedStatement[" + statement + "]";
+            }
+            if (RESETTABLE_SETTINGS.contains(name)) {
+                tuned = true;
+            } else if (UNCACHEABLE_SETTINGS.contains(name)) {
+                uncacheable = true;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                openResult = (ResultSet) result;
+            }
+            return result;
+        }
+
+        /**
+         * Menyiapkan statement untuk dipakai ulang, atau menutupnya jika sudah dikeluarkan dari cache
+         */
+        private void returnToCache() throws SQLException {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            if (uncacheable && !evicted) {
+                // Pengaturan yang tidak bisa dikembalikan: statement tidak dipakai ulang
+                statements.values().remove(this);
+                evicted = true;
+            }
+            if (evicted) {
+                statement.close();
+                return;
+            }
+            try {
+                if (openResult != null) {
+                    openResult.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                if (tuned) {
+                    statement.setFetchSize(fetchSize);
+                    statement.setFetchDirection(fetchDirection);
+                    statement.setMaxRows(maxRows);
+                    statement.setMaxFieldSize(maxFieldSize);
+                    statement.setQueryTimeout(queryTimeout);
+                    tuned = false;
+                }
+            } catch (SQLException e) {
+                // Statement tidak bisa dipakai ulang, buang dari cache
+                evict();
+                statements.values().remove(this);
+            } finally {
+                openResult = null;
+            }
+        }
+
+        /**
+         * Mengeluarkan statement dari cache; ditutup sekarang jika tidak sedang dipakai
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // Statement sudah tidak valid, tidak ada yang perlu dilakukan
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package database;
+
+import java.sql.SQLException;
+
+/**
+ * TransactionCallback
+ *
+ * Unit kerja yang dijalankan di dalam satu transaksi database
+ * melalui DatabaseConnection.inTransaction. Unit kerja bisa dijalankan lebih dari
+ * sekali jika server membatalkan transaksi (deadlock), jadi harus aman diulang.
+ *
+ * @param <T> Tipe hasil dari unit kerja
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+
+    /**
+     * Menjalankan unit kerja. Melempar exception akan me-rollback transaksi.
+     *
+     * @return hasil dari unit kerja
+     * @throws SQLException jika terjadi error atau transaksi perlu dibatalkan
+     */
+    T execute() throws SQLException;
+}
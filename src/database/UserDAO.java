@@ -15,19 +15,22 @@ import java.util.List;
  * Menangani semua transaksi database untuk tabel User.
  */
 public class UserDAO {
-    private Connection connection;
+    private DatabaseConnection db;
+    private UserRowMapper userMapper;
 
     /**
      * Constructor untuk UserDAO
-     * Menginisialisasi koneksi dari DatabaseConnection singleton
+     * Menyimpan referensi ke DatabaseConnection singleton (connection pool)
      */
     public UserDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.db = DatabaseConnection.getInstance();
+        this.userMapper = new UserRowMapper();
     }
 
     /**
      * Generate unique ID untuk User dengan prefix sesuai role
      * Format: USR_XXXXX (untuk customer), COUR_XXXXX (untuk courier), ADM_XXXXX (untuk admin)
+     * ID diambil dari IdAllocator (blok counter di memori), tanpa scan tabel
      * 
      * @param role Role user (customer, courier, admin)
      * @return String ID yang unik
@@ -47,18 +50,8 @@ public class UserDAO {
                 break;
         }
         
-        String sql = "SELECT MAX(CAST(SUBSTRING(idUser, 6) AS UNSIGNED)) as maxId FROM User WHERE idUser LIKE ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, prefix + "%");
-            ResultSet rs = ps.executeQuery();
-            int nextId = 1;
-            if (rs.next()) {
-                int maxId = rs.getInt("maxId");
-                if (maxId > 0) {
-                    nextId = maxId + 1;
-                }
-            }
-            return String.format("%s_%05d", prefix, nextId);
+        try {
+            return IdAllocator.getInstance().nextId(prefix, "User", "idUser");
         } catch (SQLException e) {
             e.printStackTrace();
             return prefix + "_00001";
@@ -83,7 +76,8 @@ public class UserDAO {
      */
     public boolean insertUser(User user) {
         String sql = "INSERT INTO User (idUser, fullName, email, password, phone, address, role) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, user.getIdUser());
             ps.setString(2, user.getFullName());
             ps.setString(3, user.getEmail());
@@ -106,20 +100,11 @@ public class UserDAO {
      */
     public User getUserById(String idUser) {
         String sql = "SELECT * FROM User WHERE idUser = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idUser);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getString("idUser"),
-                        rs.getString("fullName"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("phone"),
-                        rs.getString("address"),
-                        rs.getString("role")
-                );
-            }
+            return userMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -134,20 +119,11 @@ public class UserDAO {
      */
     public User getUserByCustomerId(String idCustomer) {
         String sql = "SELECT u.* FROM User u JOIN Customer c ON u.idUser = c.idUser WHERE c.idCustomer = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idCustomer);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getString("idUser"),
-                        rs.getString("fullName"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("phone"),
-                        rs.getString("address"),
-                        rs.getString("role")
-                );
-            }
+            return userMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -162,20 +138,11 @@ public class UserDAO {
      */
     public User getUserByEmail(String email) {
         String sql = "SELECT * FROM User WHERE email = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, email);
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getString("idUser"),
-                        rs.getString("fullName"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("phone"),
-                        rs.getString("address"),
-                        rs.getString("role")
-                );
-            }
+            return userMapper.mapFirst(rs);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -190,19 +157,10 @@ public class UserDAO {
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
         String sql = "SELECT * FROM User";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                users.add(new User(
-                        rs.getString("idUser"),
-                        rs.getString("fullName"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("phone"),
-                        rs.getString("address"),
-                        rs.getString("role")
-                ));
-            }
+            userMapper.mapAll(rs, users);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -217,7 +175,8 @@ public class UserDAO {
      */
     public boolean updateUser(User user) {
         String sql = "UPDATE User SET fullName = ?, email = ?, password = ?, phone = ?, address = ?, role = ? WHERE idUser = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, user.getFullName());
             ps.setString(2, user.getEmail());
             ps.setString(3, user.getPassword());
@@ -240,7 +199,8 @@ public class UserDAO {
      */
     public boolean deleteUser(String idUser) {
         String sql = "DELETE FROM User WHERE idUser = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idUser);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -257,7 +217,8 @@ public class UserDAO {
      */
     public boolean emailExists(String email) {
         String sql = "SELECT * FROM User WHERE email = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, email);
             ResultSet rs = ps.executeQuery();
             return rs.next();
@@ -275,7 +236,8 @@ public class UserDAO {
      */
     public boolean idExists(String idUser) {
         String sql = "SELECT * FROM User WHERE idUser = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, idUser);
             ResultSet rs = ps.executeQuery();
             return rs.next();
@@ -0,0 +1,37 @@
+package database;
+
+import model.User;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * UserRowMapper
+ *
+ * Mengubah baris tabel User menjadi object User.
+ */
+public class UserRowMapper extends RowMapper<User> {
+    private static final int ID_USER = 0;
+    private static final int FULL_NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PASSWORD = 3;
+    private static final int PHONE = 4;
+    private static final int ADDRESS = 5;
+    private static final int ROLE = 6;
+
+    public UserRowMapper() {
+        super("idUser", "fullName", "email", "password", "phone", "address", "role");
+    }
+
+    @Override
+    protected User map(ResultSet rs, int[] columns) throws SQLException {
+        return new User(
+                rs.getString(columns[ID_USER]),
+                rs.getString(columns[FULL_NAME]),
+                rs.getString(columns[EMAIL]),
+                rs.getString(columns[PASSWORD]),
+                rs.getString(columns[PHONE]),
+                rs.getString(columns[ADDRESS]),
+                rs.getString(columns[ROLE])
+        );
+    }
+}
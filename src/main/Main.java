@@ -1,16 +1,21 @@
 package main;
 
 import javafx.application.Application;
+import javafx.scene.Scene;
 import javafx.stage.Stage;
 import view.*;
 import view.AdminOrderDetailView;
 
+import java.util.function.Supplier;
+
 
 
 /**
  * Main - Entry point aplikasi JoymarKet dengan Navigation Controller
  */
 public class Main extends Application implements NavigationListener {
+    private static final int VIEW_CACHE_SIZE = 8;   // Jumlah view daftar/detail yang disimpan untuk dipakai ulang
+
     // State aplikasi saat ini
     private Stage primaryStage;
     private String currentView = "ADMIN_LIST";
@@ -21,6 +26,9 @@ public class Main extends Application implements NavigationListener {
     private String currentProductId = null;
     private String currentCartId = null;
 
+    // View yang terakhir dibuka, dipakai ulang saat navigasi (termasuk goBack) dengan refresh()
+    private final ViewCache viewCache = new ViewCache(VIEW_CACHE_SIZE);
+
     /**
      * Memulai aplikasi dan menampilkan jendela utama
      */
@@ -33,9 +41,24 @@ public class Main extends Application implements NavigationListener {
         primaryStage.setHeight(700);
         primaryStage.setResizable(true);
         
-        // Start with product list for admin (hardcoded adminId for testing)
+        // Login tampil lebih dulu; koneksi database dan katalog disiapkan di background
         navigateTo("LOGIN");
+        reportFirstFrame(primaryStage.getScene());
         primaryStage.show();
+        StartupWarmUp.start();
+    }
+
+    /**
+     * Melaporkan time-to-first-frame setelah pulse layout pertama scene login
+     */
+    private void reportFirstFrame(Scene scene) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                StartupMetrics.firstFrameShown();
+            }
+        });
     }
 
     /**
@@ -44,15 +67,17 @@ public class Main extends Application implements NavigationListener {
     @Override
     public void navigateTo(String viewName, String... params) {
         try {
+            // Batalkan load data milik view sebelumnya yang belum selesai
+            AsyncLoader.cancelPending();
             currentView = viewName;
             
             switch(viewName) {
             case "ADMIN_LIST":
-                AdminProductListView adminListView = new AdminProductListView(currentAdminId);
-                adminListView.setNavigationListener(this);   // ✅ TAMBAH INI
-                primaryStage.setScene(adminListView.getScene());
-                primaryStage.setWidth(1100);
-                primaryStage.setHeight(700);
+                showCached(1100, 700, () -> {
+                    AdminProductListView adminListView = new AdminProductListView(currentAdminId);
+                    adminListView.setNavigationListener(this);   // ✅ TAMBAH INI
+                    return adminListView;
+                }, viewName, currentAdminId);
                 break;
                     
                 case "ADMIN_DETAIL":
@@ -72,11 +97,11 @@ public class Main extends Application implements NavigationListener {
                     if (params.length > 0) {
                         currentCustomerId = params[0];
                     }
-                    CustomerProductListView custListView = new CustomerProductListView(currentCustomerId);
-                    custListView.setNavigationListener(this);
-                    primaryStage.setScene(custListView.getScene());
-                    primaryStage.setWidth(1000);
-                    primaryStage.setHeight(700);
+                    showCached(1000, 700, () -> {
+                        CustomerProductListView custListView = new CustomerProductListView(currentCustomerId);
+                        custListView.setNavigationListener(this);
+                        return custListView;
+                    }, viewName, currentCustomerId);
                     break;
                     
                 case "CUSTOMER_DETAIL":
@@ -92,6 +117,8 @@ public class Main extends Application implements NavigationListener {
                     break;
                     
                 case "LOGIN":
+                    // Login ulang / logout: view milik user sebelumnya tidak boleh dipakai ulang
+                    viewCache.clear();
                     LoginView loginView = new LoginView();
                     loginView.setNavigationListener(this);
                     primaryStage.setScene(loginView.getScene());
@@ -110,11 +137,11 @@ public class Main extends Application implements NavigationListener {
                 case "CART":
                     if (params.length > 0) {
                         currentCustomerId = params[0];
-                        CartView cartView = new CartView(currentCustomerId);
-                        cartView.setNavigationListener(this);
-                        primaryStage.setScene(cartView.getScene());
-                        primaryStage.setWidth(900);
-                        primaryStage.setHeight(700);
+                        showCached(900, 700, () -> {
+                            CartView cartView = new CartView(currentCustomerId);
+                            cartView.setNavigationListener(this);
+                            return cartView;
+                        }, viewName, currentCustomerId);
                     }
                     break;
 
@@ -134,11 +161,11 @@ public class Main extends Application implements NavigationListener {
                     if (params.length > 0) {
                         currentCourierId = params[0];
                     }
-                    CourierListView courierListView = new CourierListView(currentCourierId);
-                    courierListView.setNavigationListener(this);
-                    primaryStage.setScene(courierListView.getScene());
-                    primaryStage.setWidth(1000);
-                    primaryStage.setHeight(700);
+                    showCached(1000, 700, () -> {
+                        CourierListView courierListView = new CourierListView(currentCourierId);
+                        courierListView.setNavigationListener(this);
+                        return courierListView;
+                    }, viewName, String.valueOf(currentCourierId));
                     break;
                     
                 case "COURIER_DETAIL":
@@ -165,49 +192,57 @@ public class Main extends Application implements NavigationListener {
                     break;
                     
                 case "ADMIN_ORDERS":
-                    AdminOrderListView adminOrderView = new AdminOrderListView(currentAdminId);
-                    adminOrderView.setNavigationListener(this);
-                    primaryStage.setScene(adminOrderView.getScene());
-                    primaryStage.setWidth(1100);
-                    primaryStage.setHeight(720);
+                    showCached(1100, 720, () -> {
+                        AdminOrderListView adminOrderView = new AdminOrderListView(currentAdminId);
+                        adminOrderView.setNavigationListener(this);
+                        return adminOrderView;
+                    }, viewName, currentAdminId);
                     break;
                     
                 case "ADMIN_ORDER_DETAIL":
                     if (params.length > 0) {
                         String orderId = params[0];
-                        AdminOrderDetailView detailView = new AdminOrderDetailView(orderId);
-                        detailView.setNavigationListener(this);
-                        primaryStage.setScene(detailView.getScene());
-                        primaryStage.setWidth(900);
-                        primaryStage.setHeight(600);
+                        showCached(900, 600, () -> {
+                            AdminOrderDetailView detailView = new AdminOrderDetailView(orderId);
+                            detailView.setNavigationListener(this);
+                            return detailView;
+                        }, viewName, orderId);
                     }
                     break;
                     
                 case "COURIER_ORDER_DETAIL":
                     if (params.length > 0) {
                         String orderId = params[0];
-                        AdminOrderDetailView detailView = new AdminOrderDetailView(orderId);
-                        detailView.setNavigationListener(this);
-                        primaryStage.setScene(detailView.getScene());
-                        primaryStage.setWidth(900);
-                        primaryStage.setHeight(600);
+                        showCached(900, 600, () -> {
+                            AdminOrderDetailView detailView = new AdminOrderDetailView(orderId);
+                            detailView.setNavigationListener(this);
+                            return detailView;
+                        }, viewName, orderId);
                     }
                     break;
                     
                 case "ADMIN_COURIER_LIST":
-                    CourierListView adminCourierListView = new CourierListView(null);
-                    adminCourierListView.setNavigationListener(this);
-                    primaryStage.setScene(adminCourierListView.getScene());
-                    primaryStage.setWidth(1000);
-                    primaryStage.setHeight(700);
+                    showCached(1000, 700, () -> {
+                        CourierListView adminCourierListView = new CourierListView(null);
+                        adminCourierListView.setNavigationListener(this);
+                        return adminCourierListView;
+                    }, viewName);
                     break;
 
                 case "ADMIN_VIEWALL_COURIERS":
-                    AdminCourierMasterView courierMasterView = new AdminCourierMasterView();
-                    courierMasterView.setNavigationListener(this);
-                    primaryStage.setScene(courierMasterView.getScene());
-                    primaryStage.setWidth(800);
-                    primaryStage.setHeight(600);
+                    showCached(800, 600, () -> {
+                        AdminCourierMasterView courierMasterView = new AdminCourierMasterView();
+                        courierMasterView.setNavigationListener(this);
+                        return courierMasterView;
+                    }, viewName);
+                    break;
+
+                case "ADMIN_SALES_REPORT":
+                    showCached(1000, 650, () -> {
+                        AdminSalesReportView salesReportView = new AdminSalesReportView();
+                        salesReportView.setNavigationListener(this);
+                        return salesReportView;
+                    }, viewName);
                     break;
 
 
@@ -225,11 +260,11 @@ public class Main extends Application implements NavigationListener {
                 case "CUSTOMER_ORDER_HISTORY":
                 	if (params.length > 0) {
                         currentCustomerId = params[0];
-                        CustomerOrderHistoryView customerOrderHistoryView = new CustomerOrderHistoryView(currentCustomerId);
-                        customerOrderHistoryView.setNavigationListener(this);
-                        primaryStage.setScene(customerOrderHistoryView.getScene());
-                        primaryStage.setWidth(870);
-                        primaryStage.setHeight(620);
+                        showCached(870, 620, () -> {
+                            CustomerOrderHistoryView customerOrderHistoryView = new CustomerOrderHistoryView(currentCustomerId);
+                            customerOrderHistoryView.setNavigationListener(this);
+                            return customerOrderHistoryView;
+                        }, viewName, currentCustomerId);
                     }
                 	break;
             }
@@ -238,6 +273,24 @@ public class Main extends Application implements NavigationListener {
         }
     }
 
+    /**
+     * Menampilkan view dari ViewCache jika ada (cukup refresh data), atau membuat view baru
+     * lewat factory lalu menyimpannya ke cache
+     */
+    private void showCached(double width, double height, Supplier<RefreshableView> factory,
+                            String viewName, String... keyParams) {
+        RefreshableView view = viewCache.get(viewName, keyParams);
+        if (view != null) {
+            view.refresh();
+        } else {
+            view = factory.get();
+            viewCache.put(view, viewName, keyParams);
+        }
+        primaryStage.setScene(view.getScene());
+        primaryStage.setWidth(width);
+        primaryStage.setHeight(height);
+    }
+
     /**
      * Menavigasi kembali ke tampilan sebelumnya berdasarkan konteks saat ini
      */
@@ -252,6 +305,8 @@ public class Main extends Application implements NavigationListener {
         	navigateTo("ADMIN_ORDERS");
         } else if ("ADMIN_VIEWALL_COURIERS".equals(currentView)) {
             navigateTo("ADMIN_LIST");
+        } else if ("ADMIN_SALES_REPORT".equals(currentView)) {
+            navigateTo("ADMIN_LIST");
         }else if ("CUSTOMER_DETAIL".equals(currentView)) {
             navigateTo("CUSTOMER_LIST", currentCustomerId);
         } else if ("CART".equals(currentView)) {
@@ -0,0 +1,71 @@
+package main;
+
+import controller.CourierHandler;
+import controller.CustomerHandler;
+import controller.ProductHandler;
+import controller.UserHandler;
+import database.DatabaseConnection;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+import view.StartupMetrics;
+
+/**
+ * StartupWarmUp - Menyiapkan database dan katalog di background saat aplikasi start
+ *
+ * Dijalankan setelah LoginView tampil, selama pengguna mengetik email dan password:
+ * 1. Membuka pool, menerapkan migration, dan memvalidasi koneksi minimum
+ * 2. Menyiapkan statement yang dipakai login (lookup user, customer, dan courier)
+ * 3. Memuat katalog produk ke ProductCache dan ProductSearchIndex
+ * Jika pengguna login sebelum warm-up selesai, query login cukup menunggu pool siap.
+ * Jika database tidak bisa disiapkan (koneksi gagal atau migration skema gagal),
+ * aplikasi ditutup dengan pesan error alih-alih berjalan dengan skema lama.
+ */
+final class StartupWarmUp {
+    private StartupWarmUp() {
+    }
+
+    /**
+     * Menjalankan warm-up di daemon thread terpisah (tidak memblok FX thread)
+     */
+    static void start() {
+        Thread thread = new Thread(StartupWarmUp::run, "startup-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static void run() {
+        try {
+            long start = System.nanoTime();
+            if (!DatabaseConnection.getInstance().warmUp()) {
+                Platform.runLater(StartupWarmUp::failStartup);
+                return;
+            }
+            StartupMetrics.warmUpStep("koneksi database", start);
+
+            // Query dengan parameter kosong: tidak mengembalikan data, hanya menyiapkan statement di koneksi
+            start = System.nanoTime();
+            new UserHandler().getUserByEmail("");
+            new CustomerHandler().getCustomerByUserId("");
+            new CourierHandler().getCourierByUserId("");
+            StartupMetrics.warmUpStep("statement login", start);
+
+            start = System.nanoTime();
+            new ProductHandler().preloadCatalog();
+            StartupMetrics.warmUpStep("katalog produk", start);
+        } catch (RuntimeException e) {
+            // Warm-up hanya optimasi; kegagalan akan muncul lagi saat query sebenarnya dijalankan
+            e.printStackTrace();
+        }
+    }
+
+    private static void failStartup() {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Database Error");
+        alert.setHeaderText(null);
+        alert.setContentText("Database tidak dapat disiapkan (koneksi atau migration skema gagal). "
+                + "Periksa MySQL dan log aplikasi, lalu jalankan ulang aplikasi.");
+        alert.showAndWait();
+        Platform.exit();
+    }
+}
@@ -0,0 +1,97 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * BalanceTransaction Model
+ *
+ * Merepresentasikan satu entri buku besar saldo customer (saldo awal, top up, atau debit).
+ * Entri tidak pernah diubah atau dihapus; saldo customer adalah hasil penjumlahan
+ * seluruh entrinya, dan balanceAfter mencatat saldo tepat setelah entri diterapkan.
+ */
+public class BalanceTransaction {
+    public static final String TYPE_OPENING = "opening";   // Saldo awal sebelum buku besar dipakai
+    public static final String TYPE_TOPUP = "topup";
+    public static final String TYPE_DEBIT = "debit";
+
+    private String idTransaction;   // ID unik entri
+    private String idCustomer;      // ID customer pemilik saldo
+    private String type;            // Jenis entri (opening/topup/debit)
+    private double amount;          // Perubahan saldo (Rp), negatif untuk debit
+    private double balanceAfter;    // Saldo customer setelah entri ini (Rp)
+    private String idOrder;         // ID order terkait (boleh null)
+    private LocalDateTime createdAt; // Waktu entri dicatat
+
+    /**
+     * Constructor default untuk BalanceTransaction
+     */
+    public BalanceTransaction() {
+    }
+
+    public BalanceTransaction(String idTransaction, String idCustomer, String type, double amount,
+                              double balanceAfter, String idOrder, LocalDateTime createdAt) {
+        this.idTransaction = idTransaction;
+        this.idCustomer = idCustomer;
+        this.type = type;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.idOrder = idOrder;
+        this.createdAt = createdAt;
+    }
+
+    public String getIdTransaction() {
+        return idTransaction;
+    }
+
+    public void setIdTransaction(String idTransaction) {
+        this.idTransaction = idTransaction;
+    }
+
+    public String getIdCustomer() {
+        return idCustomer;
+    }
+
+    public void setIdCustomer(String idCustomer) {
+        this.idCustomer = idCustomer;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public double getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(double balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    public String getIdOrder() {
+        return idOrder;
+    }
+
+    public void setIdOrder(String idOrder) {
+        this.idOrder = idOrder;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
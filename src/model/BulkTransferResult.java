@@ -0,0 +1,113 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BulkTransferResult Model
+ *
+ * Ringkasan satu import atau export CSV: jumlah baris per hasil, lama proses
+ * untuk menghitung throughput, dan beberapa pesan error pertama.
+ * Untuk export hanya rows yang terisi.
+ */
+public class BulkTransferResult {
+    public static final int MAX_ERRORS = 20;   // Pesan error yang disimpan; sisanya hanya dihitung
+
+    private int rows;             // Baris data yang dibaca (import) atau ditulis (export)
+    private int inserted;         // Produk baru
+    private int updated;          // Produk yang isinya berubah
+    private int unchanged;        // Produk yang dilewati karena isinya sama
+    private int rejected;         // Baris yang tidak valid
+    private boolean completed;    // false jika proses berhenti di tengah karena error
+    private long elapsedNanos;    // Lama proses (ns)
+    private final List<String> errors = new ArrayList<>();
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void addRows(int count) {
+        rows += count;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void addInserted(int count) {
+        inserted += count;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void addUpdated(int count) {
+        updated += count;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void addUnchanged(int count) {
+        unchanged += count;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Mencatat satu baris yang ditolak beserta alasannya
+     *
+     * @param error Pesan error (misalnya nomor baris dan field yang salah)
+     */
+    public void reject(String error) {
+        rejected++;
+        addError(error);
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return throughput dalam baris per detik, 0 jika belum ada baris
+     */
+    public double getRowsPerSecond() {
+        if (rows == 0 || elapsedNanos <= 0) {
+            return 0;
+        }
+        return rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public void addError(String error) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d baris dalam %d ms (%.0f baris/detik): %d baru, %d diubah, %d sama, %d ditolak",
+                rows, getElapsedMillis(), getRowsPerSecond(), inserted, updated, unchanged, rejected);
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+/**
+ * CartLine Model
+ * 
+ * Merepresentasikan satu baris keranjang belanja beserta data produknya
+ * (nama, harga, kategori, dan stok saat ini), hasil join CartItem dengan Product.
+ * Dipakai untuk menampilkan cart dan checkout tanpa query produk per baris.
+ */
+public class CartLine extends CartItem {
+    private String productName;    // Nama produk
+    private double price;          // Harga satuan produk (Rp)
+    private int stock;             // Stok produk saat data dibaca
+    private String category;       // Kategori produk (untuk aturan promo per kategori)
+
+    /**
+     * Constructor default untuk CartLine
+     */
+    public CartLine() {
+    }
+
+    public CartLine(String idCartItem, String idCustomer, String idProduct, int count,
+                    String productName, double price, int stock, String category) {
+        super(idCartItem, idCustomer, idProduct, count);
+        this.productName = productName;
+        this.price = price;
+        this.stock = stock;
+        this.category = category;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    /**
+     * Menghitung subtotal baris (harga x jumlah)
+     *
+     * @return subtotal dalam Rupiah
+     */
+    public double getSubtotal() {
+        return price * getCount();
+    }
+}
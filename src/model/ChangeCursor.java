@@ -0,0 +1,29 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * ChangeCursor Model
+ * 
+ * Posisi terakhir sebuah change feed, berupa pasangan (updatedAt, id) dari baris
+ * terakhir yang sudah diterapkan. Polling berikutnya hanya membaca baris setelah
+ * posisi ini, sehingga banyak baris dengan updatedAt yang sama tetap bisa dilewati
+ * satu per satu berdasarkan id.
+ */
+public class ChangeCursor {
+    private final LocalDateTime updatedAt;   // updatedAt baris terakhir
+    private final String id;                 // Primary key baris terakhir (pemisah jika updatedAt sama)
+
+    public ChangeCursor(LocalDateTime updatedAt, String id) {
+        this.updatedAt = updatedAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,64 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChangeSet Model
+ *
+ * Baris yang berubah (insert atau update) setelah posisi tertentu, berdasarkan kolom
+ * updatedAt. version adalah posisi baru yang dipakai untuk polling berikutnya.
+ * truncated bernilai true jika perubahan lebih banyak dari batas satu polling;
+ * pemanggil sebaiknya memuat ulang datanya secara penuh.
+ *
+ * positions berisi posisi urutan halaman (orderedAt, idOrder) setiap item, sejajar
+ * dengan items, agar view bisa menilai apakah baris baru termasuk halaman yang dibuka.
+ *
+ * @param <T> Tipe item yang berubah
+ */
+public class ChangeSet<T> {
+    private final List<T> items;             // Baris yang berubah, urut dari perubahan terlama
+    private final List<PageCursor> positions; // Posisi urutan halaman tiap item
+    private final ChangeCursor version;      // Posisi untuk polling berikutnya
+    private final boolean truncated;         // true jika tidak semua perubahan ikut terbaca
+
+    public ChangeSet(List<T> items, List<PageCursor> positions, ChangeCursor version, boolean truncated) {
+        this.items = items;
+        this.positions = positions;
+        this.version = version;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Membuat ChangeSet kosong tanpa perubahan posisi
+     *
+     * @param version Posisi yang dipakai pada polling sebelumnya
+     * @return ChangeSet kosong
+     */
+    public static <T> ChangeSet<T> empty(ChangeCursor version) {
+        return new ChangeSet<>(new ArrayList<>(), new ArrayList<>(), version, false);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public List<PageCursor> getPositions() {
+        return positions;
+    }
+
+    public ChangeCursor getVersion() {
+        return version;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return true jika tidak ada baris yang berubah
+     */
+    public boolean isEmpty() {
+        return items.isEmpty() && !truncated;
+    }
+}
@@ -12,6 +12,7 @@ public class Courier extends User{
     private String idUser;			// ID unik user
     private String vehicleType;    // Tipe kendaraan (Motor/Mobil)
     private String vehiclePlate;   // Plat nomor kendaraan
+    private int activeDeliveryCount; // Jumlah delivery yang belum selesai (hanya terisi dari query ringkasan)
 
     /**
      * Constructor default untuk Courier
@@ -58,4 +59,12 @@ public class Courier extends User{
     public void setVehiclePlate(String vehiclePlate) {
         this.vehiclePlate = vehiclePlate;
     }
+
+    public int getActiveDeliveryCount() {
+        return activeDeliveryCount;
+    }
+
+    public void setActiveDeliveryCount(int activeDeliveryCount) {
+        this.activeDeliveryCount = activeDeliveryCount;
+    }
 }
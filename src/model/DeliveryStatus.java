@@ -0,0 +1,66 @@
+package model;
+
+/**
+ * DeliveryStatus
+ *
+ * Status pengiriman beserta urutan transisinya: pending -> in progress -> delivered.
+ * Status hanya boleh maju satu langkah; value adalah nilai yang disimpan di kolom
+ * Delivery.status dan OrderHeader.status.
+ */
+public enum DeliveryStatus {
+    PENDING("pending"),
+    IN_PROGRESS("in progress"),
+    DELIVERED("delivered");
+
+    private final String value;
+
+    DeliveryStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Mencari status berdasarkan nilai yang disimpan di database
+     *
+     * @param value Nilai status (misalnya "in progress")
+     * @return DeliveryStatus, null jika nilai tidak dikenal
+     */
+    public static DeliveryStatus fromValue(String value) {
+        for (DeliveryStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return status sebelum status ini dalam urutan transisi, null untuk pending
+     */
+    public DeliveryStatus previous() {
+        return ordinal() == 0 ? null : values()[ordinal() - 1];
+    }
+
+    /**
+     * @return status setelah status ini dalam urutan transisi, null untuk delivered
+     */
+    public DeliveryStatus next() {
+        return ordinal() == values().length - 1 ? null : values()[ordinal() + 1];
+    }
+
+    /**
+     * @param target Status tujuan
+     * @return true jika target adalah satu langkah setelah status ini
+     */
+    public boolean canTransitionTo(DeliveryStatus target) {
+        return target != null && target == next();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
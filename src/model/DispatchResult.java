@@ -0,0 +1,47 @@
+package model;
+
+/**
+ * DispatchResult Model
+ *
+ * Ringkasan satu putaran assign kurir otomatis: jumlah order yang di-assign,
+ * jumlah kurir yang tersedia, dan lama putaran untuk menghitung throughput.
+ */
+public class DispatchResult {
+    private final int assigned;        // Jumlah order yang mendapat kurir
+    private final int couriers;        // Jumlah kurir yang tersedia saat putaran berjalan
+    private final long elapsedNanos;   // Lama putaran (ns)
+
+    public DispatchResult(int assigned, int couriers, long elapsedNanos) {
+        this.assigned = assigned;
+        this.couriers = couriers;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getAssigned() {
+        return assigned;
+    }
+
+    public int getCouriers() {
+        return couriers;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * @return throughput putaran dalam assignment per detik, 0 jika tidak ada yang di-assign
+     */
+    public double getAssignmentsPerSecond() {
+        if (assigned == 0 || elapsedNanos <= 0) {
+            return 0;
+        }
+        return assigned * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d order di-assign ke %d kurir dalam %d ms (%.0f assignment/detik)",
+                assigned, couriers, getElapsedMillis(), getAssignmentsPerSecond());
+    }
+}
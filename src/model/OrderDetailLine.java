@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * OrderDetailLine Model
+ * 
+ * Merepresentasikan satu item order beserta nama dan harga produknya,
+ * hasil join OrderDetail dengan Product. Dipakai untuk halaman detail order
+ * tanpa query produk per item.
+ */
+public class OrderDetailLine extends OrderDetail {
+    private String productName;    // Nama produk (null jika produk sudah dihapus)
+    private double price;          // Harga satuan produk saat ini (Rp)
+
+    /**
+     * Constructor default untuk OrderDetailLine
+     */
+    public OrderDetailLine() {
+    }
+
+    public OrderDetailLine(String idOrderDetail, String idOrder, String idProduct, int qty,
+                           String productName, double price) {
+        super(idOrderDetail, idOrder, idProduct, qty);
+        this.productName = productName;
+        this.price = price;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    /**
+     * Menghitung subtotal item (harga x jumlah)
+     *
+     * @return subtotal dalam Rupiah
+     */
+    public double getSubtotal() {
+        return price * getQty();
+    }
+}
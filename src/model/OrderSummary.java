@@ -0,0 +1,53 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrderSummary Model
+ * 
+ * Gabungan data satu order untuk halaman detail: header order, item beserta
+ * data produknya, dan record delivery (null jika belum di-assign ke kurir).
+ */
+public class OrderSummary {
+    private OrderHeader header;                 // Header order
+    private List<OrderDetailLine> lines;        // Item order beserta nama dan harga produk
+    private Delivery delivery;                  // Delivery order (nullable)
+
+    /**
+     * Constructor default untuk OrderSummary
+     */
+    public OrderSummary() {
+        this.lines = new ArrayList<>();
+    }
+
+    public OrderSummary(OrderHeader header, List<OrderDetailLine> lines, Delivery delivery) {
+        this.header = header;
+        this.lines = lines;
+        this.delivery = delivery;
+    }
+
+    public OrderHeader getHeader() {
+        return header;
+    }
+
+    public void setHeader(OrderHeader header) {
+        this.header = header;
+    }
+
+    public List<OrderDetailLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<OrderDetailLine> lines) {
+        this.lines = lines;
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    public void setDelivery(Delivery delivery) {
+        this.delivery = delivery;
+    }
+}
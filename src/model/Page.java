@@ -0,0 +1,47 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Page Model
+ * 
+ * Satu halaman hasil query daftar order (atau delivery), diurutkan dari yang terbaru.
+ * nextCursor berisi posisi untuk mengambil halaman berikutnya, atau null jika
+ * ini halaman terakhir.
+ *
+ * @param <T> Tipe item di halaman
+ */
+public class Page<T> {
+    private final List<T> items;          // Item di halaman ini
+    private final PageCursor nextCursor;  // Posisi halaman berikutnya (null jika tidak ada)
+
+    public Page(List<T> items, PageCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Membuat halaman kosong tanpa halaman berikutnya
+     *
+     * @return Page kosong
+     */
+    public static <T> Page<T> empty() {
+        return new Page<>(new ArrayList<>(), null);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public PageCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true jika masih ada halaman setelah halaman ini
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
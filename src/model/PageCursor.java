@@ -0,0 +1,40 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * PageCursor Model
+ * 
+ * Posisi terakhir sebuah halaman daftar order, berupa pasangan (orderedAt, idOrder)
+ * dari baris terakhir. Halaman berikutnya dimulai dari order yang lebih lama dari
+ * posisi ini (keyset pagination), sehingga database tidak perlu melewati baris
+ * halaman-halaman sebelumnya seperti pada OFFSET.
+ */
+public class PageCursor {
+    private final LocalDateTime orderedAt;   // Waktu order baris terakhir
+    private final String idOrder;            // ID order baris terakhir (pemisah jika orderedAt sama)
+
+    public PageCursor(LocalDateTime orderedAt, String idOrder) {
+        this.orderedAt = orderedAt;
+        this.idOrder = idOrder;
+    }
+
+    public LocalDateTime getOrderedAt() {
+        return orderedAt;
+    }
+
+    public String getIdOrder() {
+        return idOrder;
+    }
+
+    /**
+     * Membandingkan dua posisi pada urutan halaman (orderedAt DESC, idOrder DESC)
+     *
+     * @param other Posisi pembanding
+     * @return true jika posisi ini tampil lebih dulu (order lebih baru) dari other
+     */
+    public boolean isNewerThan(PageCursor other) {
+        int byTime = orderedAt.compareTo(other.orderedAt);
+        return byTime > 0 || (byTime == 0 && idOrder.compareTo(other.idOrder) > 0);
+    }
+}
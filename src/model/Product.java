@@ -1,5 +1,7 @@
 package model;
 
+import java.util.Objects;
+
 /**
  * Product Model
  * 
@@ -66,4 +68,19 @@ public class Product {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    /**
+     * Membandingkan isi produk (nama, harga, stok, kategori) tanpa ID
+     * Dipakai import katalog untuk melewati baris yang isinya sama dengan database.
+     * Kategori null dan kosong dianggap sama.
+     *
+     * @param other Produk pembanding
+     * @return true jika semua field isi sama
+     */
+    public boolean sameContentAs(Product other) {
+        return Objects.equals(name != null ? name : "", other.name != null ? other.name : "")
+                && Double.compare(price, other.price) == 0
+                && stock == other.stock
+                && Objects.equals(category != null ? category : "", other.category != null ? other.category : "");
+    }
 }
@@ -4,13 +4,17 @@ package model;
  * Promo Model
  * 
  * Merepresentasikan entitas Promo/Diskon dalam sistem JoymarKet.
- * Menyimpan informasi kode promo dan persentase diskon.
+ * Menyimpan informasi kode promo dan persentase diskon, beserta aturan tambahan:
+ * kategori produk yang didiskon, minimum belanja, dan batas maksimum diskon.
  */
 public class Promo {
     private String idPromo;              // ID unik promo
     private String code;                 // Kode promo (unique)
     private double discountPercentage;   // Persentase diskon (0-100)
     private String headline;             // Deskripsi promo
+    private String category;             // Kategori produk yang didiskon (null = semua produk)
+    private double minSpend;             // Minimum belanja yang eligible (0 = tanpa minimum)
+    private double maxDiscount;          // Batas maksimum nilai diskon dalam Rupiah (0 = tanpa batas)
 
     /**
      * Constructor default untuk Promo
@@ -25,6 +29,14 @@ public class Promo {
         this.headline = headline;
     }
 
+    public Promo(String idPromo, String code, double discountPercentage, String headline,
+                 String category, double minSpend, double maxDiscount) {
+        this(idPromo, code, discountPercentage, headline);
+        this.category = category;
+        this.minSpend = minSpend;
+        this.maxDiscount = maxDiscount;
+    }
+
     public String getIdPromo() {
         return idPromo;
     }
@@ -56,4 +68,28 @@ public class Promo {
     public void setHeadline(String headline) {
         this.headline = headline;
     }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public double getMinSpend() {
+        return minSpend;
+    }
+
+    public void setMinSpend(double minSpend) {
+        this.minSpend = minSpend;
+    }
+
+    public double getMaxDiscount() {
+        return maxDiscount;
+    }
+
+    public void setMaxDiscount(double maxDiscount) {
+        this.maxDiscount = maxDiscount;
+    }
 }
@@ -0,0 +1,50 @@
+package model;
+
+/**
+ * SalesTotal Model
+ *
+ * Satu baris laporan penjualan yang dibaca dari tabel ringkasan: total per tanggal,
+ * per kategori, per produk, atau per customer, tergantung laporan yang diminta.
+ * Revenue selalu total yang dibayar setelah diskon; untuk produk dan kategori, diskon
+ * order dibagi ke barisnya sebanding subtotal.
+ */
+public class SalesTotal {
+    private String key;       // Tanggal (yyyy-MM-dd), kategori, idProduct, atau idCustomer
+    private String label;     // Nama yang ditampilkan (sama dengan key untuk tanggal dan kategori)
+    private int orderCount;   // Jumlah order
+    private int quantity;     // Jumlah item terjual
+    private double revenue;   // Total penjualan
+
+    public SalesTotal(String key, String label, int orderCount, int quantity, double revenue) {
+        this.key = key;
+        this.label = label;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d order, %d item, %.2f", label, orderCount, quantity, revenue);
+    }
+}
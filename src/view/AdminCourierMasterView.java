@@ -2,7 +2,6 @@ package view;
 
 import controller.CourierHandler;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -20,15 +19,13 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import model.Courier;
 
-import java.util.List;
-
 /**
  * AdminCourierMasterView
  * View ini digunakan oleh admin untuk melihat daftar seluruh courier yang tersedia.
  * Data courier ditampilkan dalam bentuk tabel dan bersifat read-only (tanpa edit/delete).
  * Navigasi halaman dikontrol oleh Main melalui NavigationListener.
  */
-public class AdminCourierMasterView {
+public class AdminCourierMasterView implements RefreshableView {
 
 	// Scene utama yang akan dipanggil oleh Main
     private Scene scene;
@@ -118,6 +115,16 @@ public class AdminCourierMasterView {
         idCol.setCellValueFactory(new PropertyValueFactory<>("idCourier"));
         idCol.setPrefWidth(120);
 
+     // Kolom nama courier (dari tabel User)
+        TableColumn<Courier, String> nameCol = new TableColumn<>("Nama");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("fullName"));
+        nameCol.setPrefWidth(160);
+
+     // Kolom nomor telepon courier
+        TableColumn<Courier, String> phoneCol = new TableColumn<>("Telepon");
+        phoneCol.setCellValueFactory(new PropertyValueFactory<>("phone"));
+        phoneCol.setPrefWidth(110);
+
      // Kolom tipe kendaraan courier
         TableColumn<Courier, String> typeCol = new TableColumn<>("Tipe Kendaraan");
         typeCol.setCellValueFactory(new PropertyValueFactory<>("vehicleType"));
@@ -128,21 +135,19 @@ public class AdminCourierMasterView {
         plateCol.setCellValueFactory(new PropertyValueFactory<>("vehiclePlate"));
         plateCol.setPrefWidth(150);
 
-        courierTable.getColumns().addAll(idCol, typeCol, plateCol);
+     // Kolom jumlah delivery yang belum selesai
+        TableColumn<Courier, Integer> activeCol = new TableColumn<>("Delivery Aktif");
+        activeCol.setCellValueFactory(new PropertyValueFactory<>("activeDeliveryCount"));
+        activeCol.setPrefWidth(100);
+
+        courierTable.getColumns().addAll(idCol, nameCol, phoneCol, typeCol, plateCol, activeCol);
     }
 
-    // Mengambil seluruh data courier dari CourierController
-    // lalu menampilkannya ke dalam TableView
+    // Mengambil seluruh data courier (beserta nama user dan delivery aktif)
+    // dalam satu query lalu menampilkannya ke dalam TableView
     private void loadCouriers() {
-    	List<String> courierIds = cc.getAllCourierIds(); 
-
-        ObservableList<Courier> items = FXCollections.observableArrayList();
-        for (String id : courierIds) {
-            Courier c = cc.getCourier(id); 
-            if (c != null) items.add(c);
-        }
-
-        courierTable.setItems(items);
+        AsyncLoader.loadInto(courierTable, () -> cc.getCourierSummaries(null),
+                couriers -> courierTable.setItems(FXCollections.observableArrayList(couriers)));
     }
 
  // Helper method untuk menampilkan alert informasi kepada user
@@ -154,6 +159,13 @@ public class AdminCourierMasterView {
         alert.showAndWait();
     }
 
+ // Dipanggil Main saat view diambil dari ViewCache: muat ulang daftar courier
+    @Override
+    public void refresh() {
+        TableState.preserve(courierTable, Courier::getIdCourier);
+        loadCouriers();
+    }
+
  // Getter Scene agar Main dapat memanggil primaryStage.setScene(...)
     public Scene getScene() {
         return scene;
@@ -18,19 +18,19 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import model.OrderDetail;
+import model.Delivery;
+import model.OrderDetailLine;
 import model.OrderHeader;
 
-import java.util.List;
-
 /**
  * AdminOrderDetailView
  * View ini digunakan untuk menampilkan detail dari satu order tertentu berdasarkan yang dipilih.
- * Informasi yang ditampilkan meliputi ringkasan header order (ID Order, ID Customer, Status)
- * dan tabel detail item (ID Produk dan Qty).
+ * Informasi yang ditampilkan meliputi ringkasan header order (ID Order, ID Customer, Status),
+ * status delivery, dan tabel detail item (produk, harga, qty, subtotal).
+ * Seluruh data dimuat lewat OrderHandler.getOrderSummary (dua query) di background thread.
  */
 
-public class AdminOrderDetailView {
+public class AdminOrderDetailView implements RefreshableView {
 	
 	// Scene utama untuk view ini (dipakai oleh Main untuk setScene)
     private Scene scene;
@@ -39,7 +39,7 @@ public class AdminOrderDetailView {
     private BorderPane mainLayout;
     
  // TableView untuk menampilkan detail item order (OrderDetail)
-    private TableView<OrderDetail> detailTable;
+    private TableView<OrderDetailLine> detailTable;
 
  // Handler untuk mengambil data header order dan detail order
     private final OrderHandler orderHandler = new OrderHandler();
@@ -50,17 +50,18 @@ public class AdminOrderDetailView {
  // Menyimpan orderId yang dikirim dari halaman sebelumnya
     private final String orderId;
     
- // Menyimpan data OrderHeader yang ditemukan berdasarkan orderId
-    private OrderHeader orderHeader;
+ // Label info header order, diisi setelah data order selesai dimuat
+    private Label info1;
+    private Label info2;
+    private Label info3;
 
  // Constructor menerima orderId, lalu menyiapkan UI dan memuat data order terkait
     public AdminOrderDetailView(String orderId) {
         this.orderId = orderId;
 
         init();              // inisialisasi layout & komponen dasar
-        loadOrderHeader();   // ambil data header order berdasarkan orderId
         setupLayout();       // susun tampilan UI (header, tabel, tombol)
-        loadOrderDetails();  // ambil dan tampilkan detail item order
+        loadOrder();         // ambil header, delivery, dan item order berdasarkan orderId
         
         scene = new Scene(mainLayout, 900, 600);
     }
@@ -71,24 +72,6 @@ public class AdminOrderDetailView {
         detailTable = new TableView<>();
     }
 
-    // cari header berdasarkan idOrder
-    private void loadOrderHeader() {
-        List<OrderHeader> all = orderHandler.getAllOrders();
-        if (all != null) {
-            for (OrderHeader oh : all) {
-                if (oh.getIdOrder().equals(orderId)) {
-                    orderHeader = oh;
-                    break;
-                }
-            }
-        }
-
-     // Jika order tidak ditemukan, tampilkan pesan error
-        if (orderHeader == null) {
-            showAlert("Error", "Order dengan ID " + orderId + " tidak ditemukan.");
-        }
-    }
-    
     // Menyusun tampilan UI:
     // - Top: header informasi order (ID, customer, status)
     // - Center: tabel detail item
@@ -107,17 +90,12 @@ public class AdminOrderDetailView {
         titleLbl.setTextFill(Color.web("#333333"));
 
         
-     // Info baris 1: ID Order dan ID Customer
-        String info1Text = "ID Order: " + (orderHeader != null ? orderHeader.getIdOrder() : orderId)
-                + "   |   ID Customer: " + (orderHeader != null ? orderHeader.getIdCustomer() : "-");
+     // Info baris 1-3: ID Order/Customer, status order, status delivery (diisi oleh loadOrder)
+        info1 = new Label("ID Order: " + orderId + "   |   ID Customer: -");
+        info2 = new Label("Status: -");
+        info3 = new Label("Delivery: -");
 
-     // Info baris 2: Status order
-        String info2Text = "Status: " + (orderHeader != null ? orderHeader.getStatus() : "-");
-
-        Label info1 = new Label(info1Text);
-        Label info2 = new Label(info2Text);
-
-        headerBox.getChildren().addAll(titleLbl, info1, info2);
+        headerBox.getChildren().addAll(titleLbl, info1, info2, info3);
         mainLayout.setTop(headerBox);
 
         // ==== TABEL DETAIL ====
@@ -144,40 +122,71 @@ public class AdminOrderDetailView {
         mainLayout.setBottom(bottomBox);
     }
     
- // Menyiapkan kolom-kolom tabel untuk OrderDetail
+ // Menyiapkan kolom-kolom tabel untuk OrderDetailLine
     @SuppressWarnings("unchecked")
     private void setupTable() {
-    	// Kolom ID Order
-        TableColumn<OrderDetail, String> idOrderCol = new TableColumn<>("ID Order");
-        idOrderCol.setCellValueFactory(new PropertyValueFactory<>("idOrder"));
-        idOrderCol.setPrefWidth(150);
-
-     // Kolom ID Produk
-        TableColumn<OrderDetail, String> idProductCol = new TableColumn<>("ID Produk");
+    	// Kolom ID Produk
+        TableColumn<OrderDetailLine, String> idProductCol = new TableColumn<>("ID Produk");
         idProductCol.setCellValueFactory(new PropertyValueFactory<>("idProduct"));
-        idProductCol.setPrefWidth(150);
+        idProductCol.setPrefWidth(130);
+
+     // Kolom nama produk (produk yang sudah dihapus ditandai)
+        TableColumn<OrderDetailLine, String> nameCol = new TableColumn<>("Produk");
+        nameCol.setCellValueFactory(cell -> {
+            String name = cell.getValue().getProductName();
+            return new javafx.beans.property.SimpleStringProperty(name != null ? name : "Produk tidak ditemukan");
+        });
+        nameCol.setPrefWidth(250);
+
+     // Kolom harga satuan
+        TableColumn<OrderDetailLine, String> priceCol = new TableColumn<>("Harga");
+        priceCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(
+                "Rp " + String.format("%,.0f", cell.getValue().getPrice())));
+        priceCol.setPrefWidth(140);
 
      // Kolom Qty
-        TableColumn<OrderDetail, Integer> qtyCol = new TableColumn<>("Qty");
+        TableColumn<OrderDetailLine, Integer> qtyCol = new TableColumn<>("Qty");
         qtyCol.setCellValueFactory(new PropertyValueFactory<>("qty"));
         qtyCol.setPrefWidth(80);
 
-        detailTable.getColumns().addAll(idOrderCol, idProductCol, qtyCol);
+     // Kolom subtotal (harga x qty)
+        TableColumn<OrderDetailLine, String> subtotalCol = new TableColumn<>("Subtotal");
+        subtotalCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(
+                "Rp " + String.format("%,.0f", cell.getValue().getSubtotal())));
+        subtotalCol.setPrefWidth(150);
+
+        detailTable.getColumns().addAll(idProductCol, nameCol, priceCol, qtyCol, subtotalCol);
     }
 
- // Mengambil detail item order berdasarkan orderId lalu menampilkan ke tabel
-    private void loadOrderDetails() {
-        List<OrderDetail> details = orderHandler.getOrderDetails(orderId);
-        
-        // Jika detail kosong, tampilkan info dan kosongkan tabel
-        if (details == null || details.isEmpty()) {
-            showAlert("Info", "Order ini belum memiliki detail item.");
-            detailTable.setItems(FXCollections.observableArrayList());
-            return;
-        }
-
-        ObservableList<OrderDetail> items = FXCollections.observableArrayList(details);
-        detailTable.setItems(items);
+ // Mengambil header, delivery, dan item order di background thread lalu menampilkan ke UI
+    private void loadOrder() {
+        AsyncLoader.loadInto(detailTable, () -> orderHandler.getOrderSummary(orderId), summary -> {
+            // Jika order tidak ditemukan, tampilkan pesan error
+            if (summary == null) {
+                showAlert("Error", "Order dengan ID " + orderId + " tidak ditemukan.");
+                return;
+            }
+
+            OrderHeader orderHeader = summary.getHeader();
+            info1.setText("ID Order: " + orderHeader.getIdOrder()
+                    + "   |   ID Customer: " + orderHeader.getIdCustomer());
+            info2.setText("Status: " + orderHeader.getStatus());
+
+            Delivery delivery = summary.getDelivery();
+            info3.setText(delivery != null
+                    ? "Delivery: " + delivery.getStatus() + "   |   Kurir: " + delivery.getIdCourier()
+                    : "Delivery: belum di-assign ke kurir");
+
+            // Jika detail kosong, tampilkan info dan kosongkan tabel
+            if (summary.getLines() == null || summary.getLines().isEmpty()) {
+                showAlert("Info", "Order ini belum memiliki detail item.");
+                detailTable.setItems(FXCollections.observableArrayList());
+                return;
+            }
+
+            ObservableList<OrderDetailLine> items = FXCollections.observableArrayList(summary.getLines());
+            detailTable.setItems(items);
+        });
     }
 
  // Helper untuk menampilkan alert (info/warning/error) kepada user
@@ -189,6 +198,13 @@ public class AdminOrderDetailView {
         alert.showAndWait();
     }
 
+ // Dipanggil Main saat view diambil dari ViewCache: muat ulang header, delivery, dan item order
+    @Override
+    public void refresh() {
+        TableState.preserve(detailTable, OrderDetailLine::getIdOrderDetail);
+        loadOrder();
+    }
+
  // Getter scene untuk dipakai oleh Main (primaryStage.setScene(...))
     public Scene getScene() {
         return scene;
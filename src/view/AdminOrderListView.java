@@ -3,9 +3,13 @@ package view;
 import controller.OrderHandler;
 import controller.DeliveryHandler;
 import controller.CourierHandler;
+import controller.CourierDispatcher;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -19,10 +23,9 @@ import javafx.scene.text.FontWeight;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.OrderHeader;
 import model.Courier;
-import java.util.List;
+import model.DispatchResult;
 
 
 /**
@@ -31,12 +34,15 @@ import java.util.List;
  * View untuk admin dalam mengelola data order.
  * Fitur utama:
  * 1. Menampilkan daftar order dalam TableView
- * 2. Melakukan assign courier ke order
+ * 2. Melakukan assign courier ke order (manual, atau otomatis lewat CourierDispatcher)
  * 3. Navigasi ke halaman detail order
  */
 
-public class AdminOrderListView {
+public class AdminOrderListView implements RefreshableView {
 	
+	// Pilihan filter kendaraan di popup assign untuk menampilkan semua kurir
+	private static final String ALL_VEHICLES = "Semua Kendaraan";
+
 	// Scene utama untuk view ini (dipakai oleh Main untuk setScene)
 	private Scene scene;
 	
@@ -50,6 +56,16 @@ public class AdminOrderListView {
 	private OrderHandler oc = new OrderHandler();
 	private DeliveryHandler dc = new DeliveryHandler();
 	private CourierHandler cc = new CourierHandler();
+	private CourierDispatcher dispatcher = CourierDispatcher.getInstance();
+
+	// Hasil putaran assign otomatis terakhir
+	private Label dispatchStatus;
+
+	// Kontrol halaman untuk tabel order (keyset pagination, order terbaru dulu)
+	private PageNavigator<OrderHeader> pager;
+
+	// Polling perubahan order selama view tampil (patch baris, tanpa reload penuh)
+	private LiveTableRefresher<OrderHeader> live;
 	
 	// NavigationListener menghubungkan View dengan Main (Navigation Controller).
 	private NavigationListener navigationListener;
@@ -62,6 +78,7 @@ public class AdminOrderListView {
 		loadOrders();
 		
 		scene = new Scene(mainLayout, 1100, 700);
+		live.attach(scene);
 	}
 	
 	// Menyusun tampilan:
@@ -90,7 +107,14 @@ public class AdminOrderListView {
 	    emptyLabel.setStyle("-fx-font-size: 16; -fx-text-fill: #666;");
 	    orderTable.setPlaceholder(emptyLabel);
 	    
-	    mainLayout.setCenter(orderTable); 
+	    // Tabel order + kontrol halaman di bawahnya
+	    live = new LiveTableRefresher<>(orderTable, OrderHeader::getIdOrder,
+	            oc::getOrderChangeVersion, oc::getOrdersChangedSince);
+	    pager = new PageNavigator<>(orderTable, live.tracking((after, size) -> oc.getOrderPage(after, size)));
+	    live.setPager(pager);
+	    VBox tableBox = new VBox(orderTable, pager.getControls());
+	    VBox.setVgrow(orderTable, javafx.scene.layout.Priority.ALWAYS);
+	    mainLayout.setCenter(tableBox);
 	    
 	    // ==== ASSIGN PANEL (popup) ====
 	    VBox assignPanel = new VBox(10);
@@ -109,7 +133,43 @@ public class AdminOrderListView {
 	    assignPopupBtn.setOnAction(e -> openAssignCourierPopup());
 
 	    courierPanel.getChildren().addAll(courierLabel, assignPopupBtn);
-	    assignPanel.getChildren().add(courierPanel);
+
+	    // Assign otomatis: semua order pending tanpa kurir ke kurir dengan beban terendah
+	    HBox dispatchPanel = new HBox(10);
+	    dispatchPanel.setAlignment(Pos.CENTER_LEFT);
+
+	    Button dispatchBtn = new Button("Assign Otomatis Sekarang");
+	    dispatchBtn.setStyle("-fx-font-size: 12; -fx-padding: 8 25; "
+	            + "-fx-background-color: #FF9800; -fx-text-fill: white;");
+	    dispatchBtn.setOnAction(e -> {
+	        dispatchBtn.setDisable(true);
+	        AsyncLoader.submit(dispatcher::dispatchPending, result -> {
+	            dispatchBtn.setDisable(false);
+	            showDispatchResult(result);
+	        }, error -> {
+	            dispatchBtn.setDisable(false);
+	            showAlert("Error", "Assign otomatis gagal");
+	        });
+	    });
+
+	    CheckBox autoDispatch = new CheckBox("Otomatis tiap " + CourierDispatcher.DEFAULT_INTERVAL_SECONDS + " detik");
+	    autoDispatch.setSelected(dispatcher.isRunning());
+	    if (dispatcher.isRunning()) {
+	        dispatcher.setListener(this::onScheduledDispatch);
+	    }
+	    autoDispatch.setOnAction(e -> {
+	        if (autoDispatch.isSelected()) {
+	            dispatcher.start(CourierDispatcher.DEFAULT_INTERVAL_SECONDS, this::onScheduledDispatch);
+	        } else {
+	            dispatcher.stop();
+	        }
+	    });
+
+	    dispatchStatus = new Label();
+	    dispatchStatus.setFont(Font.font("Arial", 12));
+
+	    dispatchPanel.getChildren().addAll(dispatchBtn, autoDispatch, dispatchStatus);
+	    assignPanel.getChildren().addAll(courierPanel, dispatchPanel);
 
 	    // ==== PANEL TOMBOL BAWAH ====
 	    HBox buttonPanel = new HBox(10);
@@ -170,25 +230,30 @@ public class AdminOrderListView {
 
         TableColumn<Courier, String> idCol = new TableColumn<>("ID Courier");
         idCol.setCellValueFactory(new PropertyValueFactory<>("idCourier"));
-        idCol.setPrefWidth(150);
+        idCol.setPrefWidth(110);
+
+        TableColumn<Courier, String> nameCol = new TableColumn<>("Nama");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("fullName"));
+        nameCol.setPrefWidth(150);
 
         TableColumn<Courier, String> vehicleCol = new TableColumn<>("Vehicle");
         vehicleCol.setCellValueFactory(new PropertyValueFactory<>("vehicleType"));
-        vehicleCol.setPrefWidth(200);
+        vehicleCol.setPrefWidth(90);
 
-        courierTable.getColumns().addAll(idCol, vehicleCol);
+        TableColumn<Courier, Integer> activeCol = new TableColumn<>("Delivery Aktif");
+        activeCol.setCellValueFactory(new PropertyValueFactory<>("activeDeliveryCount"));
+        activeCol.setPrefWidth(100);
 
-        // Load courier list (pakai handler kamu yang sudah ada)
-        ObservableList<Courier> courierList = FXCollections.observableArrayList();
-        List<String> courierIds = cc.getAllCourierIds();
+        courierTable.getColumns().addAll(idCol, nameCol, vehicleCol, activeCol);
 
-        if (courierIds != null) {
-            for (String id : courierIds) {
-                Courier c = cc.getCourierById(id);
-                if (c != null) courierList.add(c);
-            }
-        }
-        courierTable.setItems(courierList);
+        // Filter tipe kendaraan, setiap perubahan memuat ulang daftar dengan satu query
+        ComboBox<String> vehicleFilter = new ComboBox<>();
+        vehicleFilter.getItems().addAll(ALL_VEHICLES, "Motor", "Mobil");
+        vehicleFilter.setValue(ALL_VEHICLES);
+        vehicleFilter.setOnAction(ev -> loadCourierOptions(courierTable, vehicleFilter.getValue()));
+
+        // Kurir, nama user, dan jumlah delivery aktif diambil dalam satu query
+        loadCourierOptions(courierTable, ALL_VEHICLES);
 
         Button assign = new Button("Update");
         Button cancel = new Button("Cancel");
@@ -206,12 +271,12 @@ public class AdminOrderListView {
                 return;
             }
 
-            String deliveryId = "DEL_" + System.currentTimeMillis();
+            String deliveryId = dc.generateId();
             String result = dc.assignCourier(deliveryId, selectedOrder.getIdOrder(), selectedCourier.getIdCourier());
 
             if ("success".equals(result)) {
                 showAlert("Sukses", "Courier berhasil di-assign ke order!");
-                loadOrders();
+                live.pollNow();
                 popup.close();
             } else {
                 showAlert("Error", "Gagal assign courier: " + result);
@@ -223,12 +288,28 @@ public class AdminOrderListView {
         HBox actions = new HBox(10, assign, cancel);
         actions.setAlignment(Pos.CENTER_RIGHT);
 
-        root.getChildren().addAll(title, courierTable, actions);
+        root.getChildren().addAll(title, vehicleFilter, courierTable, actions);
 
-        popup.setScene(new Scene(root, 420, 330));
+        popup.setScene(new Scene(root, 500, 370));
         popup.showAndWait();
     }
 
+    // Dipanggil dari thread dispatcher setiap putaran terjadwal yang meng-assign order
+    private void onScheduledDispatch(DispatchResult result) {
+        Platform.runLater(() -> showDispatchResult(result));
+    }
+
+    private void showDispatchResult(DispatchResult result) {
+        dispatchStatus.setText(result.getAssigned() == 0 ? "Tidak ada order yang perlu di-assign" : result.toString());
+    }
+
+    // Memuat daftar kurir untuk popup assign (join Courier-User dan hitungan delivery aktif)
+    private void loadCourierOptions(TableView<Courier> courierTable, String vehicleType) {
+        String filter = ALL_VEHICLES.equals(vehicleType) ? null : vehicleType;
+        AsyncLoader.loadInto(courierTable, () -> cc.getCourierSummaries(filter),
+                couriers -> courierTable.setItems(FXCollections.observableArrayList(couriers)));
+    }
+
 	// Menyiapkan kolom-kolom TableView untuk OrderHeader dan mapping ke field model
 	@SuppressWarnings("unchecked")
 	private void setupTable() {
@@ -273,19 +354,9 @@ public class AdminOrderListView {
 	    orderTable.getColumns().addAll(idCol, custCol, promoCol, statusCol, dateCol, amountCol);
 	}
 	
-	// Mengambil semua order dari OrderHandler lalu menampilkan ke TableView
+	// Memuat ulang halaman order yang sedang dibuka (halaman pertama saat view dibuka)
 	private void loadOrders() {
-	    List<String> orderIds = oc.getAllOrderIds();
-	    ObservableList<OrderHeader> items = FXCollections.observableArrayList();
-
-	    if (orderIds != null) {
-	        for (String idOrder : orderIds) {
-	            OrderHeader oh = oc.getOrderHeader(idOrder);
-	            if (oh != null) items.add(oh);
-	        }
-	    }
-
-	    orderTable.setItems(items); 
+	    pager.reload();
 	}
 
 	
@@ -297,6 +368,12 @@ public class AdminOrderListView {
 		alert.showAndWait();
 	}
 	
+	// Dipanggil Main saat view diambil dari ViewCache: terapkan perubahan order sejak terakhir tampil
+	@Override
+	public void refresh() {
+		live.pollNow();
+	}
+
 	// Getter scene agar Main bisa memanggil primaryStage.setScene(getScene())
 	public Scene getScene() {
 		return scene;
@@ -1,5 +1,6 @@
 package view;
 
+import controller.ProductCsvHandler;
 import controller.ProductHandler;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -12,6 +13,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
@@ -19,13 +21,15 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import model.BulkTransferResult;
 import model.Product;
-import java.util.List;
+
+import java.io.File;
 
 /**
  * AdminProductListView - JavaFX view untuk daftar produk admin dengan edit/delete
  */
-public class AdminProductListView {
+public class AdminProductListView implements RefreshableView {
 	// UI Components
 	private Scene scene;
 	private BorderPane mainLayout;
@@ -33,7 +37,10 @@ public class AdminProductListView {
 	private TableView<Product> productTable;
 
 	// Handlers
+	private static final int SEARCH_LIMIT = 200;	// Jumlah hasil pencarian maksimum
+
 	private ProductHandler pc = new ProductHandler();
+	private ProductCsvHandler csvHandler = new ProductCsvHandler();
 	private NavigationListener navigationListener;
 
 	// Constructor
@@ -81,6 +88,10 @@ public class AdminProductListView {
 		Button searchBtn = new Button("Cari");
 		searchBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15;");
 		searchBtn.setOnAction(e -> searchProducts());
+		searchField.setOnAction(e -> searchProducts());
+
+		// Saran nama produk/kategori saat mengetik, dibaca dari index di memori
+		new SearchAutocomplete(searchField, pc::suggestProducts, suggestion -> searchProducts());
 
 		searchBox.getChildren().addAll(searchLabel, searchField, searchBtn);
 		mainLayout.setTop(new VBox(header, searchBox));
@@ -135,6 +146,23 @@ public class AdminProductListView {
 		});
 
 
+		Button salesBtn = new Button("Laporan Penjualan");
+		salesBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15; -fx-background-color: #009688; -fx-text-fill: white;");
+		salesBtn.setOnAction(e -> {
+			if (navigationListener != null) {
+				navigationListener.navigateTo("ADMIN_SALES_REPORT");
+			}
+		});
+
+		// Sinkronisasi katalog supplier lewat file CSV
+		Button importBtn = new Button("Import CSV");
+		importBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15; -fx-background-color: #673AB7; -fx-text-fill: white;");
+		importBtn.setOnAction(e -> importCsv(importBtn));
+
+		Button exportBtn = new Button("Export CSV");
+		exportBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15; -fx-background-color: #795548; -fx-text-fill: white;");
+		exportBtn.setOnAction(e -> exportCsv(exportBtn));
+
 		// button logout
 		Button logoutBtn = new Button("Logout");
 		logoutBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15; -fx-background-color:  #999999; -fx-text-fill: white;");
@@ -144,7 +172,7 @@ public class AdminProductListView {
 			}
 		});
 
-		buttonPanel.getChildren().addAll(editBtn, ordersBtn, couriersBtn, viewCouriersBtn, logoutBtn);
+		buttonPanel.getChildren().addAll(editBtn, ordersBtn, couriersBtn, viewCouriersBtn, salesBtn, importBtn, exportBtn, logoutBtn);
 		mainLayout.setBottom(buttonPanel);
 	}
 
@@ -214,33 +242,85 @@ public class AdminProductListView {
 	}
 
 	/**
-	 * Load data produk ke tabel dengan memanggil ProductHandler
+	 * Load data produk ke tabel dengan memanggil ProductHandler (di background thread)
 	 */
 	private void loadProducts() {
-		List<Product> products = pc.getAllProducts();
-		if (products != null) {
-			ObservableList<Product> items = FXCollections.observableArrayList(products);
-			productTable.setItems(items);
-		}
+		AsyncLoader.loadInto(productTable, () -> pc.getAllProducts(), products -> {
+			if (products != null) {
+				ObservableList<Product> items = FXCollections.observableArrayList(products);
+				productTable.setItems(items);
+			}
+			StartupMetrics.productListShown();
+		});
 	}
 
 	/**
-	 * Cari produk berdasarkan keyword
+	 * Cari produk berdasarkan keyword (di background thread)
 	 */
 	private void searchProducts() {
-		String keyword = searchField.getText().toLowerCase();
-		List<Product> allProducts = pc.getAllProducts();
-
-		ObservableList<Product> filteredList = FXCollections.observableArrayList();
-		if (allProducts != null) {
-			for (Product p : allProducts) {
-				if (p.getName().toLowerCase().contains(keyword) ||
-					p.getCategory().toLowerCase().contains(keyword)) {
-					filteredList.add(p);
-				}
-			}
+		String keyword = searchField.getText().trim();
+		if (keyword.isEmpty()) {
+			loadProducts();
+			return;
 		}
-		productTable.setItems(filteredList);
+		// Dicari di index produk di memori, hanya hasil teratas yang ditampilkan
+		AsyncLoader.loadInto(productTable, () -> pc.searchProducts(keyword, SEARCH_LIMIT),
+				results -> productTable.setItems(FXCollections.observableArrayList(results)));
+	}
+
+	/**
+	 * Import produk dari file CSV pilihan admin (di background thread), lalu muat ulang tabel
+	 */
+	private void importCsv(Button importBtn) {
+		FileChooser chooser = csvChooser("Import Produk dari CSV");
+		File file = chooser.showOpenDialog(scene.getWindow());
+		if (file == null) {
+			return;
+		}
+		importBtn.setDisable(true);
+		AsyncLoader.load(() -> csvHandler.importCsv(file.toPath()), result -> {
+			importBtn.setDisable(false);
+			showTransferResult("Import", result);
+			refresh();
+		}, error -> {
+			importBtn.setDisable(false);
+			showAlert("Error", "Import CSV gagal");
+		});
+	}
+
+	/**
+	 * Export seluruh produk ke file CSV pilihan admin (di background thread)
+	 */
+	private void exportCsv(Button exportBtn) {
+		FileChooser chooser = csvChooser("Export Produk ke CSV");
+		chooser.setInitialFileName("products.csv");
+		File file = chooser.showSaveDialog(scene.getWindow());
+		if (file == null) {
+			return;
+		}
+		exportBtn.setDisable(true);
+		AsyncLoader.load(() -> csvHandler.exportCsv(file.toPath()), result -> {
+			exportBtn.setDisable(false);
+			showTransferResult("Export", result);
+		}, error -> {
+			exportBtn.setDisable(false);
+			showAlert("Error", "Export CSV gagal");
+		});
+	}
+
+	private FileChooser csvChooser(String title) {
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle(title);
+		chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+		return chooser;
+	}
+
+	private void showTransferResult(String operation, BulkTransferResult result) {
+		StringBuilder message = new StringBuilder(result.toString());
+		for (String error : result.getErrors()) {
+			message.append("\n").append(error);
+		}
+		showAlert(result.isCompleted() ? operation + " Selesai" : operation + " Tidak Selesai", message.toString());
 	}
 
 	/**
@@ -253,6 +333,16 @@ public class AdminProductListView {
 		alert.showAndWait();
 	}
 
+	/**
+	 * Dipanggil Main saat view diambil dari ViewCache
+	 * Mengulang pencarian terakhir (atau memuat semua produk jika kosong).
+	 */
+	@Override
+	public void refresh() {
+		TableState.preserve(productTable, Product::getIdProduct);
+		searchProducts();
+	}
+
 	// Getter dan Setter
 	public Scene getScene() {
 		return scene;
@@ -0,0 +1,233 @@
+package view;
+
+import controller.SalesReportHandler;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import model.SalesTotal;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AdminSalesReportView
+ * View laporan penjualan untuk admin: penjualan harian, per kategori, produk terlaris,
+ * dan customer dengan belanja terbesar. Semua data dibaca dari tabel ringkasan penjualan,
+ * sehingga rentang tanggal yang panjang tetap cepat dimuat.
+ * Navigasi halaman dikontrol oleh Main melalui NavigationListener.
+ */
+public class AdminSalesReportView implements RefreshableView {
+	private static final int DEFAULT_RANGE_DAYS = 7;
+
+	private Scene scene;
+	private BorderPane mainLayout;
+
+	// Rentang tanggal laporan (inklusif)
+	private DatePicker fromPicker;
+	private DatePicker toPicker;
+	private Label summaryLabel;
+
+	private TableView<SalesTotal> dailyTable;
+	private TableView<SalesTotal> categoryTable;
+	private TableView<SalesTotal> productTable;
+	private TableView<SalesTotal> customerTable;
+
+	private SalesReportHandler salesReportHandler = new SalesReportHandler();
+	private NavigationListener navigationListener;
+
+	public AdminSalesReportView() {
+		init();
+		setupLayout();
+		loadReport();
+
+		scene = new Scene(mainLayout, 1000, 650);
+	}
+
+	private void init() {
+		mainLayout = new BorderPane();
+		fromPicker = new DatePicker(LocalDate.now().minusDays(DEFAULT_RANGE_DAYS - 1));
+		toPicker = new DatePicker(LocalDate.now());
+		summaryLabel = new Label();
+		dailyTable = createTable("Tanggal");
+		categoryTable = createTable("Kategori");
+		productTable = createTable("Produk");
+		customerTable = createTable("Customer");
+	}
+
+	private void setupLayout() {
+		mainLayout.setStyle("-fx-background-color: #f5f5f5;");
+
+		// Header: judul dan filter rentang tanggal
+		VBox header = new VBox(10);
+		header.setPadding(new Insets(15));
+		header.setStyle("-fx-background-color: #c8dcfa;");
+
+		Label title = new Label("Laporan Penjualan");
+		title.setFont(Font.font("Arial", FontWeight.BOLD, 22));
+		title.setTextFill(Color.web("#333333"));
+
+		Button showBtn = new Button("Tampilkan");
+		showBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15; -fx-background-color: #2196F3; -fx-text-fill: white;");
+		showBtn.setOnAction(e -> loadReport());
+
+		HBox filter = new HBox(10, new Label("Dari"), fromPicker, new Label("Sampai"), toPicker, showBtn);
+		filter.setAlignment(Pos.CENTER_LEFT);
+
+		summaryLabel.setFont(Font.font("Arial", FontWeight.BOLD, 13));
+
+		// Penjelasan angka: semua total sudah dipotong diskon
+		Label revenueNote = new Label("Total penjualan = jumlah yang dibayar setelah diskon. Diskon promo dibagi ke "
+				+ "produk dan kategori sebanding subtotalnya; untuk order sebelum laporan ini aktif, "
+				+ "pembagian per produk diperkirakan dari harga produk saat ini.");
+		revenueNote.setWrapText(true);
+		revenueNote.setStyle("-fx-font-size: 11; -fx-text-fill: #555555;");
+		header.getChildren().addAll(title, filter, summaryLabel, revenueNote);
+		mainLayout.setTop(header);
+
+		TabPane tabs = new TabPane(
+				new Tab("Harian", dailyTable),
+				new Tab("Per Kategori", categoryTable),
+				new Tab("Produk Terlaris", productTable),
+				new Tab("Customer Teratas", customerTable));
+		tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+		mainLayout.setCenter(tabs);
+
+		// Panel tombol bawah
+		HBox buttonPanel = new HBox(10);
+		buttonPanel.setPadding(new Insets(15));
+		buttonPanel.setAlignment(Pos.CENTER_RIGHT);
+		buttonPanel.setStyle("-fx-background-color: #f0f0f0;");
+
+		// Menghitung ulang ringkasan dari seluruh order, untuk perbaikan data
+		Button rebuildBtn = new Button("Hitung Ulang Ringkasan");
+		rebuildBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15; -fx-background-color: #FF9800; -fx-text-fill: white;");
+		rebuildBtn.setOnAction(e -> rebuild(rebuildBtn));
+
+		Button backBtn = new Button("Kembali");
+		backBtn.setStyle("-fx-font-size: 12; -fx-padding: 8 25; -fx-background-color: #999999; -fx-text-fill: white;");
+		backBtn.setOnAction(e -> {
+			if (navigationListener != null) {
+				navigationListener.goBack();
+			}
+		});
+
+		buttonPanel.getChildren().addAll(rebuildBtn, backBtn);
+		mainLayout.setBottom(buttonPanel);
+	}
+
+	// Tabel laporan: label baris, jumlah order, jumlah item, dan total penjualan
+	@SuppressWarnings("unchecked")
+	private TableView<SalesTotal> createTable(String labelTitle) {
+		TableView<SalesTotal> table = new TableView<>();
+		table.setPlaceholder(new Label("Belum ada penjualan"));
+
+		TableColumn<SalesTotal, String> labelCol = new TableColumn<>(labelTitle);
+		labelCol.setCellValueFactory(new PropertyValueFactory<>("label"));
+		labelCol.setPrefWidth(300);
+
+		TableColumn<SalesTotal, Integer> orderCol = new TableColumn<>("Jumlah Order");
+		orderCol.setCellValueFactory(new PropertyValueFactory<>("orderCount"));
+		orderCol.setPrefWidth(130);
+
+		TableColumn<SalesTotal, Integer> qtyCol = new TableColumn<>("Item Terjual");
+		qtyCol.setCellValueFactory(new PropertyValueFactory<>("quantity"));
+		qtyCol.setPrefWidth(130);
+
+		TableColumn<SalesTotal, String> revenueCol = new TableColumn<>("Total Penjualan (Setelah Diskon)");
+		revenueCol.setCellValueFactory(cell -> new SimpleStringProperty(
+				"Rp " + String.format("%,.0f", cell.getValue().getRevenue())));
+		revenueCol.setPrefWidth(200);
+
+		table.getColumns().addAll(labelCol, orderCol, qtyCol, revenueCol);
+		return table;
+	}
+
+	// Memuat keempat laporan di background untuk rentang tanggal yang dipilih
+	private void loadReport() {
+		LocalDate from = fromPicker.getValue();
+		LocalDate to = toPicker.getValue();
+		if (from == null || to == null || from.isAfter(to)) {
+			showAlert("Warning", "Rentang tanggal tidak valid");
+			return;
+		}
+
+		AsyncLoader.loadInto(dailyTable, () -> salesReportHandler.getDailySales(from, to), daily -> {
+			dailyTable.setItems(FXCollections.observableArrayList(daily));
+			showSummary(daily);
+		});
+		AsyncLoader.loadInto(categoryTable, () -> salesReportHandler.getCategorySales(from, to),
+				totals -> categoryTable.setItems(FXCollections.observableArrayList(totals)));
+		AsyncLoader.loadInto(productTable,
+				() -> salesReportHandler.getTopProducts(from, to, SalesReportHandler.DEFAULT_TOP_LIMIT),
+				totals -> productTable.setItems(FXCollections.observableArrayList(totals)));
+		AsyncLoader.loadInto(customerTable,
+				() -> salesReportHandler.getTopCustomers(SalesReportHandler.DEFAULT_TOP_LIMIT),
+				totals -> customerTable.setItems(FXCollections.observableArrayList(totals)));
+	}
+
+	// Total rentang dijumlahkan dari baris harian yang sudah dimuat
+	private void showSummary(List<SalesTotal> daily) {
+		int orders = 0;
+		double revenue = 0;
+		for (SalesTotal total : daily) {
+			orders += total.getOrderCount();
+			revenue += total.getRevenue();
+		}
+		summaryLabel.setText(orders + " order, total Rp " + String.format("%,.0f", revenue));
+	}
+
+	private void rebuild(Button rebuildBtn) {
+		rebuildBtn.setDisable(true);
+		AsyncLoader.load(salesReportHandler::rebuildAggregates, result -> {
+			rebuildBtn.setDisable(false);
+			if (result.equals("success")) {
+				loadReport();
+			} else {
+				showAlert("Error", result);
+			}
+		}, error -> {
+			rebuildBtn.setDisable(false);
+			error.printStackTrace();
+			showAlert("Error", "Hitung ulang ringkasan penjualan gagal");
+		});
+	}
+
+	private void showAlert(String title, String msg) {
+		Alert alert = new Alert(Alert.AlertType.INFORMATION);
+		alert.setTitle(title);
+		alert.setHeaderText(null);
+		alert.setContentText(msg);
+		alert.showAndWait();
+	}
+
+	// Dipanggil Main saat view diambil dari ViewCache: muat ulang laporan dengan rentang yang sama
+	@Override
+	public void refresh() {
+		loadReport();
+	}
+
+	public Scene getScene() {
+		return scene;
+	}
+
+	public void setNavigationListener(NavigationListener navigationListener) {
+		this.navigationListener = navigationListener;
+	}
+}
@@ -0,0 +1,168 @@
+package view;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * AsyncLoader - Menjalankan pemuatan data view di background thread
+ *
+ * Query database dijalankan sebagai javafx.concurrent.Task di executor bersama,
+ * lalu hasilnya dikirim kembali ke JavaFX Application Thread lewat Platform.runLater.
+ * Semua load yang masih berjalan dibatalkan oleh Main.navigateTo saat pindah view,
+ * sehingga hasil untuk view lama tidak pernah ditampilkan.
+ * Perubahan data (checkout, hapus, assign) dijalankan lewat submit: tidak ikut dibatalkan
+ * saat pindah view, sehingga hasilnya tidak hilang dan tombol yang dinonaktifkan aktif kembali.
+ */
+public final class AsyncLoader {
+	private static final int THREADS = 4;
+	private static final String LOADING_TEXT = "Memuat data...";
+
+	// Key di TableView.getProperties() untuk Runnable yang dijalankan setelah load berikutnya (lihat TableState)
+	static final String AFTER_LOAD = "asyncLoader.afterLoad";
+
+	private static final AtomicInteger threadCount = new AtomicInteger();
+	private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS, r -> {
+		Thread t = new Thread(r, "view-loader-" + threadCount.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	});
+	private static final Set<Task<?>> pending = ConcurrentHashMap.newKeySet();
+
+	private AsyncLoader() {
+	}
+
+	/**
+	 * Menjalankan loader di background lalu memanggil onLoaded di FX thread
+	 *
+	 * @param loader Kode yang mengambil data (boleh query database)
+	 * @param onLoaded Dipanggil di FX thread dengan hasil loader
+	 * @return Task yang sedang berjalan
+	 */
+	public static <T> Task<T> load(Callable<T> loader, Consumer<T> onLoaded) {
+		return load(loader, onLoaded, Throwable::printStackTrace);
+	}
+
+	/**
+	 * Menjalankan loader di background lalu memanggil onLoaded atau onFailed di FX thread
+	 *
+	 * @param loader Kode yang mengambil data (boleh query database)
+	 * @param onLoaded Dipanggil di FX thread dengan hasil loader
+	 * @param onFailed Dipanggil di FX thread jika loader melempar exception
+	 * @return Task yang sedang berjalan
+	 */
+	public static <T> Task<T> load(Callable<T> loader, Consumer<T> onLoaded, Consumer<Throwable> onFailed) {
+		return start(loader, onLoaded, onFailed, true);
+	}
+
+	/**
+	 * Menjalankan perubahan data di background lalu memanggil onDone atau onFailed di FX thread
+	 * Berbeda dengan load, task ini tidak dibatalkan oleh cancelPending: perubahan yang sudah
+	 * dikirim selalu selesai dan callback-nya selalu dipanggil.
+	 *
+	 * @param action Kode yang mengubah data (boleh query database)
+	 * @param onDone Dipanggil di FX thread dengan hasil action
+	 * @param onFailed Dipanggil di FX thread jika action melempar exception
+	 * @return Task yang sedang berjalan
+	 */
+	public static <T> Task<T> submit(Callable<T> action, Consumer<T> onDone, Consumer<Throwable> onFailed) {
+		return start(action, onDone, onFailed, false);
+	}
+
+	private static <T> Task<T> start(Callable<T> loader, Consumer<T> onLoaded, Consumer<Throwable> onFailed,
+			boolean cancellable) {
+		Task<T> task = new Task<T>() {
+			@Override
+			protected T call() throws Exception {
+				return loader.call();
+			}
+		};
+		if (cancellable) {
+			task.stateProperty().addListener((obs, oldState, state) -> {
+				if (task.isDone()) {
+					pending.remove(task);
+				}
+			});
+			pending.add(task);
+		}
+
+		// Hasil dipublikasikan ke FX thread hanya jika task tidak dibatalkan
+		executor.execute(() -> {
+			task.run();
+			if (task.isCancelled()) {
+				return;
+			}
+			Platform.runLater(() -> {
+				if (task.isCancelled()) {
+					return;
+				}
+				T result;
+				try {
+					result = task.get();
+				} catch (ExecutionException e) {
+					onFailed.accept(e.getCause());
+					return;
+				} catch (InterruptedException | CancellationException e) {
+					return;
+				}
+				onLoaded.accept(result);
+			});
+		});
+		return task;
+	}
+
+	/**
+	 * Memuat data untuk sebuah TableView dengan placeholder "Memuat data..."
+	 * Placeholder asli dikembalikan setelah load selesai, gagal, atau dibatalkan.
+	 * Jika TableState.preserve dipanggil sebelumnya, seleksi dan scroll dikembalikan setelah onLoaded.
+	 *
+	 * @param table TableView yang sedang dimuat
+	 * @param loader Kode yang mengambil data (boleh query database)
+	 * @param onLoaded Dipanggil di FX thread dengan hasil loader
+	 * @return Task yang sedang berjalan
+	 */
+	public static <T> Task<T> loadInto(TableView<?> table, Callable<T> loader, Consumer<T> onLoaded) {
+		Node placeholder = table.getPlaceholder();
+		Object afterLoad = table.getProperties().remove(AFTER_LOAD);
+		table.setPlaceholder(new Label(LOADING_TEXT));
+		if (table.getItems() != null) {
+			table.getItems().clear();
+		}
+
+		Task<T> task = load(loader, result -> {
+			table.setPlaceholder(placeholder);
+			onLoaded.accept(result);
+			if (afterLoad instanceof Runnable) {
+				((Runnable) afterLoad).run();
+			}
+		}, error -> {
+			table.setPlaceholder(placeholder);
+			error.printStackTrace();
+		});
+		task.setOnCancelled(e -> table.setPlaceholder(placeholder));
+		return task;
+	}
+
+	/**
+	 * Membatalkan semua load yang masih berjalan
+	 * Dipanggil oleh Main setiap kali berpindah view.
+	 */
+	public static void cancelPending() {
+		for (Task<?> task : pending) {
+			task.cancel(true);
+		}
+		pending.clear();
+	}
+}
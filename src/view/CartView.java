@@ -17,22 +17,22 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.util.StringConverter;
 import model.CartItem;
-import model.Product;
+import model.CartLine;
 import model.Promo;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * CartView - JavaFX view untuk menampilkan dan mengelola keranjang belanja customer
  */
-public class CartView {
+public class CartView implements RefreshableView {
 	// UI
 	private Scene scene;
 	private BorderPane mainLayout;
 
 	// Handlers
 	private CartItemHandler cic = new CartItemHandler();
-	private ProductHandler pc = new ProductHandler();
 	private CustomerHandler cc = new CustomerHandler();
 	private PromoHandler promoC = new PromoHandler();
 
@@ -43,12 +43,16 @@ public class CartView {
 	private NavigationListener navigationListener;
 
 	// UI
-	private TableView<CartItem> table;
+	private TableView<CartLine> table;
 	private Label totalLabel;
 	private Label balanceLabel;
 	private Label discountLabel;
 	private Button checkoutBtn;
 	private ComboBox<Promo> promoCombo;
+	private volatile double balance;   // Saldo customer, dimuat bersama isi cart
+
+	// Hasil task checkout jika saldo tidak mencukupi (dibedakan dari pesan error checkoutCart)
+	private static final String INSUFFICIENT_BALANCE = "insufficient";
 
 	// Constructor
 	public CartView(String customerId) {
@@ -88,36 +92,24 @@ public class CartView {
 		mainLayout.setTop(header);
 
 		// Table columns
-		TableColumn<CartItem, String> nameCol = new TableColumn<>("Produk");
-		nameCol.setCellValueFactory(cell -> {
-			Product p = pc.getProduct(cell.getValue().getIdProduct());
-			String nm = p != null ? p.getName() : "Produk tidak ditemukan";
-			return new javafx.beans.property.SimpleStringProperty(nm);
-		});
+		TableColumn<CartLine, String> nameCol = new TableColumn<>("Produk");
+		nameCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().getProductName()));
 		nameCol.setPrefWidth(300);
 
-		TableColumn<CartItem, String> priceCol = new TableColumn<>("Harga");
-		priceCol.setCellValueFactory(cell -> {
-			Product p = pc.getProduct(cell.getValue().getIdProduct());
-			double v = p != null ? p.getPrice() : 0;
-			return new javafx.beans.property.SimpleStringProperty("Rp " + String.format("%.0f", v));
-		});
+		TableColumn<CartLine, String> priceCol = new TableColumn<>("Harga");
+		priceCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty("Rp " + String.format("%.0f", cell.getValue().getPrice())));
 		priceCol.setPrefWidth(140);
 
-		TableColumn<CartItem, Integer> qtyCol = new TableColumn<>("Qty");
+		TableColumn<CartLine, Integer> qtyCol = new TableColumn<>("Qty");
 		qtyCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleIntegerProperty(cell.getValue().getCount()).asObject());
 		qtyCol.setPrefWidth(80);
 
-		TableColumn<CartItem, String> subtotalCol = new TableColumn<>("Subtotal");
-		subtotalCol.setCellValueFactory(cell -> {
-			Product p = pc.getProduct(cell.getValue().getIdProduct());
-			double v = p != null ? p.getPrice() * cell.getValue().getCount() : 0;
-			return new javafx.beans.property.SimpleStringProperty("Rp " + String.format("%.0f", v));
-		});
+		TableColumn<CartLine, String> subtotalCol = new TableColumn<>("Subtotal");
+		subtotalCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty("Rp " + String.format("%.0f", cell.getValue().getSubtotal())));
 		subtotalCol.setPrefWidth(160);
 
 		// Action column with Edit and Delete buttons
-		TableColumn<CartItem, Void> actionCol = new TableColumn<>("Aksi");
+		TableColumn<CartLine, Void> actionCol = new TableColumn<>("Aksi");
 		actionCol.setPrefWidth(160);
 		actionCol.setCellFactory(col -> new TableCell<>() {
 			private final Button editBtn = new Button("Update");
@@ -132,13 +124,23 @@ public class CartView {
 				});
 				delBtn.setOnAction(e -> {
 					CartItem item = getTableView().getItems().get(getIndex());
-					String res = cic.deleteCartItem(customerId, item.getIdProduct());
-					if ("success".equals(res)) {
-						loadCartItems();
-						showAlert("Sukses", "Item dihapus dari keranjang");
-					} else {
-						showAlert("Error", "Gagal menghapus: " + res);
-					}
+					// Hapus di background; tabel dan checkout dinonaktifkan sampai selesai
+					setBusy(true);
+					AsyncLoader.submit(() -> cic.deleteCartItem(customerId, item.getIdProduct()), res -> {
+						setBusy(false);
+						if ("success".equals(res)) {
+							loadCartItems();
+							showAlert("Sukses", "Item dihapus dari keranjang");
+						} else {
+							updateTotals();
+							showAlert("Error", "Gagal menghapus: " + res);
+						}
+					}, error -> {
+						setBusy(false);
+						updateTotals();
+						error.printStackTrace();
+						showAlert("Error", "Gagal menghapus item");
+					});
 				});
 			}
 
@@ -195,62 +197,63 @@ public class CartView {
 		promoCombo.setPrefWidth(220);
 		promoBox.getChildren().addAll(promoLbl, promoCombo);
 
-		// Load promos into combo
-		List<Promo> promos = promoC.getAllPromos();
-		if (promos != null) {
-			ObservableList<Promo> promoList = FXCollections.observableArrayList();
-			// insert a null item representing "None" / no promo
-			promoList.add(null);
-			promoList.addAll(promos);
-			promoCombo.setItems(promoList);
-			promoCombo.setEditable(false);
-
-			// show "(None)" when item is null
-			promoCombo.setCellFactory(lv -> new ListCell<>() {
-				@Override
-				protected void updateItem(Promo item, boolean empty) {
-					super.updateItem(item, empty);
-					if (empty) {
-						setText("");
-					} else if (item == null) {
-						setText("(None)");
-					} else {
-						setText(item.getCode());
+		// Load promos into combo (di background thread)
+		AsyncLoader.load(() -> promoC.getAllPromos(), promos -> {
+			if (promos != null) {
+				ObservableList<Promo> promoList = FXCollections.observableArrayList();
+				// insert a null item representing "None" / no promo
+				promoList.add(null);
+				promoList.addAll(promos);
+				promoCombo.setItems(promoList);
+				promoCombo.setEditable(false);
+
+				// show "(None)" when item is null
+				promoCombo.setCellFactory(lv -> new ListCell<>() {
+					@Override
+					protected void updateItem(Promo item, boolean empty) {
+						super.updateItem(item, empty);
+						if (empty) {
+							setText("");
+						} else if (item == null) {
+							setText("(None)");
+						} else {
+							setText(item.getCode());
+						}
 					}
-				}
-			});
-			promoCombo.setButtonCell(new ListCell<>() {
-				@Override
-				protected void updateItem(Promo item, boolean empty) {
-					super.updateItem(item, empty);
-					if (empty) {
-						setText("");
-					} else if (item == null) {
-						setText("(None)");
-					} else {
-						setText(item.getCode());
+				});
+				promoCombo.setButtonCell(new ListCell<>() {
+					@Override
+					protected void updateItem(Promo item, boolean empty) {
+						super.updateItem(item, empty);
+						if (empty) {
+							setText("");
+						} else if (item == null) {
+							setText("(None)");
+						} else {
+							setText(item.getCode());
+						}
 					}
-				}
-			});
-			promoCombo.setConverter(new StringConverter<>() {
-				@Override
-				public String toString(Promo promo) {
-					return promo == null ? "(None)" : promo.getCode();
-				}
-				@Override
-				public Promo fromString(String string) {
-					if (string == null) return null;
-					// try to match code to existing promos; fall back to null meaning none
-					for (Promo p : promoCombo.getItems()) {
-						if (p != null && string.equals(p.getCode())) return p;
+				});
+				promoCombo.setConverter(new StringConverter<>() {
+					@Override
+					public String toString(Promo promo) {
+						return promo == null ? "(None)" : promo.getCode();
 					}
-					return null;
-				}
-			});
-			promoCombo.setOnAction(e -> updateTotals());
-			// default to "(None)"
-			promoCombo.getSelectionModel().selectFirst();
-		}
+					@Override
+					public Promo fromString(String string) {
+						if (string == null) return null;
+						// try to match code to existing promos; fall back to null meaning none
+						for (Promo p : promoCombo.getItems()) {
+							if (p != null && string.equals(p.getCode())) return p;
+						}
+						return null;
+					}
+				});
+				promoCombo.setOnAction(e -> updateTotals());
+				// default to "(None)"
+				promoCombo.getSelectionModel().selectFirst();
+			}
+		});
 
 		// Bottom layout: promo on left, spacer, totals on right
 		HBox bottomRow = new HBox(10);
@@ -268,34 +271,32 @@ public class CartView {
 		mainLayout.setBottom(bottom);
 	}
 
-	// Load cart items from DB
+	// Load cart (join dengan produk) dan saldo dari DB di background thread
 	private void loadCartItems() {
-		try {
-			List<CartItem> items = cic.getCartItems(customerId);
-			ObservableList<CartItem> list = FXCollections.observableArrayList();
+		AsyncLoader.loadInto(table, () -> {
+			List<CartLine> items = cic.getCartLines(customerId);
+			balance = cc.getBalance(customerId);
+			return items;
+		}, items -> {
+			ObservableList<CartLine> list = FXCollections.observableArrayList();
 			if (items != null) list.addAll(items);
 			table.setItems(list);
-		} catch (Exception ex) {
-			table.setItems(FXCollections.observableArrayList());
-		}
-		updateTotals();
+			updateTotals();
+		});
 	}
 
 	// Update totals display
 	private void updateTotals() {
-		double balance = cc.getBalance(customerId);
 		double total = 0;
 		double discount = 0;
-		for (CartItem ci : table.getItems()) {
-			Product p = pc.getProduct(ci.getIdProduct());
-			if (p != null) total += p.getPrice() * ci.getCount();
+		for (CartLine line : table.getItems()) {
+			total += line.getSubtotal();
 		}
 
-		// apply promo discount if any
+		// apply promo discount if any (aturan promo dihitung di memori, tanpa query)
 		Promo selectedPromo = promoCombo.getSelectionModel().getSelectedItem();
 		if (selectedPromo != null) {
-			double pct = selectedPromo.getDiscountPercentage();
-			discount = total * (pct / 100.0);
+			discount = promoC.calculateCartDiscount(selectedPromo.getIdPromo(), table.getItems());
 		}
 
 		double totalAfterDiscount = total - discount;
@@ -322,7 +323,14 @@ public class CartView {
 		}
 	}
 
+	// Menonaktifkan tabel dan tombol checkout selama perubahan cart berjalan di background
+	private void setBusy(boolean busy) {
+		table.setDisable(busy);
+		checkoutBtn.setDisable(busy);
+	}
+
 	// Handle checkout process
+	// Saldo, ID order, dan checkout dibaca/ditulis di background lewat AsyncLoader.submit
 	private void checkout() {
 		// ensure there are items
 		if (table.getItems() == null || table.getItems().isEmpty()) {
@@ -332,9 +340,8 @@ public class CartView {
 
 		// compute totals
 		double totalBefore = 0;
-		for (CartItem ci : table.getItems()) {
-			Product p = pc.getProduct(ci.getIdProduct());
-			if (p != null) totalBefore += p.getPrice() * ci.getCount();
+		for (CartLine line : table.getItems()) {
+			totalBefore += line.getSubtotal();
 		}
 		if (totalBefore <= 0) {
 			showAlert("Warning", "Total belanja tidak valid.");
@@ -343,57 +350,44 @@ public class CartView {
 
 		// apply promo if any
 		Promo selectedPromo = promoCombo.getSelectionModel().getSelectedItem();
-		double discount = 0;
-		String promoId = null;
-		if (selectedPromo != null) {
-			promoId = selectedPromo.getIdPromo(); // use promo id for header
-			discount = totalBefore * (selectedPromo.getDiscountPercentage() / 100.0);
-		}
-
-		// check balance
-		double totalAfterDiscount = totalBefore - discount;
-		double balance = cc.getBalance(customerId);
-		if (balance < totalAfterDiscount) {
-			showAlert("Error", "Saldo tidak mencukupi! Silakan top-up terlebih dahulu.");
-			return;
-		}
-
-		// create order header first
-		OrderHandler oc = new OrderHandler();
-		String orderId = oc.saveDataOrderHeader(customerId, promoId, totalAfterDiscount);
-		if (orderId == null || orderId.trim().isEmpty()) {
-			showAlert("Error", "Gagal menyimpan order header: " + orderId);
-			return;
-		}
-
-		// add each cart item as order detail
-		int idx = 0;
-		for (CartItem ci : table.getItems()) {
-			idx++;
-			Product p = pc.getProduct(ci.getIdProduct());
-			if (p == null) {
-				showAlert("Error", "Produk tidak ditemukan untuk item cart.");
-				return;
-			}
-			String productIdStr = String.valueOf(ci.getIdProduct());
-			String detailRes = oc.saveOrderDetail(orderId, productIdStr, ci.getCount());
-			if (!"success".equals(detailRes)) {
-				showAlert("Error", "Gagal menyimpan detail order untuk produk " + productIdStr + ": " + detailRes);
-				return;
+		String promoId = selectedPromo != null ? selectedPromo.getIdPromo() : null; // use promo id for header
+		List<CartLine> lines = new ArrayList<>(table.getItems());
+		double total = totalBefore;
+		String[] orderId = new String[1];
+
+		setBusy(true);
+		AsyncLoader.submit(() -> {
+			// check balance
+			double discount = promoId != null ? promoC.calculateCartDiscount(promoId, lines) : 0;
+			if (cc.getBalance(customerId) < total - discount) {
+				return INSUFFICIENT_BALANCE;
 			}
 
-			// update product stock
-			String stockRes = pc.editProductStock(productIdStr, p.getStock() - ci.getCount());
-			if (!"success".equals(stockRes)) {
-				showAlert("Error", "Gagal mengupdate stok untuk produk " + productIdStr + ": " + stockRes);
-				return;
+			// checkout seluruh cart dalam satu transaksi
+			OrderHandler oc = new OrderHandler();
+			orderId[0] = oc.generateOrderId();
+			return oc.checkoutCart(orderId[0], customerId, promoId);
+		}, res -> {
+			setBusy(false);
+			if (INSUFFICIENT_BALANCE.equals(res)) {
+				updateTotals();
+				showAlert("Error", "Saldo tidak mencukupi! Silakan top-up terlebih dahulu.");
+			} else if (!"success".equals(res)) {
+				updateTotals();
+				showAlert("Error", "Checkout gagal: " + res);
+			} else {
+				onCheckedOut(orderId[0]);
 			}
-		}
+		}, error -> {
+			setBusy(false);
+			updateTotals();
+			error.printStackTrace();
+			showAlert("Error", "Checkout gagal");
+		});
+	}
 
-		// on success remove all items from cart and refresh
-		for (CartItem ci : table.getItems()) {
-			cic.deleteCartItem(customerId, ci.getIdProduct());
-		}
+	// Dipanggil di FX thread setelah checkout berhasil
+	private void onCheckedOut(String orderId) {
 		loadCartItems();
 		// reset promo to none
 		if (promoCombo != null && !promoCombo.getItems().isEmpty()) {
@@ -405,7 +399,8 @@ public class CartView {
 
 		showAlert("Success", "Checkout berhasil! Order ID: " + orderId);
 		if (onUpdated != null) onUpdated.run();
-		if (navigationListener != null) navigationListener.goBack();
+		// Kembali hanya jika view ini masih ditampilkan (user bisa sudah pindah view)
+		if (navigationListener != null && scene.getWindow() != null) navigationListener.goBack();
 	}
 
 	// Show alert dialog
@@ -416,6 +411,16 @@ public class CartView {
 		alert.showAndWait();
 	}
 
+	/**
+	 * Dipanggil Main saat view diambil dari ViewCache
+	 * Memuat ulang isi cart dan saldo.
+	 */
+	@Override
+	public void refresh() {
+		TableState.preserve(table, CartLine::getIdCartItem);
+		loadCartItems();
+	}
+
 	// Getters dan Setters
 	public Scene getScene() {
 		return scene;
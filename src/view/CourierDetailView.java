@@ -1,7 +1,6 @@
 package view;
 
 import controller.DeliveryHandler;
-import controller.OrderHandler;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -19,6 +18,9 @@ import javafx.scene.text.FontWeight;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import model.Delivery;
+import model.DeliveryStatus;
+
+import java.util.Collections;
 
 /**
  * CourierDetailView - JavaFX view untuk detail pengiriman courier
@@ -30,10 +32,10 @@ public class CourierDetailView {
 
 	// Handler
 	private DeliveryHandler dc = new DeliveryHandler();
-	private OrderHandler oc = new OrderHandler();
 
 	// State
 	private String deliveryId;
+	private String courierId;
 	private NavigationListener navigationListener;
 	
 	private Delivery delivery;
@@ -44,6 +46,7 @@ public class CourierDetailView {
 	// Constructor
 	public CourierDetailView(String deliveryId, String courierId) {
 		this.deliveryId = deliveryId;
+		this.courierId = courierId;
 		this.delivery = dc.getDeliveryById(deliveryId);
 		
 		init();
@@ -157,8 +160,13 @@ public class CourierDetailView {
 		
 		// Create ComboBox with status options
 		ComboBox<String> statusComboBox = new ComboBox<>();
-		statusComboBox.getItems().addAll("pending", "in progress", "delivered");
-		statusComboBox.setValue(delivery.getStatus()); // Set current status as default
+		for (DeliveryStatus status : DeliveryStatus.values()) {
+			statusComboBox.getItems().add(status.getValue());
+		}
+		// Default ke status berikutnya (satu-satunya transisi yang valid)
+		DeliveryStatus current = DeliveryStatus.fromValue(delivery.getStatus());
+		DeliveryStatus next = current != null ? current.next() : null;
+		statusComboBox.setValue(next != null ? next.getValue() : delivery.getStatus());
 		statusComboBox.setPrefWidth(200);
 		
 		// Create layout for the dialog content
@@ -184,22 +192,16 @@ public class CourierDetailView {
 			String newStatus = statusComboBox.getValue();
 			
 			if (newStatus != null && !newStatus.isEmpty()) {
-				String deliveryUpdateResult = dc.updateDeliveryStatus(delivery.getIdDelivery(), newStatus);
+				// Delivery dan order diubah dalam satu transaksi
+				String updateResult = dc.updateDeliveryStatuses(Collections.singletonList(delivery.getIdDelivery()),
+						newStatus, courierId);
 				
-				if ("success".equals(deliveryUpdateResult)) {
-					String orderUpdateResult = oc.editOrderHeaderStatus(delivery.getIdOrder(), newStatus);
-					
-					if ("success".equals(orderUpdateResult)) {
-						delivery.setStatus(newStatus);
-						statusTF.setText(newStatus);
-						showAlert("Sukses", "Status pengiriman dan order diperbarui menjadi " + newStatus);
-					} else {
-						delivery.setStatus(newStatus);
-						statusTF.setText(newStatus);
-						showAlert("Warning", "Status pengiriman berhasil diperbarui, tetapi gagal update status order: " + orderUpdateResult);
-					}
+				if ("success".equals(updateResult)) {
+					delivery.setStatus(newStatus);
+					statusTF.setText(newStatus);
+					showAlert("Sukses", "Status pengiriman dan order diperbarui menjadi " + newStatus);
 				} else {
-					showAlert("Error", "Gagal update status pengiriman: " + deliveryUpdateResult);
+					showAlert("Error", "Gagal update status pengiriman: " + updateResult);
 				}
 			} else {
 				showAlert("Warning", "Please select a status from the dropdown.");
@@ -1,7 +1,6 @@
 package view;
 
 import controller.DeliveryHandler;
-import controller.OrderHandler;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -9,6 +8,7 @@ import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -20,22 +20,27 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.Delivery;
+import model.DeliveryStatus;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * CourierListView - JavaFX view untuk daftar pengiriman courier
  */
-	public class CourierListView {
+	public class CourierListView implements RefreshableView {
 	    private Scene scene;
 	    private BorderPane mainLayout;
 	    private TableView<Delivery> deliveryTable;
 
 	    private DeliveryHandler dc = new DeliveryHandler();
-	    private OrderHandler oc = new OrderHandler();
+
+	    // Kontrol halaman untuk tabel delivery (keyset pagination, order terbaru dulu)
+	    private PageNavigator<Delivery> pager;
+
+	    // Polling perubahan delivery selama view tampil (patch baris, tanpa reload penuh)
+	    private LiveTableRefresher<Delivery> live;
 
 	    private String courierId; // null = mode admin, != null = mode courier
 	    private NavigationListener navigationListener;
@@ -47,6 +52,7 @@ import java.util.List;
 	        loadDeliveries();
 
 	        scene = new Scene(mainLayout, 1000, 700);
+	        live.attach(scene);
 	    }
 
 	    private void setupLayout() {
@@ -69,7 +75,23 @@ import java.util.List;
 	        emptyLabel.setStyle("-fx-font-size: 16; -fx-text-fill: #666;");
 	        deliveryTable.setPlaceholder(emptyLabel);
 
-	        mainLayout.setCenter(deliveryTable);
+	        live = new LiveTableRefresher<>(deliveryTable, Delivery::getIdDelivery,
+	                dc::getDeliveryChangeVersion, since -> {
+	                    if (courierId == null || courierId.isEmpty()) {
+	                        return dc.getDeliveriesChangedSince(since);
+	                    }
+	                    return dc.getDeliveriesChangedSinceByCourierId(courierId, since);
+	                });
+	        pager = new PageNavigator<>(deliveryTable, live.tracking((after, size) -> {
+	            if (courierId == null || courierId.isEmpty()) {
+	                return dc.getDeliveryPage(after, size);
+	            }
+	            return dc.getDeliveryPageByCourierId(courierId, after, size);
+	        }));
+	        live.setPager(pager);
+	        VBox tableBox = new VBox(deliveryTable, pager.getControls());
+	        VBox.setVgrow(deliveryTable, javafx.scene.layout.Priority.ALWAYS);
+	        mainLayout.setCenter(tableBox);
 
 
 	        HBox buttonPanel = new HBox(10);
@@ -121,10 +143,12 @@ import java.util.List;
 	        if (courierId != null) {
 	        	Button updateBtn = new Button("Update Status");
 	        	updateBtn.setStyle("-fx-font-size: 12; -fx-padding: 8 25; -fx-background-color: #FF9800; -fx-text-fill: white;");
+	        	// Courier bisa memilih beberapa pengiriman (Ctrl/Shift) lalu mengubah statusnya sekaligus
+	        	deliveryTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 	        	updateBtn.setOnAction(e -> {
-	        		Delivery selected = deliveryTable.getSelectionModel().getSelectedItem();
+	        		List<Delivery> selected = new ArrayList<>(deliveryTable.getSelectionModel().getSelectedItems());
 	        		
-	        		if (selected == null) {
+	        		if (selected.isEmpty()) {
 	        			showAlert("Warning", "Pilih pengiriman terlebih dahulu!");
 	        			return;
 	        		}
@@ -181,23 +205,10 @@ import java.util.List;
 
 	/**
 	 * Load Deliveries
+	 * Memuat ulang halaman delivery yang sedang dibuka (halaman pertama saat view dibuka)
 	 */
 	private void loadDeliveries() {
-	    List<Delivery> deliveries;
-
-	    if (courierId == null || courierId.isEmpty()) {
-	        deliveries = dc.getAllDeliveries();
-	    } else {
-	        deliveries = dc.getDeliveriesByCourierId(courierId);
-	    }
-
-	    ObservableList<Delivery> items = FXCollections.observableArrayList();
-
-	    if (deliveries != null) {
-	        items.addAll(deliveries);
-	    }
-
-	    deliveryTable.setItems(items); 
+	    pager.reload();
 	}
 	/**
 	 * Show Alert
@@ -209,25 +220,34 @@ import java.util.List;
 		alert.showAndWait();
 	}
 	
-	private void showUpdateStatusAlert(Delivery selected) {
+	private void showUpdateStatusAlert(List<Delivery> selected) {
+	    Delivery first = selected.get(0);
 	    Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
 	    alert.setTitle("Update Status");
 	    alert.setHeaderText("Update Delivery Status");
 	    
 	    ComboBox<String> statusComboBox = new ComboBox<>();
-	    statusComboBox.getItems().addAll("pending", "in progress", "delivered");
-	    statusComboBox.setValue(selected.getStatus());
+	    for (DeliveryStatus status : DeliveryStatus.values()) {
+	        statusComboBox.getItems().add(status.getValue());
+	    }
+	    // Default ke status berikutnya dari pengiriman pertama yang dipilih
+	    DeliveryStatus current = DeliveryStatus.fromValue(first.getStatus());
+	    DeliveryStatus next = current != null ? current.next() : null;
+	    statusComboBox.setValue(next != null ? next.getValue() : first.getStatus());
 	    statusComboBox.setPrefWidth(200);
 	    
 	    VBox dialogContent = new VBox(10);
 	    dialogContent.setPadding(new Insets(10));
-	    dialogContent.getChildren().addAll(
-	        new Label("Delivery ID: " + selected.getIdDelivery()),
-	        new Label("Order ID: " + selected.getIdOrder()),
-	        new Label("Current Status: " + selected.getStatus()),
-	        new Label("Select New Status:"),
-	        statusComboBox
-	    );
+	    if (selected.size() == 1) {
+	        dialogContent.getChildren().addAll(
+	            new Label("Delivery ID: " + first.getIdDelivery()),
+	            new Label("Order ID: " + first.getIdOrder()),
+	            new Label("Current Status: " + first.getStatus())
+	        );
+	    } else {
+	        dialogContent.getChildren().add(new Label(selected.size() + " pengiriman dipilih"));
+	    }
+	    dialogContent.getChildren().addAll(new Label("Select New Status:"), statusComboBox);
 	    
 	    alert.getDialogPane().setContent(dialogContent);
 	    
@@ -241,20 +261,18 @@ import java.util.List;
 	        String newStatus = statusComboBox.getValue();
 	        
 	        if (newStatus != null && !newStatus.isEmpty()) {
-	            String deliveryUpdateResult = dc.updateDeliveryStatus(selected.getIdDelivery(), newStatus);
+	            List<String> ids = new ArrayList<>();
+	            for (Delivery delivery : selected) {
+	                ids.add(delivery.getIdDelivery());
+	            }
+	            // Semua delivery terpilih dan order-nya diubah dalam satu transaksi
+	            String updateResult = dc.updateDeliveryStatuses(ids, newStatus, courierId);
 	            
-	            if ("success".equals(deliveryUpdateResult)) {
-	                String orderUpdateResult = oc.editOrderHeaderStatus(selected.getIdOrder(), newStatus);
-	                
-	                if ("success".equals(orderUpdateResult)) {
-	                    loadDeliveries();
-	                    showAlert("Sukses", "Status pengiriman dan order diperbarui menjadi " + newStatus);
-	                } else {
-	                    showAlert("Warning", "Status pengiriman berhasil diperbarui, tetapi gagal update status order: " + orderUpdateResult);
-	                    loadDeliveries();
-	                }
+	            if ("success".equals(updateResult)) {
+	                live.pollNow();
+	                showAlert("Sukses", "Status " + ids.size() + " pengiriman dan order diperbarui menjadi " + newStatus);
 	            } else {
-	                showAlert("Error", "Gagal update status pengiriman: " + deliveryUpdateResult);
+	                showAlert("Error", "Gagal update status pengiriman: " + updateResult);
 	            }
 	        } else {
 	            showAlert("Warning", "Please select a status from the dropdown.");
@@ -262,6 +280,15 @@ import java.util.List;
 	    }
 	}
 	
+	/**
+	 * Dipanggil Main saat view diambil dari ViewCache
+	 * Menerapkan perubahan delivery sejak view terakhir tampil.
+	 */
+	@Override
+	public void refresh() {
+		live.pollNow();
+	}
+
 	// Getter and Setter
 	public Scene getScene() {
 		return scene;
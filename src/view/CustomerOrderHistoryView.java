@@ -1,12 +1,8 @@
 package view;
 
-import java.util.List;
-
 import controller.CustomerHandler;
 import controller.OrderHandler;
 import controller.UserHandler;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -24,7 +20,7 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import model.OrderHeader;
 
-public class CustomerOrderHistoryView {
+public class CustomerOrderHistoryView implements RefreshableView {
 
 	// UI Components
 	private Scene scene;
@@ -37,13 +33,18 @@ public class CustomerOrderHistoryView {
     private CustomerHandler ch = new CustomerHandler();
     
     private NavigationListener navigationListener;
+
+    // Kontrol halaman untuk riwayat order (keyset pagination, order terbaru dulu)
+    private PageNavigator<OrderHeader> pager;
+    private final String customerId;
 	
     // Constructor
     public CustomerOrderHistoryView(String customerId) {
 //		TODO ????
+    	this.customerId = customerId;
     	init();
 		setupLayout();
-		loadOrders(customerId);
+		loadOrders();
 		
 		scene = new Scene(mainLayout, 850, 600);
 	}
@@ -63,7 +64,10 @@ public class CustomerOrderHistoryView {
 	    mainLayout.setTop(header);
 	    
 	    setupTable();
-	    mainLayout.setCenter(orderTable);
+	    pager = new PageNavigator<>(orderTable, (after, size) -> oc.getCustomerOrderPage(customerId, after, size));
+	    VBox tableBox = new VBox(orderTable, pager.getControls());
+	    VBox.setVgrow(orderTable, javafx.scene.layout.Priority.ALWAYS);
+	    mainLayout.setCenter(tableBox);
 	    
 	    HBox bottomBox = new HBox(10);
         bottomBox.setPadding(new Insets(15));
@@ -127,12 +131,15 @@ public class CustomerOrderHistoryView {
 	}
 
     
-    private void loadOrders(String customerId) {
-		List<OrderHeader> orders = oc.getCustomerOrders(customerId);
-		if (orders != null) {
-			ObservableList<OrderHeader> items = FXCollections.observableArrayList(orders);
-			orderTable.setItems(items);
-		}
+    private void loadOrders() {
+		pager.loadFirst();
+	}
+    
+    // Dipanggil Main saat view diambil dari ViewCache: muat ulang halaman yang sedang dibuka
+    @Override
+    public void refresh() {
+		TableState.preserve(orderTable, OrderHeader::getIdOrder);
+		pager.reload();
 	}
     
     public Scene getScene() {
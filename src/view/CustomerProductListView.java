@@ -26,12 +26,11 @@ import javafx.collections.ObservableList;
 import model.Product;
 import model.User;
 
-import java.util.List;
 
 /**
  * CustomerProductListView - JavaFX view untuk daftar produk customer
  */
-public class CustomerProductListView {
+public class CustomerProductListView implements RefreshableView {
 	// UI Components
 	private Scene scene;
 	private BorderPane mainLayout;
@@ -39,6 +38,8 @@ public class CustomerProductListView {
 	private TableView<Product> productTable;
 
 	// Handlers
+	private static final int SEARCH_LIMIT = 200;	// Jumlah hasil pencarian maksimum
+
 	private ProductHandler pc = new ProductHandler();
 	private UserHandler uc = new UserHandler();
 	private CartItemHandler cic = new CartItemHandler();
@@ -86,6 +87,10 @@ public class CustomerProductListView {
 		Button searchBtn = new Button("Cari");
 		searchBtn.setStyle("-fx-font-size: 11; -fx-padding: 6 15;");
 		searchBtn.setOnAction(e -> searchProducts());
+		searchField.setOnAction(e -> searchProducts());
+
+		// Saran nama produk/kategori saat mengetik, dibaca dari index di memori
+		new SearchAutocomplete(searchField, pc::suggestProducts, suggestion -> searchProducts());
 
 		searchBox.getChildren().addAll(searchLabel, searchField, searchBtn);
 		mainLayout.setTop(new VBox(header, searchBox));
@@ -239,43 +244,51 @@ public class CustomerProductListView {
 	}
 
 	/**
-	 * Load semua produk ke tabel
+	 * Load semua produk ke tabel (di background thread)
 	 */
 	private void loadProducts() {
-		List<Product> products = pc.getAllProducts();
-		if (products != null) {
-			ObservableList<Product> items = FXCollections.observableArrayList(products);
-			productTable.setItems(items);
-		}
+		AsyncLoader.loadInto(productTable, () -> pc.getAllProducts(), products -> {
+			if (products != null) {
+				ObservableList<Product> items = FXCollections.observableArrayList(products);
+				productTable.setItems(items);
+			}
+			StartupMetrics.productListShown();
+		});
 	}
 
 	/**
-	 * Load data user customer
+	 * Load data user customer (di background thread)
 	 */
 	private void loadUser() {
-		User user = uc.getUserByCustomerId(customerId);
-		if (user != null) {
-			this.userId = user.getIdUser();
-		}
+		AsyncLoader.load(() -> uc.getUserByCustomerId(customerId), user -> {
+			if (user != null) {
+				this.userId = user.getIdUser();
+			}
+		});
 	}
 
 	/**
-	 * Cari produk berdasarkan keyword
+	 * Cari produk berdasarkan keyword (di background thread)
 	 */
 	private void searchProducts() {
-		String keyword = searchField.getText().toLowerCase();
-		List<Product> allProducts = pc.getAllProducts();
-
-		ObservableList<Product> filteredList = FXCollections.observableArrayList();
-		if (allProducts != null) {
-			for (Product p : allProducts) {
-				if (p.getName().toLowerCase().contains(keyword) ||
-					p.getCategory().toLowerCase().contains(keyword)) {
-					filteredList.add(p);
-				}
-			}
+		String keyword = searchField.getText().trim();
+		if (keyword.isEmpty()) {
+			loadProducts();
+			return;
 		}
-		productTable.setItems(filteredList);
+		// Dicari di index produk di memori, hanya hasil teratas yang ditampilkan
+		AsyncLoader.loadInto(productTable, () -> pc.searchProducts(keyword, SEARCH_LIMIT),
+				results -> productTable.setItems(FXCollections.observableArrayList(results)));
+	}
+
+	/**
+	 * Dipanggil Main saat view diambil dari ViewCache
+	 * Mengulang pencarian terakhir (atau memuat semua produk jika kosong).
+	 */
+	@Override
+	public void refresh() {
+		TableState.preserve(productTable, Product::getIdProduct);
+		searchProducts();
 	}
 
 	// Getter Setter
@@ -0,0 +1,198 @@
+package view;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.scene.Scene;
+import javafx.scene.control.TableView;
+import javafx.util.Duration;
+import model.ChangeCursor;
+import model.ChangeSet;
+import model.Page;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * LiveTableRefresher - Memperbarui TableView yang sedang terbuka tanpa memuat ulang penuh
+ *
+ * Selama scene view tampil di window, tabel di-polling secara berkala: hanya baris
+ * setelah cursor (updatedAt, id) terakhir yang diambil, lalu baris yang sudah ada di
+ * halaman diganti di tempat (seleksi tetap, termasuk multi-select). Cursor awal diambil tepat sebelum setiap
+ * halaman dimuat (lihat tracking), sehingga perubahan di antara keduanya tidak terlewat.
+ *
+ * Baris berubah yang tidak ada di halaman hanya berpengaruh jika posisinya termasuk
+ * rentang halaman yang dibuka (misalnya order atau delivery baru di halaman pertama):
+ * halaman itu dimuat ulang dengan seleksi dan scroll dipertahankan. Perubahan baris
+ * milik halaman lain dibiarkan.
+ *
+ * @param <T> Tipe item di tabel
+ */
+public class LiveTableRefresher<T> {
+	public static final Duration DEFAULT_INTERVAL = Duration.seconds(5);
+
+	/**
+	 * Sumber cursor awal tabel (dipanggil di background thread)
+	 */
+	@FunctionalInterface
+	public interface VersionSource {
+		ChangeCursor currentVersion();
+	}
+
+	/**
+	 * Sumber baris yang berubah setelah cursor tertentu (dipanggil di background thread)
+	 */
+	@FunctionalInterface
+	public interface ChangeSource<T> {
+		ChangeSet<T> fetch(ChangeCursor since);
+	}
+
+	private final TableView<T> table;
+	private final Function<T, String> key;
+	private final VersionSource versionSource;
+	private final ChangeSource<T> changeSource;
+	private final Timeline timeline;
+	private PageNavigator<T> pager;
+
+	// Cursor terakhir yang sudah tampil di tabel (null sampai halaman pertama dimuat)
+	private volatile ChangeCursor version;
+	private boolean polling;
+
+	public LiveTableRefresher(TableView<T> table, Function<T, String> key,
+			VersionSource versionSource, ChangeSource<T> changeSource) {
+		this(table, key, versionSource, changeSource, DEFAULT_INTERVAL);
+	}
+
+	public LiveTableRefresher(TableView<T> table, Function<T, String> key,
+			VersionSource versionSource, ChangeSource<T> changeSource, Duration interval) {
+		this.table = table;
+		this.key = key;
+		this.versionSource = versionSource;
+		this.changeSource = changeSource;
+
+		timeline = new Timeline(new KeyFrame(interval, e -> pollNow()));
+		timeline.setCycleCount(Animation.INDEFINITE);
+	}
+
+	/**
+	 * Membungkus sumber halaman agar cursor tabel dicatat sebelum halaman diambil
+	 *
+	 * @param source Sumber halaman asli
+	 * @return PageSource untuk PageNavigator
+	 */
+	public PageNavigator.PageSource<T> tracking(PageNavigator.PageSource<T> source) {
+		return (after, pageSize) -> {
+			ChangeCursor current = versionSource.currentVersion();
+			Page<T> page = source.fetch(after, pageSize);
+			if (current != null) {
+				version = current;
+			}
+			return page;
+		};
+	}
+
+	/**
+	 * @param pager PageNavigator tabel, dipakai untuk memuat ulang halaman jika perlu
+	 */
+	public void setPager(PageNavigator<T> pager) {
+		this.pager = pager;
+	}
+
+	/**
+	 * Menjalankan polling hanya selama scene tampil di window
+	 * Saat Main mengganti scene (pindah view), polling berhenti sampai scene dipakai lagi.
+	 *
+	 * @param scene Scene milik view
+	 */
+	public void attach(Scene scene) {
+		scene.windowProperty().addListener((obs, oldWindow, window) -> {
+			if (window != null) {
+				timeline.play();
+			} else {
+				timeline.stop();
+			}
+		});
+		if (scene.getWindow() != null) {
+			timeline.play();
+		}
+	}
+
+	/**
+	 * Mengambil perubahan sekarang tanpa menunggu interval polling berikutnya
+	 * Dipakai setelah view mengubah data sendiri atau saat view diambil dari ViewCache.
+	 */
+	public void pollNow() {
+		ChangeCursor since = version;
+		if (polling || since == null) {
+			return;
+		}
+		polling = true;
+
+		Task<ChangeSet<T>> task = AsyncLoader.load(() -> changeSource.fetch(since), changes -> {
+			polling = false;
+			apply(changes);
+		}, error -> {
+			polling = false;
+			error.printStackTrace();
+		});
+		task.setOnCancelled(e -> polling = false);
+	}
+
+	private void apply(ChangeSet<T> changes) {
+		version = changes.getVersion();
+		if (changes.isTruncated()) {
+			// Terlalu banyak perubahan untuk di-patch: muat ulang halaman (cursor dicatat ulang oleh tracking)
+			reloadPage();
+			return;
+		}
+		if (changes.isEmpty()) {
+			return;
+		}
+
+		ObservableList<T> items = table.getItems();
+		Map<String, Integer> positions = new HashMap<>();
+		for (int i = 0; i < items.size(); i++) {
+			positions.put(key.apply(items.get(i)), i);
+		}
+
+		// Semua baris terpilih (tabel bisa multi-select), dipilih ulang setelah diganti
+		Set<String> selectedKeys = new HashSet<>();
+		for (T selected : table.getSelectionModel().getSelectedItems()) {
+			selectedKeys.add(key.apply(selected));
+		}
+		boolean belongsHere = false;
+
+		List<T> changed = changes.getItems();
+		for (int i = 0; i < changed.size(); i++) {
+			T item = changed.get(i);
+			Integer index = positions.get(key.apply(item));
+			if (index == null) {
+				// Baris baru hanya perlu dimuat jika memang akan tampil di halaman ini
+				belongsHere |= pager != null && pager.covers(changes.getPositions().get(i));
+				continue;
+			}
+			items.set(index, item);
+			if (selectedKeys.contains(key.apply(item))) {
+				table.getSelectionModel().select(index);
+			}
+		}
+
+		if (belongsHere) {
+			reloadPage();
+		}
+	}
+
+	private void reloadPage() {
+		if (pager == null) {
+			return;
+		}
+		TableState.preserve(table, key);
+		pager.reload();
+	}
+}
@@ -106,6 +106,7 @@ public class LoginView {
 	// Setup actions untuk button dan link
 	private void setupActions() {
 		button.setOnAction(e -> {
+			StartupMetrics.loginSubmitted();
 			String result = uc.login(emailTF.getText(), passTF.getText());
 			if ("success".equals(result)) {
 				loggedInUser = uc.getUserByEmail(emailTF.getText());
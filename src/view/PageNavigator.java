@@ -0,0 +1,153 @@
+package view;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import model.Page;
+import model.PageCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PageNavigator - Kontrol halaman (Sebelumnya / Berikutnya) untuk TableView
+ *
+ * Data diambil per halaman dengan keyset pagination: setiap halaman dimulai dari
+ * cursor baris terakhir halaman sebelumnya. Cursor awal setiap halaman yang sudah
+ * dibuka disimpan, sehingga tombol "Sebelumnya" cukup memuat ulang dari cursor itu.
+ * Hanya satu halaman yang ada di memori pada satu waktu.
+ *
+ * @param <T> Tipe item di tabel
+ */
+public class PageNavigator<T> {
+	public static final int DEFAULT_PAGE_SIZE = 50;
+
+	/**
+	 * Sumber data satu halaman (boleh query database, dipanggil di background thread)
+	 */
+	@FunctionalInterface
+	public interface PageSource<T> {
+		Page<T> fetch(PageCursor after, int pageSize);
+	}
+
+	private final TableView<T> table;
+	private final PageSource<T> source;
+	private final int pageSize;
+
+	// cursors.get(i) = cursor awal halaman ke-i (null untuk halaman pertama)
+	private final List<PageCursor> cursors = new ArrayList<>();
+	private int pageIndex;
+	private PageCursor nextCursor;
+
+	private final HBox controls;
+	private final Button prevBtn;
+	private final Button nextBtn;
+	private final Label pageLabel;
+
+	public PageNavigator(TableView<T> table, PageSource<T> source) {
+		this(table, source, DEFAULT_PAGE_SIZE);
+	}
+
+	public PageNavigator(TableView<T> table, PageSource<T> source, int pageSize) {
+		this.table = table;
+		this.source = source;
+		this.pageSize = pageSize;
+
+		prevBtn = new Button("< Sebelumnya");
+		nextBtn = new Button("Berikutnya >");
+		pageLabel = new Label("Halaman 1");
+		prevBtn.setOnAction(e -> previous());
+		nextBtn.setOnAction(e -> next());
+		prevBtn.setDisable(true);
+		nextBtn.setDisable(true);
+
+		controls = new HBox(10, prevBtn, pageLabel, nextBtn);
+		controls.setAlignment(Pos.CENTER);
+		controls.setPadding(new Insets(8));
+	}
+
+	/**
+	 * @return Node kontrol halaman untuk dipasang di layout view
+	 */
+	public HBox getControls() {
+		return controls;
+	}
+
+	/**
+	 * Memuat halaman pertama (dipakai saat view dibuka)
+	 */
+	public void loadFirst() {
+		cursors.clear();
+		cursors.add(null);
+		pageIndex = 0;
+		loadCurrent();
+	}
+
+	/**
+	 * Memuat ulang halaman yang sedang dibuka, misalnya setelah data diubah
+	 */
+	public void reload() {
+		if (cursors.isEmpty()) {
+			loadFirst();
+			return;
+		}
+		loadCurrent();
+	}
+
+	/**
+	 * Mengecek apakah sebuah posisi termasuk rentang halaman yang sedang dibuka
+	 * Rentangnya dimulai setelah baris terakhir halaman sebelumnya dan berakhir di baris
+	 * terakhir halaman ini (tanpa batas bawah jika ini halaman terakhir).
+	 *
+	 * @param position Posisi baris pada urutan halaman
+	 * @return true jika baris itu akan tampil di halaman ini saat dimuat ulang
+	 */
+	public boolean covers(PageCursor position) {
+		if (cursors.isEmpty()) {
+			return false;
+		}
+		PageCursor after = cursors.get(pageIndex);
+		if (after != null && !after.isNewerThan(position)) {
+			return false;
+		}
+		return nextCursor == null || !nextCursor.isNewerThan(position);
+	}
+
+	private void next() {
+		if (nextCursor == null) {
+			return;
+		}
+		pageIndex++;
+		if (cursors.size() <= pageIndex) {
+			cursors.add(nextCursor);
+		} else {
+			cursors.set(pageIndex, nextCursor);
+		}
+		loadCurrent();
+	}
+
+	private void previous() {
+		if (pageIndex == 0) {
+			return;
+		}
+		pageIndex--;
+		loadCurrent();
+	}
+
+	private void loadCurrent() {
+		PageCursor after = cursors.get(pageIndex);
+		prevBtn.setDisable(true);
+		nextBtn.setDisable(true);
+
+		AsyncLoader.loadInto(table, () -> source.fetch(after, pageSize), page -> {
+			nextCursor = page.getNextCursor();
+			table.getItems().setAll(page.getItems());
+			pageLabel.setText("Halaman " + (pageIndex + 1));
+			prevBtn.setDisable(pageIndex == 0);
+			nextBtn.setDisable(!page.hasNext());
+		});
+	}
+}
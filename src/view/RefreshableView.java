@@ -0,0 +1,22 @@
+package view;
+
+import javafx.scene.Scene;
+
+/**
+ * RefreshableView - Interface untuk view yang bisa disimpan di ViewCache
+ * View yang dipakai ulang tidak dibangun ulang; Main cukup memanggil refresh()
+ * untuk memuat ulang datanya sebelum Scene ditampilkan kembali.
+ */
+public interface RefreshableView {
+
+    /**
+     * @return Scene milik view ini
+     */
+    Scene getScene();
+
+    /**
+     * Memuat ulang data view tanpa membangun ulang UI
+     * Seleksi dan posisi scroll tabel dipertahankan.
+     */
+    void refresh();
+}
@@ -0,0 +1,107 @@
+package view;
+
+import javafx.animation.PauseTransition;
+import javafx.event.ActionEvent;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * SearchAutocomplete - Saran ketikan (type-ahead) untuk kolom pencarian
+ *
+ * Saran diminta setelah pengguna berhenti mengetik selama DEBOUNCE, sehingga ketikan
+ * cepat hanya menghasilkan satu permintaan. Sumber saran dibaca dari index di memori
+ * (bukan query per ketikan); permintaan tetap dijalankan lewat AsyncLoader karena
+ * permintaan pertama bisa membangun index dari database.
+ * Memilih saran mengisi kolom pencarian lalu memanggil onChosen.
+ */
+public class SearchAutocomplete {
+	public static final Duration DEBOUNCE = Duration.millis(150);
+	public static final int MAX_SUGGESTIONS = 8;
+
+	/**
+	 * Sumber saran untuk teks yang sedang diketik
+	 */
+	@FunctionalInterface
+	public interface SuggestionSource {
+		List<String> suggest(String prefix, int limit);
+	}
+
+	private final TextField field;
+	private final SuggestionSource source;
+	private final Consumer<String> onChosen;
+	private final ContextMenu menu = new ContextMenu();
+	private final PauseTransition pause = new PauseTransition(DEBOUNCE);
+
+	// true selama teks diisi dari saran, agar perubahan itu tidak meminta saran lagi
+	private boolean choosing;
+
+	public SearchAutocomplete(TextField field, SuggestionSource source, Consumer<String> onChosen) {
+		this.field = field;
+		this.source = source;
+		this.onChosen = onChosen;
+
+		pause.setOnFinished(e -> requestSuggestions(field.getText()));
+		field.textProperty().addListener((obs, oldText, text) -> {
+			if (!choosing) {
+				pause.playFromStart();
+			}
+		});
+		field.focusedProperty().addListener((obs, wasFocused, focused) -> {
+			if (!focused) {
+				menu.hide();
+			}
+		});
+		// Enter tetap menjalankan pencarian biasa; saran yang masih terbuka ditutup
+		field.addEventHandler(ActionEvent.ACTION, e -> {
+			pause.stop();
+			menu.hide();
+		});
+	}
+
+	private void requestSuggestions(String text) {
+		if (text == null || text.trim().isEmpty()) {
+			menu.hide();
+			return;
+		}
+		AsyncLoader.load(() -> source.suggest(text, MAX_SUGGESTIONS), suggestions -> {
+			// Abaikan hasil untuk teks lama jika pengguna sudah mengetik lagi
+			if (text.equals(field.getText())) {
+				show(suggestions);
+			}
+		});
+	}
+
+	private void show(List<String> suggestions) {
+		if (suggestions.isEmpty() || field.getScene() == null || !field.isFocused()) {
+			menu.hide();
+			return;
+		}
+		List<MenuItem> items = new ArrayList<>(suggestions.size());
+		for (String suggestion : suggestions) {
+			MenuItem item = new MenuItem(suggestion);
+			item.setOnAction(e -> choose(suggestion));
+			items.add(item);
+		}
+		menu.getItems().setAll(items);
+		if (!menu.isShowing()) {
+			menu.show(field, Side.BOTTOM, 0, 0);
+		}
+	}
+
+	private void choose(String suggestion) {
+		choosing = true;
+		field.setText(suggestion);
+		field.positionCaret(suggestion.length());
+		choosing = false;
+		pause.stop();
+		menu.hide();
+		onChosen.accept(suggestion);
+	}
+}
@@ -0,0 +1,61 @@
+package view;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * StartupMetrics - Mengukur waktu start aplikasi dan login sampai daftar produk tampil
+ *
+ * Dua angka yang dilaporkan ke console:
+ * - time-to-first-frame: dari JVM start sampai frame pertama LoginView di-layout dan siap digambar
+ * - login-to-product-list: dari tombol Login ditekan sampai tabel daftar produk terisi
+ * Setiap angka hanya dilaporkan sekali per pengukuran.
+ */
+public final class StartupMetrics {
+	private static volatile boolean firstFrameReported;
+	private static volatile long loginStartedAt;   // System.nanoTime saat login, 0 jika tidak sedang diukur
+
+	private StartupMetrics() {
+	}
+
+	/**
+	 * Dipanggil Main saat pulse layout pertama scene login selesai
+	 */
+	public static void firstFrameShown() {
+		if (firstFrameReported) {
+			return;
+		}
+		firstFrameReported = true;
+		long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+		System.out.println("[startup] time-to-first-frame: " + millis + " ms");
+	}
+
+	/**
+	 * Dipanggil LoginView saat tombol Login ditekan
+	 */
+	public static void loginSubmitted() {
+		loginStartedAt = System.nanoTime();
+	}
+
+	/**
+	 * Dipanggil view daftar produk setelah tabel terisi
+	 * Tidak melakukan apa-apa jika tidak didahului login (misalnya kembali dari view lain).
+	 */
+	public static void productListShown() {
+		long started = loginStartedAt;
+		if (started == 0) {
+			return;
+		}
+		loginStartedAt = 0;
+		System.out.println("[startup] login-to-product-list: " + (System.nanoTime() - started) / 1_000_000 + " ms");
+	}
+
+	/**
+	 * Melaporkan lama satu langkah warm-up di background
+	 *
+	 * @param step Nama langkah
+	 * @param startedAt System.nanoTime saat langkah dimulai
+	 */
+	public static void warmUpStep(String step, long startedAt) {
+		System.out.println("[startup] warm-up " + step + ": " + (System.nanoTime() - startedAt) / 1_000_000 + " ms");
+	}
+}
@@ -0,0 +1,64 @@
+package view;
+
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * TableState - Mempertahankan seleksi dan posisi scroll TableView saat data dimuat ulang
+ *
+ * preserve() mencatat key baris yang dipilih dan index baris teratas yang terlihat,
+ * lalu memasang hook yang dijalankan AsyncLoader.loadInto setelah data baru tampil.
+ * Baris dicocokkan lewat key (misalnya ID), karena object hasil query selalu baru.
+ */
+final class TableState {
+
+	private TableState() {
+	}
+
+	/**
+	 * Mencatat state tabel untuk dikembalikan setelah load berikutnya selesai
+	 *
+	 * @param table TableView yang akan dimuat ulang
+	 * @param key Fungsi yang mengambil ID unik dari satu baris
+	 */
+	static <T> void preserve(TableView<T> table, Function<T, String> key) {
+		T selected = table.getSelectionModel().getSelectedItem();
+		String selectedKey = selected != null ? key.apply(selected) : null;
+		int firstVisible = firstVisibleIndex(table);
+
+		Runnable restore = () -> {
+			List<T> items = table.getItems();
+			if (items == null) {
+				return;
+			}
+			if (selectedKey != null) {
+				for (int i = 0; i < items.size(); i++) {
+					if (selectedKey.equals(key.apply(items.get(i)))) {
+						table.getSelectionModel().select(i);
+						break;
+					}
+				}
+			}
+			if (firstVisible > 0 && firstVisible < items.size()) {
+				table.scrollTo(firstVisible);
+			}
+		};
+		table.getProperties().put(AsyncLoader.AFTER_LOAD, restore);
+	}
+
+	private static int firstVisibleIndex(TableView<?> table) {
+		Node flow = table.lookup(".virtual-flow");
+		if (flow instanceof VirtualFlow) {
+			IndexedCell<?> cell = ((VirtualFlow<?>) flow).getFirstVisibleCell();
+			if (cell != null) {
+				return cell.getIndex();
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,65 @@
+package view;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ViewCache - Cache view yang terakhir dibuka untuk navigasi di Main
+ *
+ * Key-nya nama view ditambah parameternya (misalnya "CART|CUST_00001"), dengan
+ * batas jumlah view dan eviction LRU. View yang diambil dari cache dipakai ulang
+ * lengkap dengan Scene, handler, dan state tabelnya, sehingga kembali ke halaman
+ * sebelumnya tidak perlu membangun ulang UI dan koneksi DAO.
+ */
+public class ViewCache {
+	private final LinkedHashMap<String, RefreshableView> views;
+
+	/**
+	 * @param maxEntries Jumlah view maksimum yang disimpan
+	 */
+	public ViewCache(int maxEntries) {
+		this.views = new LinkedHashMap<String, RefreshableView>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, RefreshableView> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Mengambil view dari cache
+	 *
+	 * @param viewName Nama view
+	 * @param params Parameter view
+	 * @return view yang tersimpan, null jika tidak ada
+	 */
+	public RefreshableView get(String viewName, String... params) {
+		return views.get(key(viewName, params));
+	}
+
+	/**
+	 * Menyimpan view ke cache
+	 *
+	 * @param view View yang disimpan
+	 * @param viewName Nama view
+	 * @param params Parameter view
+	 */
+	public void put(RefreshableView view, String viewName, String... params) {
+		views.put(key(viewName, params), view);
+	}
+
+	/**
+	 * Mengosongkan cache, misalnya saat logout
+	 */
+	public void clear() {
+		views.clear();
+	}
+
+	private static String key(String viewName, String... params) {
+		StringBuilder key = new StringBuilder(viewName);
+		for (String param : params) {
+			key.append('|').append(param);
+		}
+		return key.toString();
+	}
+}